@@ -0,0 +1,61 @@
+import forma.Forma;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Converte desenhos entre o formato JSON e o formato binario .edg, sem
+ * abrir a interface grafica. O sentido da conversao vem da extensao da
+ * entrada: um arquivo .edg vira JSON; qualquer outro e lido como JSON e
+ * vira .edg.
+ * <p>
+ * Uso: java ConverteEdg entrada saida
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class ConverteEdg {
+
+    /**
+     * Programa principal. Converte a entrada e mostra os tamanhos dos arquivos.
+     *
+     * @param args entrada e saida
+     */
+    public static void main(String args[]) {
+        if (args.length != 2) {
+            System.err.println("uso: java ConverteEdg entrada saida");
+            System.exit(2);
+        }
+        File entrada = new File(args[0]);
+        File saida = new File(args[1]);
+        try {
+            converter(entrada, saida);
+            System.out.printf("%s (%d bytes) -> %s (%d bytes)%n",
+                entrada, entrada.length(), saida, saida.length());
+        } catch (IOException ex) {
+            System.err.println("Erro de arquivo: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converte um desenho para o outro formato.
+     *
+     * @param entrada arquivo .edg ou JSON
+     * @param saida arquivo no outro formato
+     * @throws IOException se houver erro ao ler ou escrever
+     */
+    public static void converter(File entrada, File saida) throws IOException {
+        if (jsonCoisas.ehEdg(entrada)) {
+            List<Forma> formas = jsonCoisas.carregarFormasEdg(entrada);
+            jsonCoisas.salvarFormasGraficas(formas, saida);
+        } else {
+            List<Forma> formas = jsonCoisas.carregarFormasGraficas(entrada);
+            jsonCoisas.salvarFormasEdg(formas, saida);
+        }
+    }
+}
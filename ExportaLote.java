@@ -0,0 +1,250 @@
+import cena.CenaCompacta;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+/**
+ * Exporta para PNG todos os arquivos JSON de figuras de um diretorio que
+ * casam com um padrao (glob), sem abrir a interface grafica.
+ * <p>
+ * Cada arquivo passa por duas filas: um grupo fixo de threads, uma por
+ * processador, le o arquivo numa {@link cena.CenaCompacta} e desenha a
+ * imagem (trabalho de CPU); um grupo
+ * menor grava os PNGs no disco. Um semaforo limita os arquivos em andamento,
+ * de modo que as imagens sao gravadas e descartadas a medida que ficam
+ * prontas, sem acumular o lote inteiro na memoria. A listagem do diretorio
+ * tambem e lida aos poucos.
+ * </p>
+ * <p>
+ * Uso: java ExportaLote diretorio glob [opcoes]
+ * </p>
+ * <ul>
+ * <li>-saida DIR: diretorio dos PNGs (padrao: o proprio diretorio)</li>
+ * <li>-threads N: threads de desenho (padrao: numero de processadores)</li>
+ * <li>-largura, -altura, -fundo, -escala: como em {@link RenderizaPng}</li>
+ * </ul>
+ * Ao final mostra a vazao, as falhas e os percentis da latencia por arquivo
+ * (da entrada na fila ate o PNG gravado).
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class ExportaLote {
+
+    /** Latencias dos arquivos exportados, em nanossegundos */
+    private long[] latencias = new long[1024];
+
+    /** Quantidade de latencias registradas */
+    private int exportados;
+
+    /** Quantidade de arquivos que falharam */
+    private final AtomicInteger falhas = new AtomicInteger();
+
+    /**
+     * Programa principal. Le as opcoes, exporta o lote e mostra o relatorio.
+     *
+     * @param args diretorio, glob e opcoes
+     */
+    public static void main(String args[]) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            uso("faltam o diretorio e o padrao dos arquivos");
+        }
+        Path diretorio = Paths.get(args[0]);
+        String glob = args[1];
+        Path saida = diretorio;
+        int threads = Runtime.getRuntime().availableProcessors();
+        RenderizaPng.Opcoes op = new RenderizaPng.Opcoes();
+
+        for (int i = 2; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                uso("falta o valor de " + args[i]);
+            }
+            String valor = args[i + 1];
+            if (args[i].equals("-saida")) {
+                saida = Paths.get(valor);
+            } else if (args[i].equals("-threads")) {
+                try {
+                    threads = Integer.parseInt(valor);
+                } catch (NumberFormatException ex) {
+                    threads = 0;
+                }
+                if (threads <= 0) {
+                    uso("valor invalido para -threads: " + valor);
+                }
+            } else if (!op.ler(args[i], valor)) {
+                uso("opcao desconhecida: " + args[i]);
+            }
+        }
+        String erro = op.validar();
+        if (erro != null) {
+            uso(erro);
+        }
+
+        try {
+            Files.createDirectories(saida);
+            new ExportaLote().exportar(diretorio, glob, saida, op, threads);
+        } catch (IOException ex) {
+            System.err.println("Erro de arquivo: " + ex.getMessage());
+            System.exit(1);
+        } catch (InterruptedException ex) {
+            System.err.println("Exportacao interrompida");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Exporta os arquivos do diretorio que casam com o padrao e mostra o
+     * relatorio no final.
+     *
+     * @param diretorio diretorio dos arquivos JSON
+     * @param glob padrao dos nomes, como *.json
+     * @param saida diretorio dos PNGs
+     * @param op opcoes de desenho
+     * @param threads threads de desenho
+     * @throws IOException se o diretorio nao puder ser listado
+     * @throws InterruptedException se a espera pelas filas for interrompida
+     */
+    void exportar(Path diretorio, String glob, Path saida, RenderizaPng.Opcoes op, int threads)
+            throws IOException, InterruptedException {
+        ExecutorService cpu = Executors.newFixedThreadPool(threads);
+        ExecutorService disco = Executors.newFixedThreadPool(Math.max(1, threads / 2));
+        // cada arquivo em andamento segura uma imagem inteira na memoria
+        Semaphore vagas = new Semaphore(2 * threads);
+        int total = 0;
+        long inicio = System.nanoTime();
+
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, glob)) {
+            for (Path arquivo : arquivos) {
+                vagas.acquire();
+                total++;
+                long entrada = System.nanoTime();
+                cpu.execute(() -> {
+                    // a vaga passa para a tarefa de disco; qualquer outra saida
+                    // (inclusive um OutOfMemoryError) a devolve aqui
+                    boolean entregue = false;
+                    try {
+                        CenaCompacta cena = jsonCoisas.carregarCenaCompacta(arquivo.toFile());
+                        BufferedImage imagem = op.renderizar(cena);
+                        disco.execute(() -> {
+                            try {
+                                ImageIO.write(imagem, "png", saida.resolve(nomePng(arquivo)).toFile());
+                                registrar(System.nanoTime() - entrada);
+                            } catch (IOException | RuntimeException ex) {
+                                falhar(arquivo, ex);
+                            } finally {
+                                vagas.release();
+                            }
+                        });
+                        entregue = true;
+                    } catch (IOException | RuntimeException | OutOfMemoryError ex) {
+                        // sem memoria para este desenho: o lote segue com os outros
+                        falhar(arquivo, ex);
+                    } finally {
+                        if (!entregue) {
+                            vagas.release();
+                        }
+                    }
+                });
+            }
+        } finally {
+            // o grupo de disco so para depois que o de CPU parar de alimenta-lo
+            cpu.shutdown();
+            cpu.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            disco.shutdown();
+            disco.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        relatar(total, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Troca a extensao do arquivo por .png.
+     *
+     * @param arquivo arquivo JSON
+     * @return nome do PNG correspondente
+     */
+    private static String nomePng(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return (ponto > 0 ? nome.substring(0, ponto) : nome) + ".png";
+    }
+
+    /**
+     * Registra a latencia de um arquivo exportado.
+     *
+     * @param nanos latencia em nanossegundos
+     */
+    private synchronized void registrar(long nanos) {
+        if (exportados == latencias.length) {
+            latencias = Arrays.copyOf(latencias, 2 * exportados);
+        }
+        latencias[exportados++] = nanos;
+    }
+
+    /**
+     * Conta e mostra uma falha sem interromper o lote.
+     *
+     * @param arquivo arquivo que falhou
+     * @param ex erro ocorrido
+     */
+    private void falhar(Path arquivo, Throwable ex) {
+        falhas.incrementAndGet();
+        System.err.println("falha em " + arquivo + ": " + ex);
+    }
+
+    /**
+     * Mostra a vazao, as falhas e os percentis de latencia.
+     *
+     * @param total arquivos encontrados
+     * @param nanos tempo total do lote
+     */
+    private synchronized void relatar(int total, long nanos) {
+        long[] ordenadas = Arrays.copyOf(latencias, exportados);
+        Arrays.sort(ordenadas);
+        double segundos = nanos / 1e9;
+        System.out.printf("arquivos: %d, exportados: %d, falhas: %d%n", total, exportados, falhas.get());
+        System.out.printf("tempo total %.2f s, vazao %.1f arquivos/s%n", segundos, exportados / segundos);
+        if (exportados > 0) {
+            System.out.printf("latencia por arquivo: p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentil(ordenadas, 50), percentil(ordenadas, 90), percentil(ordenadas, 99),
+                ordenadas[ordenadas.length - 1] / 1e6);
+        }
+    }
+
+    /**
+     * Calcula um percentil (pelo posto mais proximo) de valores ordenados.
+     *
+     * @param ordenadas valores em nanossegundos, em ordem crescente
+     * @param p percentil, de 0 a 100
+     * @return percentil em milissegundos
+     */
+    private static double percentil(long[] ordenadas, int p) {
+        int i = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, i)] / 1e6;
+    }
+
+    /**
+     * Mostra a mensagem de erro e o modo de uso, e termina o programa.
+     *
+     * @param erro descricao do erro
+     */
+    private static void uso(String erro) {
+        System.err.println(erro);
+        System.err.println("uso: java ExportaLote diretorio glob [-saida DIR] [-threads N] "
+            + RenderizaPng.Opcoes.USO);
+        System.exit(2);
+    }
+}
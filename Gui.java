@@ -3,6 +3,8 @@ import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
 
@@ -10,6 +12,7 @@ import javax.swing.AbstractAction;
 import javax.swing.AbstractButton;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JColorChooser;
 import javax.swing.JComponent;
 import javax.swing.JFileChooser;
@@ -58,9 +61,18 @@ class Gui extends JFrame {
     /** Botao para desenhar retas */
     private JButton jbRetaEq = new JButton("Reta");
     
+    /** Botao para desenhar retas pelo ponto medio (Bresenham) */
+    private JButton jbRetaMp = new JButton("Reta MP");
+    
+    /** Botao para desenhar retas suavizadas (Xiaolin Wu) */
+    private JButton jbRetaAa = new JButton("Reta AA");
+    
     /** Botao para desenhar circulos */
     private JButton jbCirculoEq = new JButton("Circulo");
     
+    /** Botao para desenhar circulos suavizados (Xiaolin Wu) */
+    private JButton jbCirculoAa = new JButton("Circulo AA");
+    
     /** Botao para desenhar retangulos */
     private JButton jbRetangulo = new JButton("Retangulo");
     
@@ -87,12 +99,15 @@ class Gui extends JFrame {
     /** Label que exibe a espessura atual */
     private JLabel jlEsp = new JLabel("   Espessura: " + String.format("%-5s", 1));
     
-    /** Slider para ajustar espessura do trao */
+    /** Slider para ajustar espessura do traço */
     private JSlider jsEsp = new JSlider(1, 50, 1);
     
     /** Checkbox para ativar/desativar viewport */
     private JCheckBox jcbComViewp = new JCheckBox("Viewport");
 
+    /** Checkbox para preencher retangulos, triangulos e circulos */
+    private JCheckBox jcbPreencher = new JCheckBox("Preencher");
+
     // Barra de menu
     /** Barra de menu principal */
     private JMenuBar jmbBarra = new JMenuBar();
@@ -121,6 +136,9 @@ class Gui extends JFrame {
     /** Item de menu Refazer */
     private JMenuItem jmRefazer;
     
+    /** Item de menu para contornar as regioes de repintura (depuracao) */
+    private JCheckBoxMenuItem jmRegioes;
+    
     /** Item de menu Sobre */
     private JMenuItem jmSobre;
 
@@ -142,11 +160,21 @@ class Gui extends JFrame {
         super("Testa Primitivos");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(larg, alt);
+        // fecha o diario do desenho antes de sair, como o botao Sair
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                sair();
+            }
+        });
 
         // Adiciona os componentes na barra de comandos
         barraComandos.add(jbPonto);
         barraComandos.add(jbRetaEq);
+        barraComandos.add(jbRetaMp);
+        barraComandos.add(jbRetaAa);
         barraComandos.add(jbCirculoEq);
+        barraComandos.add(jbCirculoAa);
         barraComandos.add(jbRetangulo);
         barraComandos.add(jbTriangulo);
         barraComandos.addSeparator();
@@ -157,6 +185,7 @@ class Gui extends JFrame {
         barraComandos.add(jbCor);
         barraComandos.add(jlEsp);
         barraComandos.add(jsEsp);
+        barraComandos.add(jcbPreencher);
         barraComandos.add(jcbComViewp);
         barraComandos.addSeparator();
         barraComandos.add(jbSair);
@@ -183,7 +212,10 @@ class Gui extends JFrame {
         // --- Action Listeners para Formas ---
         jbPonto.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.PONTO));
         jbRetaEq.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.RETA_EQ));
+        jbRetaMp.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.RETA_MP));
+        jbRetaAa.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.RETA_AA));
         jbCirculoEq.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.CIRCULO_EQ));
+        jbCirculoAa.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.CIRCULO_AA));
         jbRetangulo.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.RETANGULO));
         jbTriangulo.addActionListener(e -> areaDesenho.setTipo(TipoPrimitivo.TRIANGULO));
 
@@ -219,7 +251,9 @@ class Gui extends JFrame {
                     areaDesenho.setComViewport(absB.getModel().isSelected());
             });
 
-        jbSair.addActionListener(e -> System.exit(0));
+        jcbPreencher.addActionListener(e -> areaDesenho.setPreencher(jcbPreencher.isSelected()));
+
+        jbSair.addActionListener(e -> sair());
     }
 
     /**
@@ -268,7 +302,7 @@ class Gui extends JFrame {
 
         jmArquivo.addSeparator();
         jmSair = new JMenuItem("Sair");
-        jmSair.addActionListener(e -> System.exit(0));
+        jmSair.addActionListener(e -> sair());
         jmArquivo.add(jmSair);
 
         // --- Menu Editar ---
@@ -286,6 +320,11 @@ class Gui extends JFrame {
         jmRefazer.addActionListener(e -> areaDesenho.refazer());
         jmEditar.add(jmRefazer);
 
+        jmEditar.addSeparator();
+        jmRegioes = new JCheckBoxMenuItem("Mostrar regioes de repintura");
+        jmRegioes.addActionListener(e -> areaDesenho.setMostrarRegioes(jmRegioes.isSelected()));
+        jmEditar.add(jmRegioes);
+
         // --- Menu Ajuda ---
         jmAjuda = new JMenu("Ajuda");
         jmAjuda.setMnemonic(KeyEvent.VK_J);
@@ -299,22 +338,43 @@ class Gui extends JFrame {
     }
 
     /**
-     * Abre dialogo para salvar o desenho atual em arquivo JSON.
-     * Garante que o arquivo tenha a extensao .json.
+     * Fecha o diario do desenho e encerra o programa. Todas as saidas
+     * passam por aqui: sem fechar o diario, as mudancas nao salvas seriam
+     * recuperadas na proxima abertura como as de uma queda.
+     */
+    private void sair() {
+        try {
+            areaDesenho.fecharDiario();
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Erro ao fechar o diario do desenho: " + ex.getMessage(), "Erro de Arquivo", JOptionPane.ERROR_MESSAGE);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Abre dialogo para salvar o desenho atual em arquivo JSON ou .edg.
+     * Garante que o arquivo tenha a extensao .json ou .edg.
      */
     private void salvarArquivo() {
+        if (areaDesenho.isCarregando()) {
+            JOptionPane.showMessageDialog(this, "Espere o desenho terminar de carregar antes de salvar.", "Salvar Desenho", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
         JFileChooser seletor = new JFileChooser();
         seletor.setDialogTitle("Salvar Desenho");
         if (seletor.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File arquivo = seletor.getSelectedFile();
             try {
-                // Garante que o arquivo tenha extenso .json
-                if (!arquivo.getName().toLowerCase().endsWith(".json")) {
+                // Garante que o arquivo tenha extensão .json (ou .edg)
+                if (!arquivo.getName().toLowerCase().endsWith(".json") && !jsonCoisas.ehEdg(arquivo)) {
                     arquivo = new File(arquivo.getParentFile(), arquivo.getName() + ".json");
                 }
                 areaDesenho.salvar(arquivo);
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, "Erro ao salvar o arquivo: " + ex.getMessage(), "Erro de Arquivo", JOptionPane.ERROR_MESSAGE);
+            } catch (Exception ex) {
+                // o desenho aberto sob demanda pode ter um bloco corrompido
+                JOptionPane.showMessageDialog(this, "Erro ao salvar o arquivo: " + ex.getMessage(), "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
@@ -328,13 +388,25 @@ class Gui extends JFrame {
         seletor.setDialogTitle("Carregar Desenho");
         if (seletor.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File arquivo = seletor.getSelectedFile();
-            try {
-                areaDesenho.carregar(arquivo);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Erro ao carregar o arquivo: " + ex.getMessage(), "Erro de Arquivo", JOptionPane.ERROR_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Arquivo em formato invlido ou corrompido.", "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
+            if (jsonCoisas.ehEdg(arquivo)) {
+                // .edg abre mapeado: so as formas visiveis sao lidas do arquivo
+                try {
+                    areaDesenho.carregarMapeado(arquivo, ex -> JOptionPane.showMessageDialog(this, "Parte do arquivo esta corrompida e nao sera desenhada.", "Erro de Leitura", JOptionPane.ERROR_MESSAGE));
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(this, "Erro ao carregar o arquivo: " + ex.getMessage(), "Erro de Arquivo", JOptionPane.ERROR_MESSAGE);
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(this, "Arquivo em formato inválido ou corrompido.", "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
+                }
+                return;
             }
+            // as formas aparecem aos poucos; erros de leitura chegam depois
+            areaDesenho.carregarAosPoucos(arquivo, ex -> {
+                if (ex instanceof IOException) {
+                    JOptionPane.showMessageDialog(this, "Erro ao carregar o arquivo: " + ex.getMessage(), "Erro de Arquivo", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Arquivo em formato inválido ou corrompido.", "Erro de Leitura", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -343,10 +415,10 @@ class Gui extends JFrame {
      * Mostra versao, direitos autorais e informacoes do grupo.
      */
     private void sobre() {
-        String texto = "Testador de Primitivos Grficos\nVersao 2.0\n\n"
+        String texto = "Testador de Primitivos Gráficos\nVersao 2.0\n\n"
             + "(c) Copyright 2021-2025. Todos os direitos reservados.\n\n"
-            + "Computao Grfica e Processamento de Imagens\n"
+            + "Computação Gráfica e Processamento de Imagens\n"
             + "Grupo AGGL\nCiencia da Computacao - PUCSP";
-        JOptionPane.showMessageDialog(this, texto, "Sobre Testador de Primitivos Grficos", JOptionPane.INFORMATION_MESSAGE);
+        JOptionPane.showMessageDialog(this, texto, "Sobre Testador de Primitivos Gráficos", JOptionPane.INFORMATION_MESSAGE);
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 import circulo.CirculoGr;
 import constantes.TipoPrimitivo;
+import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
@@ -10,10 +12,29 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import binario.DesenhoMapeado;
+import binario.Diario;
+import cena.CacheLadrilhos;
+import cena.IndiceEspacial;
+import cena.RenderizadorLotes;
+import forma.Forma;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import ponto.Ponto;
 import ponto.PontoGr;
 import reta.RetaGr;
@@ -37,7 +58,7 @@ import org.json.JSONTokener;
  */
 public class PainelDesenho extends JPanel implements MouseListener, MouseMotionListener {
 
-    // --- Variveis da UI e de Estado ---
+    // --- Variáveis da UI e de Estado ---
 
     /** Label para exibir mensagens ao usuario */
     private JLabel msg;
@@ -51,10 +72,13 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
     /** Cor atual para desenho */
     private Color corAtual = Color.BLACK;
 
-    /** Espessura atual do trao */
+    /** Espessura atual do traço */
     private int espessura = 1;
 
-    // --- Coordenadas temporrias para desenho ---
+    /** Indica se retangulos, triangulos e circulos novos sao preenchidos */
+    private boolean preencher;
+
+    // --- Coordenadas temporárias para desenho ---
 
     /** Coordenada X do primeiro ponto */
     private int x1;
@@ -77,13 +101,16 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
     /** Contador de cliques do mouse */
     private int cliques = 0;
 
-    // --- Estruturas de Dados para Formas e Histrico ---
+    // --- Estruturas de Dados para Formas e Histórico ---
 
     /** Lista de formas desenhadas na tela */
-    private List<Object> formas = new ArrayList<>();
+    private List<Forma> formas = new ArrayList<>();
 
     /** Lista de formas desfeitas (para funcao refazer) */
-    private List<Object> desfeitas = new ArrayList<>();
+    private List<Forma> desfeitas = new ArrayList<>();
+
+    /** Indice espacial das formas, usado para desenhar apenas o que cruza a regiao de recorte */
+    private IndiceEspacial indice = new IndiceEspacial();
 
     /** Reta temporaria durante o desenho (feedback visual) */
     private RetaGr retaElastica = null;
@@ -97,6 +124,44 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
     /** Circulo temporario durante o desenho (feedback visual) */
     private CirculoGr circuloElastico = null;
 
+    // --- Cache de Renderizacao ---
+
+    /** Renderizador que desenha as formas confirmadas agrupadas por estilo */
+    private RenderizadorLotes renderizador = new RenderizadorLotes();
+
+    /** Cache das formas ja confirmadas, dividido em ladrilhos redesenhados em paralelo */
+    private CacheLadrilhos ladrilhos = new CacheLadrilhos(indice, renderizador);
+
+    /** Trocas de estado do Graphics2D feitas no ultimo quadro */
+    private int trocasUltimoQuadro = 0;
+
+    /** Formas simplificadas ou descartadas pelo nivel de detalhe no ultimo quadro */
+    private int detalheUltimoQuadro = 0;
+
+    /** Quantidade de formas entregues por lote no carregamento aos poucos */
+    private static final int TAMANHO_LOTE_CARGA = 2000;
+
+    /** Desenho .edg aberto sob demanda, por baixo das formas da lista, ou null */
+    private DesenhoMapeado mapeado;
+
+    /**
+     * Formas do desenho aberto sob demanda que foram desfeitas e podem ser
+     * refeitas; ficam no topo das desfeitas, antes das da lista
+     */
+    private int desfeitasNoMapeado;
+
+    /** Carregamento de arquivo em andamento, ou null */
+    private SwingWorker<Void, List<Forma>> carregamento;
+
+    /** Formas desenhadas durante o carregamento, registradas no diario quando ele terminar */
+    private List<Forma> desenhadasNaCarga = new ArrayList<>();
+
+    /** Diario de operacoes do arquivo aberto ou salvo, ou null */
+    private Diario diario;
+
+    /** Indica se as regioes de repintura devem ser contornadas na tela (depuracao) */
+    private boolean mostrarRegioes = false;
+
     /** Indica se esta desenhando um circulo */
     private boolean desenhandoCirculo = false;
 
@@ -112,7 +177,7 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
      * @param msg label para exibir mensagens
      * @param tipo tipo inicial de primitivo
      * @param corAtual cor inicial de desenho
-     * @param esp espessura inicial do trao
+     * @param esp espessura inicial do traço
      */
     public PainelDesenho(JLabel msg, TipoPrimitivo tipo, Color corAtual, int esp) {
         setTipo(tipo);
@@ -144,14 +209,14 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
     public TipoPrimitivo getTipo(){ return this.tipo; }
 
     /**
-     * Define a espessura do trao.
+     * Define a espessura do traço.
      * 
      * @param esp espessura em pixels
      */
     public void setEsp(int esp){ this.espessura = esp; }
 
     /**
-     * Retorna a espessura atual do trao.
+     * Retorna a espessura atual do traço.
      * 
      * @return espessura em pixels
      */
@@ -199,7 +264,45 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
      */
     public void setComViewport(boolean comViewport) { this.comViewport = comViewport; }
 
-    // --- Lgica de Desenho e Eventos de Mouse ---
+    /**
+     * Verifica se retangulos, triangulos e circulos novos sao desenhados preenchidos.
+     * 
+     * @return true se o preenchimento esta ativo
+     */
+    public boolean isPreencher() { return preencher; }
+
+    /**
+     * Define se retangulos, triangulos e circulos novos sao desenhados preenchidos.
+     * 
+     * @param preencher true para preencher, false para desenhar so o contorno
+     */
+    public void setPreencher(boolean preencher) { this.preencher = preencher; }
+
+    /**
+     * Verifica se um arquivo ainda esta sendo carregado aos poucos.
+     * 
+     * @return true enquanto o carregamento nao terminar
+     */
+    public boolean isCarregando() { return carregamento != null; }
+
+    /**
+     * Verifica se as regioes de repintura estao sendo contornadas.
+     * 
+     * @return true se a depuracao de repintura esta ativa
+     */
+    public boolean isMostrarRegioes() { return mostrarRegioes; }
+
+    /**
+     * Ativa ou desativa o contorno das regioes de repintura (depuracao).
+     * 
+     * @param mostrarRegioes true para contornar cada regiao repintada
+     */
+    public void setMostrarRegioes(boolean mostrarRegioes) {
+        this.mostrarRegioes = mostrarRegioes;
+        repaint();
+    }
+
+    // --- Lógica de Desenho e Eventos de Mouse ---
 
     /**
      * Tratador de evento de pressionar botao do mouse.
@@ -209,30 +312,36 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
      */
     @Override
     public void mousePressed(MouseEvent e) {
+        Rectangle antes = limitesElastico();
         if (tipo == TipoPrimitivo.PONTO) {
-            formas.add(new PontoGr(e.getX(), e.getY(), getCorAtual(), getEsp()));
-            desfeitas.clear();
+            adicionarForma(new PontoGr(e.getX(), e.getY(), getCorAtual(), getEsp()));
 
         } else if (tipo == TipoPrimitivo.RETA_EQ ||
         tipo == TipoPrimitivo.RETA_MP ||
+        tipo == TipoPrimitivo.RETA_AA ||
         tipo == TipoPrimitivo.RETA_LIB) {
             x1 = e.getX();
             y1 = e.getY();
             x2 = x1;
             y2 = y1;
             retaElastica = new RetaGr(x1, y1, x2, y2, corAtual, espessura);
+            retaElastica.setModo(tipo);
 
         } else if (tipo == TipoPrimitivo.RETANGULO) {
             x1 = e.getX();
             y1 = e.getY();
             retanguloElastico = new RetanguloGraf(new Ponto(x1, y1), new Ponto(x1, y1), getCorAtual(), getEsp());
+            retanguloElastico.setPreenchido(preencher);
 
         } else if (tipo == TipoPrimitivo.CIRCULO_EQ ||
         tipo == TipoPrimitivo.CIRCULO_MP ||
+        tipo == TipoPrimitivo.CIRCULO_AA ||
         tipo == TipoPrimitivo.CIRCULO_LIB) {
             x1 = e.getX();
             y1 = e.getY();
             circuloElastico = new CirculoGr(x1, y1, 0, getCorAtual(), "", getEsp());
+            circuloElastico.setModo(tipo);
+            circuloElastico.setPreenchido(preencher);
             desenhandoCirculo = true;
 
         } else if (tipo == TipoPrimitivo.TRIANGULO) {
@@ -247,17 +356,18 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
                     getCorAtual(),
                     getEsp()
                 );
+                trianguloElastico.setPreenchido(preencher);
                 desenhandoTriangulo = true;
                 estadoTriangulo = 1;
 
             } else if (estadoTriangulo == 2) {
                 // Terceira etapa: iniciar movimento do terceiro ponto
-                // (mousePressed aps soltar o segundo ponto)
+                // (mousePressed após soltar o segundo ponto)
                 x3 = e.getX();
                 y3 = e.getY();
             }
         }
-        repaint();
+        repintarRegiao(antes, limitesElastico());
     }
 
     /**
@@ -268,36 +378,39 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
      */
     @Override
     public void mouseDragged(MouseEvent e) {
+        Rectangle antes = limitesElastico();
         if ((tipo == TipoPrimitivo.RETA_EQ ||
             tipo == TipoPrimitivo.RETA_MP ||
+            tipo == TipoPrimitivo.RETA_AA ||
             tipo == TipoPrimitivo.RETA_LIB) && retaElastica != null) {
             x2 = e.getX();
             y2 = e.getY();
             retaElastica.atualizarPontoFinal(x2, y2);
-            repaint();
+            repintarRegiao(antes, limitesElastico());
 
         } else if (tipo == TipoPrimitivo.TRIANGULO && trianguloElastico != null && desenhandoTriangulo) {
             if (estadoTriangulo == 1) {
                 // Primeira etapa: arrastar p2 (base do triangulo)
                 trianguloElastico.atualizarP2(e.getX(), e.getY());
-                // p3 segue p2 (triangulo achatado at soltar)
+                // p3 segue p2 (triangulo achatado até soltar)
                 trianguloElastico.atualizarP3(e.getX(), e.getY());
 
             } else if (estadoTriangulo == 2) {
                 // Segunda etapa: arrastar p3 (altura do triangulo)
                 trianguloElastico.atualizarP3(e.getX(), e.getY());
             }
-            repaint();
+            repintarRegiao(antes, limitesElastico());
 
         } else if (tipo == TipoPrimitivo.RETANGULO && retanguloElastico != null) {
             retanguloElastico.atualizarP2(e.getX(), e.getY());
-            repaint();
+            repintarRegiao(antes, limitesElastico());
 
         } else if ((tipo == TipoPrimitivo.CIRCULO_EQ ||
             tipo == TipoPrimitivo.CIRCULO_MP ||
+            tipo == TipoPrimitivo.CIRCULO_AA ||
             tipo == TipoPrimitivo.CIRCULO_LIB) && circuloElastico != null && desenhandoCirculo) {
             circuloElastico.atualizarRaio(e.getX(), e.getY());
-            repaint();
+            repintarRegiao(antes, limitesElastico());
         }
     }
 
@@ -309,36 +422,39 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
      */
     @Override
     public void mouseReleased(MouseEvent e) {
+        Rectangle antes = limitesElastico();
         if ((tipo == TipoPrimitivo.RETA_EQ ||
             tipo == TipoPrimitivo.RETA_MP ||
+            tipo == TipoPrimitivo.RETA_AA ||
             tipo == TipoPrimitivo.RETA_LIB) && retaElastica != null) {
             x2 = e.getX();
             y2 = e.getY();
             retaElastica.atualizarPontoFinal(x2, y2);
-            formas.add(retaElastica);
+            Rectangle depois = limitesElastico();
+            adicionarForma(retaElastica);
             retaElastica = null;
-            desfeitas.clear();
-            repaint();
+            repintarRegiao(antes, depois);
 
         } else if (tipo == TipoPrimitivo.RETANGULO && retanguloElastico != null) {
             retanguloElastico.atualizarP2(e.getX(), e.getY());
-            formas.add(retanguloElastico);
+            Rectangle depois = limitesElastico();
+            adicionarForma(retanguloElastico);
             retanguloElastico = null;
-            desfeitas.clear();
-            repaint();
+            repintarRegiao(antes, depois);
 
         } else if (tipo == TipoPrimitivo.CIRCULO_EQ || 
         tipo == TipoPrimitivo.CIRCULO_MP || 
+        tipo == TipoPrimitivo.CIRCULO_AA ||
         tipo == TipoPrimitivo.CIRCULO_LIB) {
             if (desenhandoCirculo && circuloElastico != null) {
                 x2 = e.getX();
                 y2 = e.getY();
                 circuloElastico.atualizarRaio(x2, y2);
-                formas.add(circuloElastico);
+                Rectangle depois = limitesElastico();
+                adicionarForma(circuloElastico);
                 circuloElastico = null;
                 desenhandoCirculo = false;
-                desfeitas.clear();
-                repaint();
+                repintarRegiao(antes, depois);
             }
 
         } else if (tipo == TipoPrimitivo.TRIANGULO && trianguloElastico != null && desenhandoTriangulo) {
@@ -349,19 +465,19 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
                 trianguloElastico.atualizarP2(x2, y2);
                 trianguloElastico.atualizarP3(x2, y2);
                 estadoTriangulo = 2; // Passa para segunda etapa
-                repaint();
+                repintarRegiao(antes, limitesElastico());
 
             } else if (estadoTriangulo == 2) {
                 // Finalizou segunda etapa: fixou p3, triangulo completo
                 x3 = e.getX();
                 y3 = e.getY();
                 trianguloElastico.atualizarP3(x3, y3);
-                formas.add(trianguloElastico);
+                Rectangle depois = limitesElastico();
+                adicionarForma(trianguloElastico);
                 trianguloElastico = null;
                 desenhandoTriangulo = false;
-                estadoTriangulo = 0; // Reset para prximo triangulo
-                desfeitas.clear();
-                repaint();
+                estadoTriangulo = 0; // Reset para próximo triangulo
+                repintarRegiao(antes, depois);
             }
         }
     }
@@ -376,10 +492,18 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
-        desenharPrimitivos(g2d);
+
+        // formas confirmadas vem prontas dos ladrilhos de cache
+        ladrilhos.setFonte(getFont());
+        ladrilhos.redimensionar(getWidth(), getHeight());
+        ladrilhos.atualizar();
+        ladrilhos.desenhar(g2d);
+        trocasUltimoQuadro = renderizador.getTrocasEstado();
+        detalheUltimoQuadro = renderizador.getSimplificadas() + renderizador.getDescartadas();
+        renderizador.zerarContador();
 
         if (retaElastica != null) {
-            retaElastica.desenharRetaLib(g2d);
+            retaElastica.desenhar(g2d);
         }
         if (retanguloElastico != null) {
             retanguloElastico.desenharRetangulo(g2d);
@@ -388,40 +512,162 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
             trianguloElastico.desenharTriangulo(g2d);
         }
         if (circuloElastico != null && desenhandoCirculo) {
-            circuloElastico.desenharCirculoLib(g2d);
+            circuloElastico.desenhar(g2d);
+        }
+
+        // depuracao: contorna a regiao efetivamente repintada neste quadro
+        if (mostrarRegioes) {
+            Rectangle clip = g2d.getClipBounds();
+            if (clip != null) {
+                g2d.setColor(Color.MAGENTA);
+                g2d.setStroke(new BasicStroke(1f));
+                g2d.drawRect(clip.x, clip.y, clip.width - 1, clip.height - 1);
+                g2d.drawString("trocas de estado: " + trocasUltimoQuadro, clip.x + 4, clip.y + 14);
+                g2d.drawString("formas simplificadas: " + detalheUltimoQuadro, clip.x + 4, clip.y + 28);
+            }
         }
     }
 
     /**
-     * Desenha todos os primitivos armazenados na lista de formas.
+     * Retorna quantas trocas de estado (setColor/setStroke) o ultimo quadro fez
+     * ao desenhar as formas confirmadas.
+     * 
+     * @return trocas de estado do ultimo quadro
+     */
+    public int getTrocasUltimoQuadro() { return trocasUltimoQuadro; }
+
+    /**
+     * Retorna quantas formas o ultimo quadro desenhou como um pixel ou deixou
+     * de desenhar, por serem pequenas demais (nivel de detalhe).
+     * 
+     * @return formas simplificadas ou descartadas no ultimo quadro
+     */
+    public int getDetalheUltimoQuadro() { return detalheUltimoQuadro; }
+
+    /**
+     * Retorna os limites na tela da forma elastica em andamento.
+     * 
+     * @return limites da forma elastica, ou null se nao houver nenhuma
+     */
+    private Rectangle limitesElastico() {
+        if (retaElastica != null) {
+            return retaElastica.calcularLimites();
+        }
+        if (retanguloElastico != null) {
+            return retanguloElastico.calcularLimites();
+        }
+        if (trianguloElastico != null) {
+            return trianguloElastico.calcularLimites();
+        }
+        if (circuloElastico != null) {
+            return circuloElastico.calcularLimites();
+        }
+        return null;
+    }
+
+    /**
+     * Repinta apenas a uniao da regiao antiga com a regiao nova da forma elastica.
+     * Sem nenhuma das duas regioes, repinta o painel inteiro.
+     * 
+     * @param antes limites da forma antes do evento (pode ser null)
+     * @param depois limites da forma depois do evento (pode ser null)
+     */
+    private void repintarRegiao(Rectangle antes, Rectangle depois) {
+        if (antes == null && depois == null) {
+            repaint();
+        } else if (antes == null) {
+            repaint(depois);
+        } else if (depois == null) {
+            repaint(antes);
+        } else {
+            repaint(antes.union(depois));
+        }
+    }
+
+    /**
+     * Desenha os primitivos armazenados na lista de formas.
+     * Quando o contexto tem regiao de recorte, consulta o indice espacial e
+     * desenha apenas as formas que cruzam essa regiao.
      * 
      * @param g contexto grafico 2D
      */
     public void desenharPrimitivos(Graphics2D g) {
-        for (Object forma : formas) {
-            if (forma instanceof PontoGr) {
-                ((PontoGr) forma).desenharPonto(g);
-            } else if (forma instanceof RetaGr) {
-                ((RetaGr) forma).desenharRetaLib(g);
-            } else if (forma instanceof CirculoGr) {
-                ((CirculoGr) forma).desenharCirculoLib(g);
-            } else if (forma instanceof RetanguloGraf) {
-                ((RetanguloGraf) forma).desenharRetangulo(g);
-            } else if (forma instanceof TrianguloGraf) {
-                ((TrianguloGraf) forma).desenharTriangulo(g);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            desenharPrimitivos(g, 0);
+            return;
+        }
+        if (mapeado != null) {
+            for (Forma forma : mapeado.consultar(clip)) {
+                forma.desenhar(g);
             }
         }
+        for (Forma forma : indice.consultar(clip)) {
+            forma.desenhar(g);
+        }
+    }
+
+    /**
+     * Desenha os primitivos da lista de formas a partir de uma posicao.
+     * 
+     * @param g contexto grafico 2D
+     * @param inicio indice da primeira forma a ser desenhada
+     */
+    private void desenharPrimitivos(Graphics2D g, int inicio) {
+        for (int i = inicio; i < formas.size(); i++) {
+            formas.get(i).desenhar(g);
+        }
     }
 
-    // --- Mtodos de Controle ---
+    /**
+     * Adiciona uma forma confirmada a lista e ao indice espacial, e a
+     * registra no diario. Uma nova forma descarta o historico de refazer.
+     * 
+     * @param forma forma a ser adicionada
+     */
+    private void adicionarForma(Forma forma) {
+        formas.add(forma);
+        indice.inserir(forma);
+        ladrilhos.acrescentar(forma);
+        desfeitas.clear();
+        desfeitasNoMapeado = 0;
+        if (carregamento != null) {
+            desenhadasNaCarga.add(forma);
+        } else if (diario != null) {
+            diario.adicionar(forma);
+        }
+    }
+
+    /**
+     * Reconstroi o indice espacial a partir da lista de formas.
+     */
+    private void reindexar() {
+        indice.limpar();
+        for (Forma forma : formas) {
+            indice.inserir(forma);
+        }
+    }
+
+    // --- Métodos de Controle ---
 
     /**
      * Limpa toda a tela, removendo todas as formas desenhadas.
      * Reseta tambem o historico de undo/redo e coordenadas temporarias.
      */
     public void limparTela() {
+        if (carregamento != null) {
+            carregamento.cancel(false);
+            carregamento = null;
+        }
+        desenhadasNaCarga.clear();
+        if (diario != null) {
+            diario.limpar();
+        }
+        fecharMapeado();
         formas.clear();
         desfeitas.clear();
+        indice.limpar();
+        ladrilhos.sujarTudo();
         x1 = y1 = x2 = y2 = x3 = y3 = 0;
         cliques = 0;
         repaint();
@@ -430,53 +676,461 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
     /**
      * Desfaz a ultima forma desenhada.
      * Move a forma para a lista de desfeitas, permitindo refaze-la.
+     * Fica indisponivel enquanto um arquivo esta sendo carregado.
      */
     public void desfazer() {
-        if (!formas.isEmpty()) {
-            Object ultimaForma = formas.remove(formas.size() - 1);
-            desfeitas.add(ultimaForma);
-            repaint();
+        if (carregamento == null && desfazerUltima() && diario != null) {
+            diario.desfazer();
         }
     }
 
     /**
      * Refaz a ultima forma desfeita.
      * Move a forma da lista de desfeitas de volta para a lista de formas.
+     * Fica indisponivel enquanto um arquivo esta sendo carregado.
      */
     public void refazer() {
-        if (!desfeitas.isEmpty()) {
-            Object ultimaFormaDesfeita = desfeitas.remove(desfeitas.size() - 1);
-            formas.add(ultimaFormaDesfeita);
+        if (carregamento == null && refazerUltima() && diario != null) {
+            diario.refazer();
+        }
+    }
+
+    /**
+     * Desfaz a ultima forma, sem registrar no diario. Uma forma do desenho
+     * aberto sob demanda nao e lida para a memoria: so deixa de ser visivel.
+     * 
+     * @return true se havia forma para desfazer
+     */
+    private boolean desfazerUltima() {
+        Rectangle regiao;
+        if (!formas.isEmpty()) {
+            Forma ultimaForma = formas.remove(formas.size() - 1);
+            desfeitas.add(ultimaForma);
+            regiao = indice.remover(ultimaForma);
+        } else if (mapeado != null && mapeado.getVisiveis() > 0) {
+            int ultima = mapeado.getVisiveis() - 1;
+            regiao = limitesNoMapeado(ultima);
+            mapeado.setVisiveis(ultima);
+            desfeitasNoMapeado++;
+        } else {
+            return false;
+        }
+        repintar(regiao);
+        return true;
+    }
+
+    /**
+     * Retorna os limites de uma forma do desenho aberto sob demanda, ou
+     * null se o bloco dela estiver corrompido.
+     */
+    private Rectangle limitesNoMapeado(int i) {
+        try {
+            return mapeado.forma(i).calcularLimites();
+        } catch (IllegalStateException ex) {
+            // o bloco e pulado ao desenhar: basta repintar tudo
+            return null;
+        }
+    }
+
+    /**
+     * Suja os ladrilhos de uma regiao e a repinta, ou a tela toda se a
+     * regiao for null.
+     */
+    private void repintar(Rectangle regiao) {
+        if (regiao == null) {
+            ladrilhos.sujarTudo();
             repaint();
+        } else {
+            ladrilhos.sujar(regiao);
+            repaint(regiao);
         }
     }
 
-    // --- Mtodos de Salvar/Carregar em JSON ---
+    /**
+     * Refaz a ultima forma desfeita, sem registrar no diario.
+     * 
+     * @return true se havia forma para refazer
+     */
+    private boolean refazerUltima() {
+        if (desfeitasNoMapeado > 0) {
+            // a lista esta vazia: a forma volta a ser visivel no desenho aberto sob demanda
+            int proxima = mapeado.getVisiveis();
+            mapeado.setVisiveis(proxima + 1);
+            desfeitasNoMapeado--;
+            repintar(limitesNoMapeado(proxima));
+            return true;
+        }
+        if (desfeitas.isEmpty()) {
+            return false;
+        }
+        Forma ultimaFormaDesfeita = desfeitas.remove(desfeitas.size() - 1);
+        formas.add(ultimaFormaDesfeita);
+        indice.inserir(ultimaFormaDesfeita);
+        ladrilhos.acrescentar(ultimaFormaDesfeita);
+        repaint(ultimaFormaDesfeita.calcularLimites());
+        return true;
+    }
+
+    // --- Métodos de Salvar/Carregar em JSON ---
 
     /**
-     * Salva todas as formas desenhadas em um arquivo JSON.
+     * Salva todas as formas desenhadas em um arquivo JSON, ou no formato
+     * binario quando o nome terminar em .edg.
+     * Se o arquivo for o mesmo que esta aberto, as mudancas ja estao no
+     * diario dele e basta marca-las como salvas; o desenho so e regravado
+     * inteiro quando o diario passa de {@link Diario#LIMITE_COMPACTAR}
+     * (compactacao) ou o arquivo e outro. Nesse caso o diario do arquivo
+     * anterior volta ao ultimo salvamento dele.
      * Delega a responsabilidade de serializacao para a classe jsonCoisas.
      * 
      * @param arquivo arquivo onde sera salvo o desenho
      * @throws IOException se houver erro ao escrever no arquivo
+     * @throws IllegalStateException se um arquivo ainda estiver sendo
+     *         carregado (veja {@link #isCarregando()}): o desenho estaria pela metade
      */
     public void salvar(File arquivo) throws IOException {
-        jsonCoisas.salvarFormasGraficas(formas, arquivo);
+        if (carregamento != null) {
+            throw new IllegalStateException("O desenho ainda esta sendo carregado");
+        }
+        if (diario != null && diario.pertenceA(arquivo) && !diario.precisaCompactar()) {
+            diario.marcarSalvo();
+            return;
+        }
+        salvarCompleto(arquivo);
+        // as mudancas nao salvas do arquivo anterior foram para este
+        fecharDiario();
+        // a base mudou: o diario dela recomeca vazio
+        diario = abrirDiarioParaEscrita(arquivo);
+    }
+
+    /**
+     * Regrava o desenho inteiro num arquivo temporario ao lado do destino e
+     * o troca pelo destino, para que uma queda no meio da gravacao nao
+     * deixe o arquivo pela metade.
+     * 
+     * @param arquivo arquivo onde sera salvo o desenho
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    private void salvarCompleto(File arquivo) throws IOException {
+        trazerMapeadoParaMemoria();
+        File pasta = arquivo.getAbsoluteFile().getParentFile();
+        File temporario = File.createTempFile("." + arquivo.getName(), ".tmp", pasta);
+        try {
+            if (jsonCoisas.ehEdg(arquivo)) {
+                jsonCoisas.salvarFormasEdg(formas, temporario);
+            } else {
+                jsonCoisas.salvarFormasGraficas(formas, temporario);
+            }
+            try (FileChannel canal = FileChannel.open(temporario.toPath(), StandardOpenOption.WRITE)) {
+                canal.force(true);
+            }
+            try {
+                Files.move(temporario.toPath(), arquivo.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporario.toPath(), arquivo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporario.toPath());
+        }
+    }
+
+    /**
+     * Abre o diario de um arquivo recem carregado e reproduz as operacoes
+     * dele por cima do desenho: as salvas depois da ultima gravacao
+     * completa e as que uma sessao interrompida deixou sem salvar, que
+     * continuam nao salvas. Um diario grande e compactado na hora,
+     * exceto no desenho aberto sob demanda ou com operacoes recuperadas,
+     * que so e compactado ao salvar.
+     * <p>
+     * Se o diario nao puder ser aberto para escrita, por exemplo numa pasta
+     * so de leitura, so as operacoes salvas sao reproduzidas e o desenho
+     * fica sem diario: salvar regrava o arquivo inteiro.
+     * </p>
+     * 
+     * @param arquivo arquivo carregado
+     * @throws IOException se houver erro ao ler o diario
+     */
+    private void abrirDiario(File arquivo) throws IOException {
+        fecharDiario();
+        Diario.Receptor receptor = new Diario.Receptor() {
+            @Override
+            public void adicionar(Forma forma) {
+                adicionarForma(forma);
+            }
+
+            @Override
+            public void desfazer() {
+                desfazerUltima();
+            }
+
+            @Override
+            public void refazer() {
+                refazerUltima();
+            }
+
+            @Override
+            public void limpar() {
+                limparTela();
+            }
+        };
+        Diario aberto = abrirDiarioParaEscrita(arquivo);
+        if (aberto == null) {
+            Diario.reproduzirSalvas(arquivo, receptor);
+            return;
+        }
+        int recuperadas;
+        try {
+            recuperadas = aberto.reproduzir(receptor);
+        } catch (IOException ex) {
+            aberto.close();
+            throw ex;
+        }
+        diario = aberto;
+        if (mapeado == null && recuperadas == 0 && diario.precisaCompactar()) {
+            salvar(arquivo);
+        }
+    }
+
+    /**
+     * Abre o diario de um arquivo para escrita.
+     * 
+     * @param arquivo arquivo de desenho
+     * @return diario aberto, ou null se ele nao puder ser criado ou gravado
+     */
+    private Diario abrirDiarioParaEscrita(File arquivo) {
+        try {
+            return new Diario(arquivo);
+        } catch (IOException ex) {
+            // sem permissao ou sem espaco ao lado do desenho: segue sem diario
+            return null;
+        }
+    }
+
+    /**
+     * Descarta do diario do arquivo aberto as operacoes ainda nao salvas e o
+     * fecha. Deve ser chamado antes de sair do programa: sem isso, elas
+     * seriam recuperadas na proxima abertura como as de uma queda.
+     * 
+     * @throws IOException se houver erro ao cortar ou fechar o diario
+     */
+    public void fecharDiario() throws IOException {
+        if (diario == null) {
+            return;
+        }
+        Diario d = diario;
+        diario = null;
+        d.close();
     }
 
     /**
-     * Carrega formas de um arquivo JSON.
+     * Carrega formas de um arquivo JSON, ou .edg.
      * Delega a responsabilidade de desserializacao para a classe jsonCoisas.
      * 
      * @param arquivo arquivo JSON a ser carregado
      * @throws IOException se houver erro ao ler o arquivo
      */
     public void carregar(File arquivo) throws IOException {
+        fecharDiario();
+        limparTela();
+        // o diario e reproduzido inteiro por abrirDiario
+        formas = jsonCoisas.ehEdg(arquivo) ? jsonCoisas.lerFormasEdg(arquivo)
+            : jsonCoisas.lerFormasGraficas(arquivo);
+        reindexar();
+        ladrilhos.sujarTudo();
+        try {
+            abrirDiario(arquivo);
+        } catch (IOException | RuntimeException ex) {
+            // nao deixa na tela um desenho pela metade
+            limparTela();
+            throw ex;
+        }
+        repaint();
+    }
+
+    /**
+     * Abre um desenho .edg sem carregar as formas: so as que cruzam a area
+     * sendo repintada sao lidas do arquivo, a partir do indice de blocos
+     * (veja {@link DesenhoMapeado}). Formas novas ficam por cima dele. O
+     * desenho aberto so e trazido inteiro para a memoria quando o arquivo e
+     * regravado inteiro: na compactacao ou ao salvar em outro arquivo.
+     * 
+     * @param arquivo arquivo .edg a ser aberto
+     * @param aoFalhar chamado na thread da interface, uma vez, se uma parte
+     *        corrompida do arquivo for encontrada ao desenhar; ela fica de fora
+     * @throws IOException se houver erro ao ler o arquivo ou ele for invalido
+     */
+    public void carregarMapeado(File arquivo, Consumer<Exception> aoFalhar) throws IOException {
+        fecharDiario();
         limparTela();
-        formas = jsonCoisas.carregarFormasGraficas(arquivo);
+        mapeado = new DesenhoMapeado(arquivo);
+        // blocos corrompidos so aparecem ao desenhar, nas threads dos ladrilhos
+        mapeado.setAoAcharInvalido(ex -> SwingUtilities.invokeLater(() -> aoFalhar.accept(ex)));
+        ladrilhos.setFundo(mapeado);
+        try {
+            abrirDiario(arquivo);
+        } catch (IOException | RuntimeException ex) {
+            // nao deixa o arquivo mapeado sem diario
+            limparTela();
+            throw ex;
+        }
         repaint();
     }
 
+    /**
+     * Passa as formas visiveis do desenho aberto sob demanda para a lista,
+     * antes das formas novas, e as desfeitas dele para as desfeitas, e
+     * fecha o arquivo. Assim o proprio arquivo pode ser sobrescrito sem
+     * invalidar o mapeamento. So e preciso ao regravar o desenho inteiro.
+     */
+    private void trazerMapeadoParaMemoria() {
+        if (mapeado == null) {
+            return;
+        }
+        List<Forma> todas = mapeado.todas();
+        todas.addAll(formas);
+        formas = todas;
+        // a proxima a refazer, a primeira escondida, fica no topo
+        int visiveis = mapeado.getVisiveis();
+        for (int i = visiveis + desfeitasNoMapeado - 1; i >= visiveis; i--) {
+            desfeitas.add(mapeado.forma(i));
+        }
+        fecharMapeado();
+        reindexar();
+    }
+
+    /**
+     * Fecha o desenho aberto sob demanda, se houver, e o tira dos ladrilhos.
+     */
+    private void fecharMapeado() {
+        if (mapeado == null) {
+            return;
+        }
+        try {
+            mapeado.close();
+        } catch (IOException ex) {
+            // so leitura: nada a perder ao fechar
+        }
+        mapeado = null;
+        desfeitasNoMapeado = 0;
+        ladrilhos.setFundo(null);
+    }
+
+    /**
+     * Carrega formas de um arquivo JSON (ou .edg) aos poucos, numa thread de fundo.
+     * O arquivo e lido em lotes e cada lote aparece na tela assim que fica
+     * pronto, enquanto o resto ainda esta sendo lido. Limpar a tela ou
+     * iniciar outro carregamento cancela este. O diario do arquivo so e
+     * reproduzido no fim, e as formas desenhadas enquanto isso passam para
+     * depois dele.
+     * 
+     * @param arquivo arquivo JSON a ser carregado
+     * @param aoFalhar chamado na thread da interface se a leitura falhar
+     */
+    public void carregarAosPoucos(File arquivo, Consumer<Exception> aoFalhar) {
+        try {
+            fecharDiario();
+        } catch (IOException ex) {
+            aoFalhar.accept(ex);
+        }
+        limparTela();
+        carregamento = new SwingWorker<Void, List<Forma>>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                Consumer<List<Forma>> receptor = lote -> {
+                    if (isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    publish(lote);
+                };
+                if (jsonCoisas.ehEdg(arquivo)) {
+                    jsonCoisas.lerFormasEdg(arquivo, TAMANHO_LOTE_CARGA, receptor);
+                } else {
+                    jsonCoisas.lerFormasGraficas(arquivo, TAMANHO_LOTE_CARGA, receptor);
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<List<Forma>> lotes) {
+                // lotes que chegam depois de um cancelamento sao ignorados
+                if (carregamento != this) {
+                    return;
+                }
+                for (List<Forma> lote : lotes) {
+                    acrescentarLote(lote);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (carregamento != this) {
+                    return;
+                }
+                carregamento = null;
+                try {
+                    get();
+                    reproduzirDiarioAposCarga(arquivo);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    Throwable causa = ex.getCause();
+                    aoFalhar.accept(causa instanceof Exception ? (Exception) causa : ex);
+                } catch (IOException ex) {
+                    aoFalhar.accept(ex);
+                }
+            }
+        };
+        carregamento.execute();
+    }
+
+    /**
+     * Reproduz o diario de um arquivo carregado aos poucos. As formas
+     * desenhadas durante o carregamento sao tiradas antes e acrescentadas
+     * (e registradas) depois das operacoes do diario.
+     * 
+     * @param arquivo arquivo carregado
+     * @throws IOException se houver erro ao ler ou gravar o diario
+     */
+    private void reproduzirDiarioAposCarga(File arquivo) throws IOException {
+        List<Forma> desenhadas = desenhadasNaCarga;
+        desenhadasNaCarga = new ArrayList<>();
+        if (!desenhadas.isEmpty()) {
+            Set<Forma> tirar = Collections.newSetFromMap(new IdentityHashMap<>());
+            tirar.addAll(desenhadas);
+            formas.removeIf(tirar::contains);
+            reindexar();
+            ladrilhos.sujarTudo();
+        }
+        try {
+            abrirDiario(arquivo);
+        } finally {
+            for (Forma forma : desenhadas) {
+                adicionarForma(forma);
+            }
+            repaint();
+        }
+    }
+
+    /**
+     * Acrescenta um lote de formas carregadas a lista, ao indice e aos
+     * ladrilhos, e repinta so a regiao que elas ocupam.
+     * 
+     * @param lote formas na ordem de desenho
+     */
+    private void acrescentarLote(List<Forma> lote) {
+        Rectangle regiao = null;
+        for (Forma forma : lote) {
+            formas.add(forma);
+            indice.inserir(forma);
+            Rectangle limites = forma.calcularLimites();
+            regiao = regiao == null ? limites : regiao.union(limites);
+        }
+        ladrilhos.acrescentar(lote);
+        if (regiao != null) {
+            repaint(regiao);
+        }
+    }
+
     /**
      * Converte um objeto Color para formato JSON.
      * 
@@ -504,7 +1158,7 @@ public class PainelDesenho extends JPanel implements MouseListener, MouseMotionL
         return new Color(r, g, b);
     }
 
-    // --- Listeners de Mouse no utilizados ---
+    // --- Listeners de Mouse não utilizados ---
 
     /**
      * Tratador de clique do mouse (nao utilizado).
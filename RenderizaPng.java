@@ -0,0 +1,285 @@
+import cena.CenaCompacta;
+import cena.RenderizadorLotes;
+import constantes.Constantes;
+import forma.Forma;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.BiConsumer;
+import javax.imageio.ImageIO;
+import raster.RasterInt;
+
+/**
+ * Desenha um arquivo JSON de figuras numa imagem PNG, sem abrir a interface
+ * grafica (roda com java.awt.headless=true, sem tela). As formas sao
+ * carregadas numa {@link CenaCompacta} por {@link jsonCoisas#carregarCenaCompacta},
+ * sem um objeto por forma, e desenhadas com os mesmos metodos de desenho da
+ * tela, agrupadas por {@link RenderizadorLotes}. Arquivos .edg tambem sao aceitos.
+ * <p>
+ * Uso: java RenderizaPng entrada.json|entrada.edg saida.png [opcoes]
+ * </p>
+ * <ul>
+ * <li>-largura N, -altura N: tamanho da tela desenhada, antes da escala
+ *     (padrao: tamanho da janela da aplicacao)</li>
+ * <li>-fundo RRGGBB, ou -fundo transparente (padrao: branco)</li>
+ * <li>-escala F: fator de escala da imagem (padrao: 1)</li>
+ * <li>-simplificar N, -descartar N: limiares do nivel de detalhe, em pixels
+ *     (padrao: 2 e 0.5; veja {@link RenderizadorLotes#setLimiaresDetalhe})</li>
+ * </ul>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class RenderizaPng {
+
+    /**
+     * Programa principal. Le as opcoes, desenha o arquivo e grava o PNG,
+     * mostrando os tempos de cada etapa.
+     *
+     * @param args entrada, saida e opcoes
+     */
+    public static void main(String args[]) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            uso("faltam os arquivos de entrada e de saida");
+        }
+        File entrada = new File(args[0]);
+        File saida = new File(args[1]);
+        Opcoes op = new Opcoes();
+        for (int i = 2; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                uso("falta o valor de " + args[i]);
+            }
+            if (!op.ler(args[i], args[i + 1])) {
+                uso("opcao desconhecida: " + args[i]);
+            }
+        }
+        String erro = op.validar();
+        if (erro != null) {
+            uso(erro);
+        }
+
+        // tempo da partida da JVM ate aqui (carga das classes e das opcoes)
+        long partida = ManagementFactory.getRuntimeMXBean().getUptime();
+        try {
+            long t0 = System.nanoTime();
+            CenaCompacta cena = jsonCoisas.carregarCenaCompacta(entrada);
+            long t1 = System.nanoTime();
+            RenderizadorLotes renderizador = op.criarRenderizador();
+            BufferedImage imagem = renderizar(cena, op.larg, op.alt, op.fundo, op.escala, renderizador);
+            long t2 = System.nanoTime();
+            ImageIO.write(imagem, "png", saida);
+            long t3 = System.nanoTime();
+
+            System.out.println(cena.tamanho() + " formas, imagem " + imagem.getWidth() + "x" + imagem.getHeight());
+            System.out.println("nivel de detalhe: " + renderizador.getSimplificadas() + " formas como um pixel, "
+                + renderizador.getDescartadas() + " descartadas");
+            System.out.printf("partida %d ms, leitura %.1f ms, desenho %.1f ms, gravacao %.1f ms%n",
+                partida, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6);
+        } catch (IOException ex) {
+            System.err.println("Erro de arquivo: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Desenha as formas numa imagem nova. Na escala 1, as formas que sabem
+     * se rasterizar escrevem direto nos pixels, como nos ladrilhos da tela;
+     * em outra escala passam pelo Graphics2D, que aplica a escala, e so os
+     * pixels das formas simplificadas vao direto para a imagem.
+     *
+     * @param formas formas na ordem de desenho
+     * @param larg largura da tela desenhada, antes da escala
+     * @param alt altura da tela desenhada, antes da escala
+     * @param fundo cor do fundo, ou null para fundo transparente
+     * @param escala fator de escala da imagem
+     * @return imagem desenhada
+     */
+    public static BufferedImage renderizar(List<Forma> formas, int larg, int alt, Color fundo, double escala) {
+        return renderizar(formas, larg, alt, fundo, escala, new RenderizadorLotes());
+    }
+
+    /**
+     * Desenha as formas numa imagem nova com o renderizador dado, que fica
+     * com os contadores do desenho.
+     *
+     * @param formas formas na ordem de desenho
+     * @param larg largura da tela desenhada, antes da escala
+     * @param alt altura da tela desenhada, antes da escala
+     * @param fundo cor do fundo, ou null para fundo transparente
+     * @param escala fator de escala da imagem
+     * @param renderizador renderizador usado no desenho
+     * @return imagem desenhada
+     */
+    public static BufferedImage renderizar(List<Forma> formas, int larg, int alt, Color fundo, double escala,
+                                           RenderizadorLotes renderizador) {
+        return renderizar(larg, alt, fundo, escala, (g, raster) -> renderizador.desenhar(g, raster, formas));
+    }
+
+    /**
+     * Desenha uma cena compacta numa imagem nova com o renderizador dado,
+     * com o mesmo resultado da lista de formas equivalente.
+     *
+     * @param cena formas na ordem de desenho
+     * @param larg largura da tela desenhada, antes da escala
+     * @param alt altura da tela desenhada, antes da escala
+     * @param fundo cor do fundo, ou null para fundo transparente
+     * @param escala fator de escala da imagem
+     * @param renderizador renderizador usado no desenho
+     * @return imagem desenhada
+     */
+    public static BufferedImage renderizar(CenaCompacta cena, int larg, int alt, Color fundo, double escala,
+                                           RenderizadorLotes renderizador) {
+        return renderizar(larg, alt, fundo, escala, (g, raster) -> cena.desenhar(g, raster, renderizador));
+    }
+
+    /**
+     * Cria a imagem, pinta o fundo, prepara escala e recorte e chama o desenho.
+     */
+    private static BufferedImage renderizar(int larg, int alt, Color fundo, double escala,
+                                            BiConsumer<Graphics2D, RasterInt> desenho) {
+        int w = Math.max(1, (int) Math.ceil(larg * escala));
+        int h = Math.max(1, (int) Math.ceil(alt * escala));
+        BufferedImage imagem = new BufferedImage(w, h,
+            fundo == null ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        try {
+            if (fundo != null) {
+                g.setColor(fundo);
+                g.fillRect(0, 0, w, h);
+            }
+            RasterInt raster = new RasterInt(imagem);
+            if (escala != 1) {
+                g.scale(escala, escala);
+            }
+            g.clipRect(0, 0, larg, alt);
+            desenho.accept(g, raster);
+        } finally {
+            g.dispose();
+        }
+        return imagem;
+    }
+
+    /**
+     * Opcoes de desenho comuns a linha de comando de um arquivo e a do lote.
+     */
+    static class Opcoes {
+        /** Descricao das opcoes, para as mensagens de uso */
+        static final String USO = "[-largura N] [-altura N] [-fundo RRGGBB|transparente] [-escala F]"
+            + " [-simplificar N] [-descartar N]";
+
+        /** Tamanho da tela desenhada, antes da escala */
+        int larg = Constantes.LARGURA, alt = Constantes.ALTURA;
+
+        /** Cor do fundo, ou null para fundo transparente */
+        Color fundo = Color.WHITE;
+
+        /** Fator de escala da imagem */
+        double escala = 1;
+
+        /** Limiares do nivel de detalhe, em pixels */
+        double simplificar = 2, descartar = 0.5;
+
+        /** Mensagem do primeiro valor invalido lido */
+        private String invalido;
+
+        /**
+         * Le uma opcao de desenho.
+         *
+         * @param nome nome da opcao, como -largura
+         * @param valor valor da opcao
+         * @return false se a opcao nao for de desenho
+         */
+        boolean ler(String nome, String valor) {
+            try {
+                if (nome.equals("-largura")) {
+                    larg = Integer.parseInt(valor);
+                } else if (nome.equals("-altura")) {
+                    alt = Integer.parseInt(valor);
+                } else if (nome.equals("-escala")) {
+                    escala = Double.parseDouble(valor);
+                } else if (nome.equals("-simplificar")) {
+                    simplificar = Double.parseDouble(valor);
+                } else if (nome.equals("-descartar")) {
+                    descartar = Double.parseDouble(valor);
+                } else if (nome.equals("-fundo")) {
+                    fundo = valor.equals("transparente") ? null : new Color(Integer.parseInt(valor, 16));
+                } else {
+                    return false;
+                }
+            } catch (NumberFormatException ex) {
+                if (invalido == null) {
+                    invalido = "valor invalido para " + nome + ": " + valor;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Confere as opcoes lidas.
+         *
+         * @return mensagem de erro, ou null se as opcoes forem validas
+         */
+        String validar() {
+            if (invalido != null) {
+                return invalido;
+            }
+            if (larg <= 0 || alt <= 0 || escala <= 0) {
+                return "tamanho e escala devem ser positivos";
+            }
+            if (simplificar < 0 || descartar < 0) {
+                return "limiares do nivel de detalhe nao podem ser negativos";
+            }
+            return null;
+        }
+
+        /**
+         * Desenha as formas numa imagem nova com estas opcoes.
+         *
+         * @param formas formas na ordem de desenho
+         * @return imagem desenhada
+         */
+        BufferedImage renderizar(List<Forma> formas) {
+            return RenderizaPng.renderizar(formas, larg, alt, fundo, escala, criarRenderizador());
+        }
+
+        /**
+         * Desenha uma cena compacta numa imagem nova com estas opcoes.
+         *
+         * @param cena formas na ordem de desenho
+         * @return imagem desenhada
+         */
+        BufferedImage renderizar(CenaCompacta cena) {
+            return RenderizaPng.renderizar(cena, larg, alt, fundo, escala, criarRenderizador());
+        }
+
+        /**
+         * Cria um renderizador com os limiares de nivel de detalhe destas opcoes.
+         *
+         * @return renderizador novo
+         */
+        RenderizadorLotes criarRenderizador() {
+            RenderizadorLotes r = new RenderizadorLotes();
+            r.setLimiaresDetalhe(descartar, simplificar);
+            return r;
+        }
+    }
+
+    /**
+     * Mostra a mensagem de erro e o modo de uso, e termina o programa.
+     *
+     * @param erro descricao do erro
+     */
+    private static void uso(String erro) {
+        System.err.println(erro);
+        System.err.println("uso: java RenderizaPng entrada.json|entrada.edg saida.png " + Opcoes.USO);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,105 @@
+import cena.CenaCompacta;
+import circulo.CirculoGr;
+import constantes.TipoPrimitivo;
+import forma.Forma;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import reta.RetaGr;
+import retangulo.RetanguloGraf;
+
+/**
+ * Compara o formato binario .edg com o JSON: tamanho do arquivo, tempo de
+ * gravacao e tempo de leitura da mesma cena, e confere que as duas leituras
+ * devolvem as mesmas formas.
+ * Uso: java TestaFormatoEdg [quantidade de formas]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaFormatoEdg {
+    public static void main(String args[]) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        List<Forma> formas = gerar(n);
+        File json = File.createTempFile("testa", ".json");
+        File edg = File.createTempFile("testa", ".edg");
+        json.deleteOnExit();
+        edg.deleteOnExit();
+
+        System.out.println("formas: " + n);
+        List<Forma> lidasJson = null, lidasEdg = null;
+        for (int rodada = 0; rodada < 3; rodada++) {
+            long t0 = System.nanoTime();
+            jsonCoisas.salvarFormasGraficas(formas, json);
+            long t1 = System.nanoTime();
+            lidasJson = jsonCoisas.carregarFormasGraficas(json);
+            long t2 = System.nanoTime();
+            jsonCoisas.salvarFormasEdg(formas, edg);
+            long t3 = System.nanoTime();
+            lidasEdg = jsonCoisas.carregarFormasEdg(edg);
+            long t4 = System.nanoTime();
+
+            System.out.printf("rodada %d: JSON grava %.0f ms, le %.0f ms | EDG grava %.0f ms, le %.0f ms%n",
+                rodada, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6, (t4 - t3) / 1e6);
+        }
+        System.out.printf("tamanho: JSON %.1f MB, EDG %.1f MB (%.1f%%)%n",
+            json.length() / 1e6, edg.length() / 1e6, 100.0 * edg.length() / json.length());
+
+        int diferentes = 0;
+        for (int i = 0; i < n; i++) {
+            if (!lidasJson.get(i).serializar().similar(lidasEdg.get(i).serializar())) {
+                diferentes++;
+            }
+        }
+        System.out.println("formas diferentes entre as leituras: " + diferentes
+            + (lidasEdg.size() == n ? "" : " (quantidade lida: " + lidasEdg.size() + ")"));
+    }
+
+    /**
+     * Gera uma cena parecida com um desenho feito a mao: cada forma perto da
+     * anterior, com saltos ocasionais, e poucas cores.
+     */
+    private static List<Forma> gerar(int n) {
+        Random r = new Random(42);
+        int[] cores = new int[64];
+        for (int i = 0; i < cores.length; i++) {
+            cores[i] = r.nextInt(0x1000000);
+        }
+        CenaCompacta gerador = new CenaCompacta();
+        List<Forma> formas = new ArrayList<>(n);
+        int x = 960, y = 540;
+        for (int i = 0; i < n; i++) {
+            if (r.nextInt(20) == 0) {
+                x = r.nextInt(1920);
+                y = r.nextInt(1080);
+            } else {
+                x = Math.max(0, Math.min(1919, x + r.nextInt(41) - 20));
+                y = Math.max(0, Math.min(1079, y + r.nextInt(41) - 20));
+            }
+            int cor = cores[r.nextInt(cores.length)], esp = 1 + r.nextInt(4);
+            switch (i % 5) {
+                case 0: gerador.adicionarPonto(x, y, cor, esp + 2); break;
+                case 1: gerador.adicionarReta(x, y, x + r.nextInt(60) - 30, y + r.nextInt(60) - 30, cor, esp); break;
+                case 2: gerador.adicionarCirculo(x, y, 1 + r.nextInt(20), cor, esp); break;
+                case 3: gerador.adicionarRetangulo(x, y, x + r.nextInt(40), y + r.nextInt(40), cor, esp); break;
+                default: gerador.adicionarTriangulo(x, y, x + r.nextInt(40), y, x, y + r.nextInt(40), cor, esp); break;
+            }
+            Forma forma = gerador.criarForma(i);
+            // modos e preenchimento tambem tem de sobreviver ao formato
+            if (forma instanceof RetaGr && i % 3 == 0) {
+                ((RetaGr) forma).setModo(TipoPrimitivo.RETA_AA);
+            } else if (forma instanceof CirculoGr && i % 3 == 0) {
+                ((CirculoGr) forma).setPreenchido(true);
+            } else if (forma instanceof RetanguloGraf && i % 3 == 0) {
+                ((RetanguloGraf) forma).setPreenchido(true);
+            }
+            formas.add(forma);
+        }
+        return formas;
+    }
+}
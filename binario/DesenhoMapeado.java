@@ -0,0 +1,403 @@
+package binario;
+
+import cena.FonteFormas;
+import forma.Forma;
+import java.awt.Rectangle;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Desenho .edg aberto sem carregar as formas: o arquivo e mapeado na memoria
+ * com {@link FileChannel#map} e so os blocos de formas que cruzam a regiao
+ * consultada sao decodificados, a partir do indice do fim do arquivo (veja
+ * {@link FormatoEdg}). O resto fica no disco, no cache de paginas do
+ * sistema, e abrir um arquivo de gigabytes custa so a leitura do indice.
+ * <p>
+ * Os ultimos blocos decodificados ficam guardados para as proximas
+ * consultas. Arquivos da versao 1, sem indice, sao percorridos uma vez na
+ * abertura para montar o indice na memoria. Um buffer mapeado tem no maximo
+ * 2 GB, por isso arquivos maiores sao mapeados em trechos.
+ * </p>
+ * <p>
+ * Desfazer as ultimas formas do arquivo nao muda o arquivo: so diminui a
+ * quantidade de formas visiveis (veja {@link #setVisiveis}), que as
+ * consultas respeitam.
+ * </p>
+ * <p>
+ * Um bloco corrompido so e descoberto ao ser decodificado. As consultas o
+ * pulam, e o primeiro encontrado e avisado uma vez (veja {@link #setAoAcharInvalido}).
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class DesenhoMapeado implements FonteFormas, Closeable {
+
+    /** Distancia entre os inicios dos trechos mapeados */
+    private static final long TRECHO = 1L << 30;
+
+    /** Quantidade de blocos decodificados guardados */
+    private static final int BLOCOS_GUARDADOS = 1024;
+
+    /** Canal do arquivo, aberto enquanto o desenho estiver em uso */
+    private final FileChannel canal;
+
+    /** Trechos mapeados do arquivo; o trecho i comeca em i * TRECHO */
+    private final MappedByteBuffer[] trechos;
+
+    /** Paleta, modos e quantidade de formas */
+    private final FormatoEdg.Cabecalho cabecalho;
+
+    /** Formas por bloco */
+    private final int tamanhoBloco;
+
+    /** Posicao do primeiro registro de cada bloco, e o fim do ultimo */
+    private final long[] posicoes;
+
+    /** Por bloco: x e y anteriores ao primeiro registro e limites xmin, ymin, xmax, ymax */
+    private final int[] dados;
+
+    /** Blocos decodificados, do menos ao mais recentemente usado */
+    private final Map<Integer, Forma[]> guardados = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Blocos decodificados desde a abertura */
+    private long decodificados;
+
+    /** Quantidade de formas visiveis, a partir do inicio do arquivo */
+    private volatile int visiveis;
+
+    /** Blocos que nao puderam ser decodificados, pulados nas consultas */
+    private final Set<Integer> invalidos = new HashSet<>();
+
+    /** Avisado do primeiro bloco invalido, ou null */
+    private volatile Consumer<IllegalStateException> aoAcharInvalido;
+
+    /**
+     * Abre um arquivo .edg para consulta por regiao.
+     *
+     * @param arquivo arquivo .edg
+     * @throws IOException se houver erro ao ler o arquivo ou ele for invalido
+     */
+    public DesenhoMapeado(File arquivo) throws IOException {
+        canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ);
+        try {
+            long tamanho = canal.size();
+            FormatoEdg.Cabecalho c = FormatoEdg.lerCabecalho(new FormatoEdg.EntradaMapeada(
+                canal.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(tamanho, TRECHO))));
+            cabecalho = c;
+
+            long posIndice = c.versao >= 2 ? posicaoIndice(tamanho) : -1;
+            if (posIndice >= 0) {
+                ByteBuffer indice = canal.map(FileChannel.MapMode.READ_ONLY, posIndice,
+                    tamanho - FormatoEdg.BYTES_RODAPE - posIndice);
+                int blocos = indice.getInt();
+                tamanhoBloco = indice.getInt();
+                // cada bloco, menos o ultimo, esta cheio
+                if (blocos < 0 || tamanhoBloco <= 0
+                        || (long) blocos * FormatoEdg.BYTES_BLOCO != indice.remaining()
+                        || (long) (blocos - 1) * tamanhoBloco >= c.total
+                        || (long) blocos * tamanhoBloco < c.total) {
+                    throw new IOException("Indice invalido no arquivo .edg");
+                }
+                posicoes = new long[blocos + 1];
+                dados = new int[6 * blocos];
+                for (int b = 0; b < blocos; b++) {
+                    posicoes[b] = indice.getLong();
+                    for (int j = 0; j < 6; j++) {
+                        dados[6 * b + j] = indice.getInt();
+                    }
+                }
+                posicoes[blocos] = posIndice;
+                for (int b = 0; b < blocos; b++) {
+                    if (posicoes[b] <= 0 || posicoes[b] > posicoes[b + 1]) {
+                        throw new IOException("Indice invalido no arquivo .edg");
+                    }
+                }
+            } else {
+                tamanhoBloco = FormatoEdg.TAMANHO_BLOCO;
+                int blocos = (c.total + tamanhoBloco - 1) / tamanhoBloco;
+                posicoes = new long[blocos + 1];
+                dados = new int[6 * blocos];
+                montarIndice(arquivo);
+            }
+
+            // trechos sobrepostos pelo maior bloco, para nenhum bloco ficar dividido
+            long maiorBloco = 0;
+            for (int b = 0; b + 1 < posicoes.length; b++) {
+                maiorBloco = Math.max(maiorBloco, posicoes[b + 1] - posicoes[b]);
+            }
+            visiveis = c.total;
+            trechos = new MappedByteBuffer[(int) Math.max(1, (tamanho + TRECHO - 1) / TRECHO)];
+            for (int i = 0; i < trechos.length; i++) {
+                long inicio = i * TRECHO;
+                trechos[i] = canal.map(FileChannel.MapMode.READ_ONLY, inicio,
+                    Math.min(tamanho - inicio, TRECHO + maiorBloco));
+            }
+        } catch (IOException | RuntimeException ex) {
+            canal.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de formas do desenho.
+     *
+     * @return quantidade de formas
+     */
+    public int tamanho() {
+        return cabecalho.total;
+    }
+
+    /**
+     * Retorna a quantidade de formas visiveis, as primeiras do arquivo.
+     *
+     * @return formas visiveis
+     */
+    public int getVisiveis() {
+        return visiveis;
+    }
+
+    /**
+     * Define quantas formas do inicio do arquivo sao visiveis; as seguintes
+     * ficam de fora das consultas, como se tivessem sido desfeitas.
+     *
+     * @param visiveis formas visiveis, de 0 a {@link #tamanho()}
+     * @throws IllegalArgumentException se a quantidade estiver fora do intervalo
+     */
+    public void setVisiveis(int visiveis) {
+        if (visiveis < 0 || visiveis > cabecalho.total) {
+            throw new IllegalArgumentException("Quantidade de formas visiveis invalida: " + visiveis);
+        }
+        this.visiveis = visiveis;
+    }
+
+    /**
+     * Define quem e avisado, uma vez, do primeiro bloco que uma consulta nao
+     * conseguir decodificar. O aviso vem na thread da consulta.
+     *
+     * @param aoAcharInvalido recebe o erro do bloco, ou null para nao avisar
+     */
+    public void setAoAcharInvalido(Consumer<IllegalStateException> aoAcharInvalido) {
+        this.aoAcharInvalido = aoAcharInvalido;
+    }
+
+    /**
+     * Retorna uma forma do arquivo, decodificando so o bloco dela.
+     *
+     * @param i posicao da forma no arquivo
+     * @return forma na posicao dada
+     * @throws IllegalStateException se o bloco da forma estiver corrompido
+     */
+    public Forma forma(int i) {
+        return bloco(i / tamanhoBloco)[i % tamanhoBloco];
+    }
+
+    /**
+     * Retorna quantos blocos foram decodificados desde a abertura, contando
+     * os decodificados de novo depois de sair da memoria.
+     *
+     * @return blocos decodificados
+     */
+    public synchronized long getDecodificados() {
+        return decodificados;
+    }
+
+    /**
+     * Decodifica so os blocos cujos limites cruzam a regiao e devolve as
+     * formas visiveis deles que a cruzam, na ordem do arquivo. Blocos
+     * corrompidos sao pulados.
+     *
+     * @param regiao regiao da tela
+     * @return formas que cruzam a regiao
+     */
+    @Override
+    public List<Forma> consultar(Rectangle regiao) {
+        List<Forma> achadas = new ArrayList<>();
+        int rx1 = regiao.x + regiao.width, ry1 = regiao.y + regiao.height;
+        int limite = visiveis;
+        for (int b = 0; b + 1 < posicoes.length && (long) b * tamanhoBloco < limite; b++) {
+            int k = 6 * b;
+            if (dados[k + 2] >= rx1 || dados[k + 3] >= ry1 || dados[k + 4] <= regiao.x || dados[k + 5] <= regiao.y) {
+                continue;
+            }
+            Forma[] formas;
+            try {
+                formas = bloco(b);
+            } catch (IllegalStateException ex) {
+                marcarInvalido(b, ex);
+                continue;
+            }
+            int n = (int) Math.min(formas.length, limite - (long) b * tamanhoBloco);
+            for (int i = 0; i < n; i++) {
+                if (formas[i].calcularLimites().intersects(regiao)) {
+                    achadas.add(formas[i]);
+                }
+            }
+        }
+        return achadas;
+    }
+
+    /**
+     * Decodifica todas as formas visiveis do desenho, por exemplo para
+     * salva-lo, sem passar pelos blocos guardados.
+     *
+     * @return formas na ordem do arquivo
+     * @throws IllegalStateException se algum bloco estiver corrompido
+     */
+    public List<Forma> todas() {
+        int limite = visiveis;
+        List<Forma> formas = new ArrayList<>(limite);
+        for (int b = 0; b + 1 < posicoes.length && (long) b * tamanhoBloco < limite; b++) {
+            formas.addAll(Arrays.asList(decodificar(b)));
+        }
+        formas.subList(limite, formas.size()).clear();
+        return formas;
+    }
+
+    /**
+     * Fecha o arquivo. Os buffers mapeados sao liberados pela coleta de lixo.
+     *
+     * @throws IOException se houver erro ao fechar o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Retorna as formas de um bloco, decodificando-o se ele nao estiver guardado.
+     */
+    private Forma[] bloco(int b) {
+        synchronized (this) {
+            Forma[] formas = guardados.get(b);
+            if (formas != null) {
+                return formas;
+            }
+            if (invalidos.contains(b)) {
+                throw new IllegalStateException("Bloco " + b + " invalido no arquivo .edg");
+            }
+        }
+        // decodifica fora do bloqueio; duas threads podem decodificar o mesmo bloco
+        Forma[] formas = decodificar(b);
+        synchronized (this) {
+            decodificados++;
+            guardados.put(b, formas);
+            if (guardados.size() > BLOCOS_GUARDADOS) {
+                guardados.remove(guardados.keySet().iterator().next());
+            }
+        }
+        return formas;
+    }
+
+    /**
+     * Anota um bloco que nao pode ser decodificado e avisa o primeiro.
+     */
+    private void marcarInvalido(int b, IllegalStateException ex) {
+        boolean primeiro;
+        synchronized (this) {
+            primeiro = invalidos.isEmpty();
+            invalidos.add(b);
+        }
+        Consumer<IllegalStateException> aviso = aoAcharInvalido;
+        if (primeiro && aviso != null) {
+            aviso.accept(ex);
+        }
+    }
+
+    /**
+     * Decodifica os registros de um bloco a partir da sua posicao no arquivo.
+     */
+    private Forma[] decodificar(int b) {
+        int n = Math.min(tamanhoBloco, cabecalho.total - b * tamanhoBloco);
+        FormatoEdg.EntradaMapeada e = entradaEm(posicoes[b]);
+        e.anteriores(dados[6 * b], dados[6 * b + 1]);
+        Forma[] formas = new Forma[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                formas[i] = FormatoEdg.lerRegistro(e, cabecalho);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // dados corrompidos podem passar do fim do bloco ou do trecho mapeado
+            throw new IllegalStateException("Bloco " + b + " invalido no arquivo .edg", ex);
+        }
+        return formas;
+    }
+
+    /**
+     * Cria uma entrada propria (segura entre threads) a partir de uma posicao.
+     */
+    private FormatoEdg.EntradaMapeada entradaEm(long posicao) {
+        int t = (int) (posicao / TRECHO);
+        ByteBuffer buf = trechos[t].duplicate();
+        buf.position((int) (posicao - t * TRECHO));
+        return new FormatoEdg.EntradaMapeada(buf);
+    }
+
+    /**
+     * Le a posicao do indice no rodape, ou -1 se o arquivo nao tiver indice.
+     */
+    private long posicaoIndice(long tamanho) throws IOException {
+        if (tamanho < FormatoEdg.BYTES_RODAPE) {
+            return -1;
+        }
+        ByteBuffer rodape = canal.map(FileChannel.MapMode.READ_ONLY,
+            tamanho - FormatoEdg.BYTES_RODAPE, FormatoEdg.BYTES_RODAPE);
+        long pos = rodape.getLong();
+        for (byte s : FormatoEdg.ASSINATURA_INDICE) {
+            if (rodape.get() != s) {
+                return -1;
+            }
+        }
+        if (pos <= 0 || pos > tamanho - FormatoEdg.BYTES_RODAPE) {
+            throw new IOException("Posicao do indice invalida no arquivo .edg");
+        }
+        return pos;
+    }
+
+    /**
+     * Percorre uma vez um arquivo sem indice, anotando a posicao, o ponto
+     * anterior e os limites de cada bloco, sem guardar as formas.
+     */
+    private void montarIndice(File arquivo) throws IOException {
+        try (FormatoEdg.EntradaFluxo e = new FormatoEdg.EntradaFluxo(new FileInputStream(arquivo))) {
+            FormatoEdg.lerCabecalho(e);
+            int blocos = posicoes.length - 1;
+            for (int b = 0; b < blocos; b++) {
+                posicoes[b] = e.posicao();
+                dados[6 * b] = e.xAnterior();
+                dados[6 * b + 1] = e.yAnterior();
+                int n = Math.min(tamanhoBloco, cabecalho.total - b * tamanhoBloco);
+                int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+                for (int i = 0; i < n; i++) {
+                    Rectangle r = FormatoEdg.lerRegistro(e, cabecalho).calcularLimites();
+                    x0 = Math.min(x0, r.x);
+                    y0 = Math.min(y0, r.y);
+                    x1 = Math.max(x1, r.x + r.width);
+                    y1 = Math.max(y1, r.y + r.height);
+                }
+                dados[6 * b + 2] = x0;
+                dados[6 * b + 3] = y0;
+                dados[6 * b + 4] = x1;
+                dados[6 * b + 5] = y1;
+            }
+            posicoes[blocos] = e.posicao();
+        }
+    }
+}
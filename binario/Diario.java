@@ -0,0 +1,587 @@
+package binario;
+
+import forma.Forma;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de operacoes de um desenho, gravado so por acrescimo num arquivo ao
+ * lado dele (desenho.json.diario). Em vez de regravar o desenho inteiro a
+ * cada mudanca, cada operacao (adicionar, desfazer, refazer, limpar) vira um
+ * registro curto no fim do diario, e salvar acrescenta so uma marca.
+ * <p>
+ * O desenho salvo e a base mais as operacoes ate a ultima marca; e o que
+ * {@link #reproduzirSalvas} entrega a quem so le o arquivo. As operacoes
+ * depois dela ainda nao foram salvas: {@link #close} as descarta, e se o
+ * programa cair antes disso elas ficam no diario e {@link #reproduzir} as
+ * recupera ao abrir o desenho de novo.
+ * </p>
+ * <p>
+ * Estrutura:
+ * </p>
+ * <pre>
+ * cabecalho  'E' 'D' 'J' 0x1A, versao (1 byte), tamanho e data de
+ *            modificacao da base (8 + 8 bytes)
+ * registro   tamanho (varint), operacao (1 byte), forma no formato solto do
+ *            .edg (so em adicionar), CRC32 da operacao e da forma (4 bytes);
+ *            a operacao salvar e a marca, sem efeito no desenho
+ * </pre>
+ * <p>
+ * Os registros sao juntados na memoria e gravados, com fsync, em grupos:
+ * quando se juntam {@value #GRUPO} ou no maximo {@value #ESPERA_MS} ms depois
+ * do primeiro, numa thread de fundo. A leitura para no primeiro registro
+ * incompleto ou com CRC errado, que so pode ser o fim de uma gravacao
+ * interrompida, e ao abrir o diario o arquivo e cortado ali. Um diario
+ * cujo cabecalho nao confere com a base e de uma versao anterior dela e e
+ * descartado: depois de regravar a base com todas as operacoes (a
+ * compactacao), basta abrir o diario de novo para ele recomecar vazio,
+ * mesmo se o programa cair entre uma coisa e outra.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class Diario implements Closeable {
+
+    /** Tamanho, em bytes, a partir do qual o diario deve voltar para a base */
+    public static final long LIMITE_COMPACTAR = 1 << 20;
+
+    /** Registros juntados que disparam a gravacao sem esperar */
+    public static final int GRUPO = 64;
+
+    /** Espera maxima, em milissegundos, de um registro antes de ser gravado */
+    public static final long ESPERA_MS = 100;
+
+    /** Bytes iniciais de todo diario */
+    private static final byte[] ASSINATURA = {'E', 'D', 'J', 0x1A};
+
+    /** Versao gravada por esta classe */
+    private static final int VERSAO = 1;
+
+    /** Bytes do cabecalho */
+    private static final int BYTES_CABECALHO = 4 + 1 + 8 + 8;
+
+    /** Codigos das operacoes */
+    private static final int ADICIONAR = 1, DESFAZER = 2, REFAZER = 3, LIMPAR = 4, SALVAR = 5;
+
+    /** Thread que grava os grupos de registros de todos os diarios */
+    private static final ScheduledExecutorService GRAVADOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gravador do diario");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Recebe as operacoes reproduzidas de um diario.
+     */
+    public interface Receptor {
+        /**
+         * @param forma forma adicionada
+         */
+        void adicionar(Forma forma);
+
+        /** Desfaz a ultima forma */
+        void desfazer();
+
+        /** Refaz a ultima forma desfeita */
+        void refazer();
+
+        /** Limpa o desenho */
+        void limpar();
+    }
+
+    /** Desenho a que o diario pertence */
+    private final File base;
+
+    /** Arquivo do diario */
+    private final FileChannel canal;
+
+    /** Registros juntados, ainda nao gravados */
+    private final ByteArrayOutputStream pendentes = new ByteArrayOutputStream();
+
+    /** Escrita dos registros em {@link #pendentes} */
+    private final FormatoEdg.Saida quadro = new FormatoEdg.Saida(pendentes, 256);
+
+    /** Bloqueio da escrita no arquivo, que mantem os grupos em ordem */
+    private final Object escrita = new Object();
+
+    /** Quantidade de registros juntados */
+    private int qtdPendentes;
+
+    /** Indica se ha uma gravacao agendada */
+    private boolean agendada;
+
+    /** Tamanho do arquivo ja gravado */
+    private long tamanho;
+
+    /** Fim da ultima marca de salvamento, ou do cabecalho se nao houver */
+    private long salvo;
+
+    /**
+     * Abre o diario de um desenho, criando um vazio se ele nao existir ou
+     * for de uma versao anterior da base. Um fim incompleto ou corrompido e
+     * cortado do arquivo. Use {@link #reproduzir} antes de registrar
+     * operacoes novas.
+     *
+     * @param base arquivo do desenho, ja gravado
+     * @throws IOException se houver erro ao abrir ou criar o diario
+     */
+    public Diario(File base) throws IOException {
+        this.base = base.getAbsoluteFile();
+        canal = FileChannel.open(arquivoDe(base).toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (cabecalhoConfere(canal, this.base)) {
+                Registros lidos = lerRegistros(canal);
+                tamanho = lidos.fim;
+                salvo = lidos.salvo;
+                if (canal.size() > tamanho) {
+                    canal.truncate(tamanho);
+                    canal.force(true);
+                }
+            } else {
+                escreverCabecalho();
+            }
+        } catch (IOException ex) {
+            canal.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Retorna o arquivo do diario de um desenho.
+     *
+     * @param base arquivo do desenho
+     * @return arquivo do diario, ao lado do desenho
+     */
+    public static File arquivoDe(File base) {
+        return new File(base.getPath() + ".diario");
+    }
+
+    /**
+     * Indica se este e o diario do arquivo dado.
+     *
+     * @param arquivo arquivo de desenho
+     * @return true se o arquivo for a base deste diario
+     */
+    public boolean pertenceA(File arquivo) {
+        return base.equals(arquivo.getAbsoluteFile());
+    }
+
+    /**
+     * Reproduz todas as operacoes gravadas, as salvas e as que ficaram de
+     * uma sessao interrompida antes de salvar.
+     *
+     * @param r receptor das operacoes
+     * @return quantidade de operacoes reproduzidas que ainda nao foram salvas
+     * @throws IOException se houver erro ao ler o arquivo
+     */
+    public int reproduzir(Receptor r) throws IOException {
+        Registros lidos;
+        synchronized (escrita) {
+            lidos = lerRegistros(canal);
+        }
+        for (byte[] dados : lidos.dados) {
+            aplicar(dados, r);
+        }
+        return lidos.dados.size() - lidos.salvos;
+    }
+
+    /**
+     * Reproduz, sem alterar nada, so as operacoes salvas do diario de um
+     * desenho. Para quem le o arquivo sem edita-lo: um diario que nao existe
+     * ou e de uma versao anterior da base nao tem nada a acrescentar.
+     *
+     * @param base arquivo do desenho
+     * @param r receptor das operacoes
+     * @return quantidade de operacoes reproduzidas
+     * @throws IOException se houver erro ao ler o diario
+     */
+    public static int reproduzirSalvas(File base, Receptor r) throws IOException {
+        List<byte[]> salvas = salvas(base);
+        for (byte[] dados : salvas) {
+            aplicar(dados, r);
+        }
+        return salvas.size();
+    }
+
+    /**
+     * Indica se o diario de um desenho tem operacoes salvas, que
+     * {@link #reproduzirSalvas} acrescentaria a base.
+     *
+     * @param base arquivo do desenho
+     * @return true se houver operacoes salvas no diario
+     * @throws IOException se houver erro ao ler o diario
+     */
+    public static boolean temSalvas(File base) throws IOException {
+        return !salvas(base).isEmpty();
+    }
+
+    /**
+     * Registra a adicao de uma forma.
+     *
+     * @param forma forma adicionada
+     */
+    public void adicionar(Forma forma) {
+        registrar(ADICIONAR, FormatoEdg.codificarSolta(forma));
+    }
+
+    /** Registra um desfazer. */
+    public void desfazer() {
+        registrar(DESFAZER, null);
+    }
+
+    /** Registra um refazer. */
+    public void refazer() {
+        registrar(REFAZER, null);
+    }
+
+    /** Registra uma limpeza do desenho. */
+    public void limpar() {
+        registrar(LIMPAR, null);
+    }
+
+    /**
+     * Marca as operacoes registradas ate aqui como salvas e espera a
+     * gravacao. Depois disso elas fazem parte do desenho salvo e
+     * {@link #close} nao as descarta mais.
+     *
+     * @throws IOException se a gravacao falhar; a marca e retirada e os
+     *         registros continuam juntados para a proxima tentativa
+     */
+    public void marcarSalvo() throws IOException {
+        // os registros anteriores primeiro, para a marca nao ficar pendente sozinha
+        sincronizar();
+        int marca;
+        synchronized (this) {
+            int antes = pendentes.size();
+            registrar(SALVAR, null);
+            marca = pendentes.size() - antes;
+        }
+        try {
+            sincronizar();
+        } catch (IOException ex) {
+            retirarUltimoPendente(marca);
+            throw ex;
+        }
+        synchronized (this) {
+            // so a thread da interface registra: nada foi registrado depois da marca
+            salvo = tamanho;
+        }
+    }
+
+    /**
+     * Grava os registros juntados e espera o fsync.
+     *
+     * @throws IOException se a gravacao falhar; os registros continuam
+     *         juntados para a proxima tentativa
+     */
+    public void sincronizar() throws IOException {
+        gravarPendentes();
+    }
+
+    /**
+     * Indica se o diario ja cresceu o bastante para ser compactado.
+     *
+     * @return true se passou de {@link #LIMITE_COMPACTAR}
+     */
+    public synchronized boolean precisaCompactar() {
+        return tamanho + pendentes.size() > LIMITE_COMPACTAR;
+    }
+
+    /**
+     * Descarta as operacoes registradas depois da ultima marca de
+     * salvamento e fecha o diario. O desenho salvo continua sendo a base
+     * mais as operacoes marcadas.
+     *
+     * @throws IOException se houver erro ao cortar ou fechar o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (escrita) {
+            if (!canal.isOpen()) {
+                return;
+            }
+            synchronized (this) {
+                pendentes.reset();
+                qtdPendentes = 0;
+            }
+            try {
+                if (canal.size() > salvo) {
+                    canal.truncate(salvo);
+                    canal.force(true);
+                }
+            } finally {
+                canal.close();
+            }
+        }
+    }
+
+    /**
+     * Junta um registro aos pendentes e agenda a gravacao do grupo.
+     */
+    private synchronized void registrar(int operacao, byte[] forma) {
+        int n = 1 + (forma != null ? forma.length : 0);
+        byte[] dados = new byte[n];
+        dados[0] = (byte) operacao;
+        if (forma != null) {
+            System.arraycopy(forma, 0, dados, 1, forma.length);
+        }
+        try {
+            quadro.varint(n);
+            quadro.bytes(dados);
+            quadro.int4(crc(dados));
+            quadro.esvaziar();
+        } catch (IOException ex) {
+            // a escrita e na memoria
+            throw new IllegalStateException(ex);
+        }
+
+        qtdPendentes++;
+        if (qtdPendentes >= GRUPO) {
+            GRAVADOR.execute(this::gravarDeFundo);
+        } else if (!agendada) {
+            agendada = true;
+            GRAVADOR.schedule(this::gravarDeFundo, ESPERA_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gravacao agendada. Se falhar, o grupo continua juntado e a proxima
+     * sincronizacao tenta de novo e informa o erro.
+     */
+    private void gravarDeFundo() {
+        synchronized (this) {
+            agendada = false;
+        }
+        try {
+            gravarPendentes();
+        } catch (IOException ex) {
+            // o grupo voltou para os pendentes
+        }
+    }
+
+    /**
+     * Grava no fim do arquivo os registros juntados ate agora e faz o fsync.
+     */
+    private void gravarPendentes() throws IOException {
+        synchronized (escrita) {
+            if (!canal.isOpen()) {
+                return;
+            }
+            byte[] grupo;
+            int qtd;
+            synchronized (this) {
+                if (qtdPendentes == 0) {
+                    return;
+                }
+                grupo = pendentes.toByteArray();
+                qtd = qtdPendentes;
+                pendentes.reset();
+                qtdPendentes = 0;
+            }
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(grupo);
+                while (buf.hasRemaining()) {
+                    canal.write(buf, tamanho + buf.position());
+                }
+                canal.force(false);
+            } catch (IOException ex) {
+                // o que chegou ao arquivo nao vale: e cortado e regravado depois
+                try {
+                    canal.truncate(tamanho);
+                } catch (IOException ex2) {
+                    ex.addSuppressed(ex2);
+                }
+                // o grupo volta para a frente dos pendentes
+                synchronized (this) {
+                    byte[] depois = pendentes.toByteArray();
+                    pendentes.reset();
+                    pendentes.write(grupo, 0, grupo.length);
+                    pendentes.write(depois, 0, depois.length);
+                    qtdPendentes += qtd;
+                }
+                throw ex;
+            }
+            synchronized (this) {
+                tamanho += grupo.length;
+            }
+        }
+    }
+
+    /**
+     * Retira dos pendentes o ultimo registro, de tamanho dado, se ele ainda
+     * nao tiver sido gravado.
+     */
+    private void retirarUltimoPendente(int bytes) {
+        synchronized (escrita) {
+            synchronized (this) {
+                if (qtdPendentes == 0 || pendentes.size() < bytes) {
+                    return;
+                }
+                byte[] todos = pendentes.toByteArray();
+                pendentes.reset();
+                pendentes.write(todos, 0, todos.length - bytes);
+                qtdPendentes--;
+            }
+        }
+    }
+
+    /**
+     * Registros validos de um diario.
+     */
+    private static final class Registros {
+        /** Operacao e forma de cada registro, sem as marcas de salvamento */
+        final List<byte[]> dados = new ArrayList<>();
+
+        /** Quantidade de registros em {@link #dados} antes da ultima marca */
+        int salvos;
+
+        /** Fim do ultimo registro valido */
+        long fim = BYTES_CABECALHO;
+
+        /** Fim da ultima marca, ou do cabecalho se nao houver */
+        long salvo = BYTES_CABECALHO;
+    }
+
+    /**
+     * Le os registros de um diario de cabecalho valido, parando no primeiro
+     * incompleto ou com CRC errado, que so pode ser o fim de uma gravacao
+     * interrompida.
+     */
+    private static Registros lerRegistros(FileChannel canal) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) (canal.size() - BYTES_CABECALHO));
+        while (buf.hasRemaining() && canal.read(buf, BYTES_CABECALHO + buf.position()) > 0) {
+            // le ate encher o buffer
+        }
+        buf.flip();
+
+        Registros lidos = new Registros();
+        FormatoEdg.EntradaMapeada e = new FormatoEdg.EntradaMapeada(buf);
+        try {
+            while (buf.hasRemaining()) {
+                int n = e.tamanho();
+                if (n == 0 || n > buf.remaining()) {
+                    break;
+                }
+                byte[] dados = new byte[n];
+                e.bytes(dados);
+                if (e.int4() != crc(dados)) {
+                    break;
+                }
+                lidos.fim = BYTES_CABECALHO + e.posicao();
+                if (dados[0] == SALVAR) {
+                    lidos.salvos = lidos.dados.size();
+                    lidos.salvo = lidos.fim;
+                } else {
+                    lidos.dados.add(dados);
+                }
+            }
+        } catch (IOException ex) {
+            // registro incompleto ou invalido: fim de uma gravacao interrompida
+        }
+        return lidos;
+    }
+
+    /**
+     * Le, so para leitura, os registros salvos do diario de um desenho.
+     */
+    private static List<byte[]> salvas(File base) throws IOException {
+        File arquivo = arquivoDe(base);
+        if (!arquivo.isFile()) {
+            return new ArrayList<>();
+        }
+        try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+            if (!cabecalhoConfere(canal, base.getAbsoluteFile())) {
+                return new ArrayList<>();
+            }
+            Registros lidos = lerRegistros(canal);
+            return lidos.dados.subList(0, lidos.salvos);
+        }
+    }
+
+    /**
+     * Aplica um registro ao receptor.
+     */
+    private static void aplicar(byte[] dados, Receptor r) throws IOException {
+        switch (dados[0]) {
+            case ADICIONAR:
+                r.adicionar(FormatoEdg.decodificarSolta(
+                    new FormatoEdg.EntradaMapeada(ByteBuffer.wrap(dados, 1, dados.length - 1))));
+                break;
+            case DESFAZER:
+                r.desfazer();
+                break;
+            case REFAZER:
+                r.refazer();
+                break;
+            case LIMPAR:
+                r.limpar();
+                break;
+            case SALVAR:
+                break;
+            default:
+                throw new IOException("Operacao desconhecida no diario: " + dados[0]);
+        }
+    }
+
+    /**
+     * Confere se o arquivo tem um cabecalho valido e ligado a versao atual da base.
+     */
+    private static boolean cabecalhoConfere(FileChannel canal, File base) throws IOException {
+        if (canal.size() < BYTES_CABECALHO) {
+            return false;
+        }
+        ByteBuffer cab = ByteBuffer.allocate(BYTES_CABECALHO);
+        while (cab.hasRemaining() && canal.read(cab, cab.position()) > 0) {
+            // le o cabecalho inteiro
+        }
+        cab.flip();
+        for (byte b : ASSINATURA) {
+            if (cab.get() != b) {
+                return false;
+            }
+        }
+        return cab.get() == VERSAO && cab.getLong() == base.length() && cab.getLong() == base.lastModified();
+    }
+
+    /**
+     * Esvazia o arquivo e grava o cabecalho da versao atual da base.
+     */
+    private void escreverCabecalho() throws IOException {
+        ByteBuffer cab = ByteBuffer.allocate(BYTES_CABECALHO);
+        cab.put(ASSINATURA).put((byte) VERSAO).putLong(base.length()).putLong(base.lastModified());
+        cab.flip();
+        canal.truncate(0);
+        while (cab.hasRemaining()) {
+            canal.write(cab, cab.position());
+        }
+        canal.force(true);
+        synchronized (this) {
+            tamanho = salvo = BYTES_CABECALHO;
+        }
+    }
+
+    /**
+     * Calcula o CRC32 de um registro.
+     */
+    private static int crc(byte[] dados) {
+        CRC32 c = new CRC32();
+        c.update(dados, 0, dados.length);
+        return (int) c.getValue();
+    }
+}
@@ -0,0 +1,723 @@
+package binario;
+
+import circulo.CirculoGr;
+import constantes.TipoPrimitivo;
+import forma.Forma;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import ponto.Ponto;
+import ponto.PontoGr;
+import reta.RetaGr;
+import retangulo.RetanguloGraf;
+import triangulo.TrianguloGraf;
+
+/**
+ * Formato binario compacto de desenhos (.edg), com as mesmas informacoes da
+ * lista "figuras" do JSON: tipo, coordenadas, cor, espessura, modo de
+ * desenho e preenchimento.
+ * <p>
+ * Estrutura, versao 3:
+ * </p>
+ * <pre>
+ * cabecalho  'E' 'D' 'G' 0x1A, versao (1 byte)
+ * paleta     n (varint), n cores ARGB (4 bytes cada)
+ * modos      m (varint), m nomes de {@link TipoPrimitivo} (varint do tamanho + ASCII)
+ * formas     k (varint), k formas
+ *
+ * forma      etiqueta (1 byte): bits 0-2 tipo, bit 3 preenchida, bit 4 tem modo,
+ *            bit 5 raio fracionario
+ *            indice da cor na paleta (varint)
+ *            espessura (varint)
+ *            indice do modo na tabela (varint, so se tiver modo)
+ *            coordenadas (varint zigzag), cada x e y como diferenca para o
+ *            x e o y anteriores no arquivo; o raio do circulo vai sem diferenca,
+ *            ou como double (8 bytes) se tiver parte fracionaria
+ *
+ * indice     b (4 bytes), tamanho do bloco (4 bytes) e, para cada bloco de
+ *            formas: posicao do primeiro registro (8 bytes), x e y anteriores
+ *            a ele (4 + 4) e limites xmin, ymin, xmax, ymax das formas (4 x 4)
+ * rodape     posicao do indice (8 bytes), 'E' 'D' 'G' 'I'
+ * </pre>
+ * <p>
+ * O indice, de largura fixa no fim do arquivo, permite decodificar um bloco
+ * sem ler os anteriores (veja {@link DesenhoMapeado}). A leitura sequencial
+ * para depois das formas e nao precisa dele; as versoes 1, sem indice, e 2,
+ * sem raio fracionario, continuam sendo lidas.
+ * </p>
+ * <p>
+ * Os varints guardam 7 bits por byte, do menos significativo para o mais;
+ * o zigzag leva numeros pequenos, positivos ou negativos, para varints
+ * curtos. Como formas vizinhas costumam estar proximas, a maioria das
+ * coordenadas cabe em um ou dois bytes. As coordenadas sao inteiras, como
+ * os pixels da tela; so o raio de um circulo desenhado com o mouse, que vem
+ * de uma raiz quadrada, costuma ter fracao, e ela e guardada sem perda.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class FormatoEdg {
+
+    /** Bytes iniciais de todo arquivo .edg */
+    private static final byte[] ASSINATURA = {'E', 'D', 'G', 0x1A};
+
+    /** Versao gravada por esta classe */
+    public static final int VERSAO = 3;
+
+    /** Bytes finais de um arquivo com indice */
+    static final byte[] ASSINATURA_INDICE = {'E', 'D', 'G', 'I'};
+
+    /** Quantidade de formas por bloco do indice */
+    static final int TAMANHO_BLOCO = 256;
+
+    /** Bytes de cada bloco no indice e bytes do rodape */
+    static final int BYTES_BLOCO = 32, BYTES_RODAPE = 12;
+
+    /** Codigos de tipo na etiqueta de cada forma */
+    private static final int PONTO = 1, RETA = 2, CIRCULO = 3, RETANGULO = 4, TRIANGULO = 5;
+
+    /** Bits da etiqueta de cada forma */
+    private static final int MASCARA_TIPO = 0x07, PREENCHIDA = 0x08, COM_MODO = 0x10,
+            RAIO_REAL = 0x20;
+
+    /** Tamanho dos buffers de leitura e escrita */
+    private static final int BUFFER = 1 << 16;
+
+    private FormatoEdg() {
+    }
+
+    /**
+     * Salva as formas num arquivo .edg.
+     *
+     * @param formas formas na ordem de desenho
+     * @param arquivo arquivo de destino
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    public static void salvar(List<Forma> formas, File arquivo) throws IOException {
+        // primeira passada: paleta e tabela de modos, que vem antes das formas
+        Map<Integer, Integer> paleta = new HashMap<>();
+        List<Integer> cores = new ArrayList<>();
+        Map<TipoPrimitivo, Integer> modos = new HashMap<>();
+        List<TipoPrimitivo> nomesModos = new ArrayList<>();
+        for (Forma forma : formas) {
+            int argb = forma.getCorTraco().getRGB();
+            if (paleta.putIfAbsent(argb, cores.size()) == null) {
+                cores.add(argb);
+            }
+            TipoPrimitivo modo = modo(forma);
+            if (modo != null && modos.putIfAbsent(modo, nomesModos.size()) == null) {
+                nomesModos.add(modo);
+            }
+        }
+
+        try (Saida s = new Saida(new FileOutputStream(arquivo))) {
+            s.bytes(ASSINATURA);
+            s.byte1(VERSAO);
+            s.varint(cores.size());
+            for (int argb : cores) {
+                s.int4(argb);
+            }
+            s.varint(nomesModos.size());
+            for (TipoPrimitivo modo : nomesModos) {
+                byte[] nome = modo.name().getBytes(StandardCharsets.US_ASCII);
+                s.varint(nome.length);
+                s.bytes(nome);
+            }
+
+            s.varint(formas.size());
+            int blocos = (formas.size() + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+            long[] posicoes = new long[blocos];
+            int[] dados = new int[6 * blocos];
+            int i = 0;
+            for (Forma forma : formas) {
+                int b = i / TAMANHO_BLOCO;
+                if (i++ % TAMANHO_BLOCO == 0) {
+                    posicoes[b] = s.posicao();
+                    dados[6 * b] = s.xAnt;
+                    dados[6 * b + 1] = s.yAnt;
+                    dados[6 * b + 2] = dados[6 * b + 3] = Integer.MAX_VALUE;
+                    dados[6 * b + 4] = dados[6 * b + 5] = Integer.MIN_VALUE;
+                }
+                Rectangle r = forma.calcularLimites();
+                dados[6 * b + 2] = Math.min(dados[6 * b + 2], r.x);
+                dados[6 * b + 3] = Math.min(dados[6 * b + 3], r.y);
+                dados[6 * b + 4] = Math.max(dados[6 * b + 4], r.x + r.width);
+                dados[6 * b + 5] = Math.max(dados[6 * b + 5], r.y + r.height);
+
+                TipoPrimitivo modo = modo(forma);
+                s.byte1(etiqueta(forma, modo));
+                s.varint(paleta.get(forma.getCorTraco().getRGB()));
+                s.varint(espessura(forma));
+                if (modo != null) {
+                    s.varint(modos.get(modo));
+                }
+                escreverCoordenadas(s, forma);
+            }
+
+            long posicaoIndice = s.posicao();
+            s.int4(blocos);
+            s.int4(TAMANHO_BLOCO);
+            for (int b = 0; b < blocos; b++) {
+                s.int4((int) (posicoes[b] >>> 32));
+                s.int4((int) posicoes[b]);
+                for (int j = 0; j < 6; j++) {
+                    s.int4(dados[6 * b + j]);
+                }
+            }
+            s.int4((int) (posicaoIndice >>> 32));
+            s.int4((int) posicaoIndice);
+            s.bytes(ASSINATURA_INDICE);
+        }
+    }
+
+    /**
+     * Carrega as formas de um arquivo .edg.
+     *
+     * @param arquivo arquivo .edg
+     * @return formas na ordem de desenho
+     * @throws IOException se houver erro ao ler o arquivo ou ele for invalido
+     */
+    public static List<Forma> carregar(File arquivo) throws IOException {
+        List<Forma> formas = new ArrayList<>();
+        carregar(arquivo, 4096, formas::addAll);
+        return formas;
+    }
+
+    /**
+     * Carrega as formas de um arquivo .edg em lotes, entregando cada lote
+     * assim que ele fica completo (como o carregamento em lotes do JSON).
+     *
+     * @param arquivo arquivo .edg
+     * @param tamanhoLote quantidade de formas por lote (o ultimo pode ter menos)
+     * @param receptor recebe cada lote, na ordem do arquivo
+     * @throws IOException se houver erro ao ler o arquivo ou ele for invalido
+     */
+    public static void carregar(File arquivo, int tamanhoLote, Consumer<List<Forma>> receptor) throws IOException {
+        List<Forma> lote = new ArrayList<>(tamanhoLote);
+        try (EntradaFluxo e = new EntradaFluxo(new FileInputStream(arquivo))) {
+            Cabecalho c = lerCabecalho(e);
+            for (int i = 0; i < c.total; i++) {
+                lote.add(lerRegistro(e, c));
+                if (lote.size() >= tamanhoLote) {
+                    receptor.accept(lote);
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            receptor.accept(lote);
+        }
+    }
+
+    /**
+     * Le o cabecalho, a paleta, a tabela de modos e a quantidade de formas,
+     * deixando a entrada no primeiro registro.
+     *
+     * @param e entrada posicionada no inicio do arquivo
+     * @return tabelas do arquivo
+     * @throws IOException se o arquivo nao for .edg ou for de versao desconhecida
+     */
+    static Cabecalho lerCabecalho(Entrada e) throws IOException {
+        for (byte b : ASSINATURA) {
+            if (e.byte1() != (b & 0xFF)) {
+                throw new IOException("Arquivo nao esta no formato .edg");
+            }
+        }
+        int versao = e.byte1();
+        if (versao < 1 || versao > VERSAO) {
+            throw new IOException("Versao do formato .edg nao suportada: " + versao);
+        }
+
+        Color[] paleta = new Color[e.tamanho()];
+        for (int i = 0; i < paleta.length; i++) {
+            paleta[i] = new Color(e.int4(), true);
+        }
+        TipoPrimitivo[] modos = new TipoPrimitivo[e.tamanho()];
+        for (int i = 0; i < modos.length; i++) {
+            byte[] nome = new byte[e.tamanho()];
+            e.bytes(nome);
+            try {
+                modos[i] = TipoPrimitivo.valueOf(new String(nome, StandardCharsets.US_ASCII));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Modo de desenho desconhecido no arquivo .edg", ex);
+            }
+        }
+        return new Cabecalho(versao, paleta, modos, e.tamanho());
+    }
+
+    /**
+     * Le um registro de forma.
+     *
+     * @param e entrada posicionada no registro, com o x e o y anteriores certos
+     * @param c tabelas do arquivo
+     * @return forma lida
+     * @throws IOException se o registro for invalido
+     */
+    static Forma lerRegistro(Entrada e, Cabecalho c) throws IOException {
+        int etiqueta = e.byte1();
+        Color cor = c.paleta[indice(e.varint(), c.paleta.length)];
+        int esp = e.varint();
+        TipoPrimitivo modo = (etiqueta & COM_MODO) != 0 ? c.modos[indice(e.varint(), c.modos.length)] : null;
+        return lerForma(e, etiqueta, cor, esp, modo);
+    }
+
+    /**
+     * Codifica uma forma sozinha, sem paleta nem tabela de modos: a cor vai
+     * inteira, o modo pelo nome e as coordenadas sem diferenca para outra
+     * forma. Usado nos registros do {@link Diario}.
+     *
+     * @param forma forma a ser codificada
+     * @return bytes da forma
+     */
+    static byte[] codificarSolta(Forma forma) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (Saida s = new Saida(bytes, 64)) {
+            TipoPrimitivo modo = modo(forma);
+            s.byte1(etiqueta(forma, modo));
+            s.int4(forma.getCorTraco().getRGB());
+            s.varint(espessura(forma));
+            if (modo != null) {
+                byte[] nome = modo.name().getBytes(StandardCharsets.US_ASCII);
+                s.varint(nome.length);
+                s.bytes(nome);
+            }
+            escreverCoordenadas(s, forma);
+        } catch (IOException ex) {
+            // so acontece com tipos de forma sem representacao no formato
+            throw new IllegalArgumentException(ex.getMessage(), ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Le uma forma gravada por {@link #codificarSolta}.
+     *
+     * @param e entrada posicionada na forma
+     * @return forma lida
+     * @throws IOException se os bytes forem invalidos
+     */
+    static Forma decodificarSolta(Entrada e) throws IOException {
+        int etiqueta = e.byte1();
+        Color cor = new Color(e.int4(), true);
+        int esp = e.varint();
+        TipoPrimitivo modo = null;
+        if ((etiqueta & COM_MODO) != 0) {
+            byte[] nome = new byte[e.tamanho()];
+            e.bytes(nome);
+            try {
+                modo = TipoPrimitivo.valueOf(new String(nome, StandardCharsets.US_ASCII));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Modo de desenho desconhecido", ex);
+            }
+        }
+        e.anteriores(0, 0);
+        return lerForma(e, etiqueta, cor, esp, modo);
+    }
+
+    /**
+     * Grava as coordenadas de uma forma como diferencas para as anteriores.
+     */
+    private static void escreverCoordenadas(Saida s, Forma forma) throws IOException {
+        if (forma instanceof PontoGr) {
+            PontoGr p = (PontoGr) forma;
+            s.ponto(p.getX(), p.getY());
+        } else if (forma instanceof RetaGr) {
+            RetaGr r = (RetaGr) forma;
+            s.ponto(r.getP1().getX(), r.getP1().getY());
+            s.ponto(r.getP2().getX(), r.getP2().getY());
+        } else if (forma instanceof CirculoGr) {
+            CirculoGr c = (CirculoGr) forma;
+            s.ponto(c.getCentro().getX(), c.getCentro().getY());
+            if (raioFracionario(c)) {
+                long bits = Double.doubleToLongBits(c.getRaio());
+                s.int4((int) (bits >>> 32));
+                s.int4((int) bits);
+            } else {
+                s.varint(zigzag((int) c.getRaio()));
+            }
+        } else if (forma instanceof RetanguloGraf) {
+            RetanguloGraf r = (RetanguloGraf) forma;
+            s.ponto(r.getP1().getX(), r.getP1().getY());
+            s.ponto(r.getP2().getX(), r.getP2().getY());
+        } else {
+            TrianguloGraf t = (TrianguloGraf) forma;
+            s.ponto(t.getP1().getX(), t.getP1().getY());
+            s.ponto(t.getP2().getX(), t.getP2().getY());
+            s.ponto(t.getP3().getX(), t.getP3().getY());
+        }
+    }
+
+    /**
+     * Le as coordenadas e cria a forma do tipo dado, como o carregamento do JSON.
+     */
+    private static Forma lerForma(Entrada e, int etiqueta, Color cor, int esp, TipoPrimitivo modo)
+            throws IOException {
+        int tipo = etiqueta & MASCARA_TIPO;
+        boolean preenchida = (etiqueta & PREENCHIDA) != 0;
+        switch (tipo) {
+            case PONTO:
+                return new PontoGr(e.x(), e.y(), cor, esp);
+            case RETA: {
+                RetaGr reta = new RetaGr(e.x(), e.y(), e.x(), e.y(), cor, "", esp);
+                reta.setModo(modo != null ? modo : TipoPrimitivo.RETA_LIB);
+                return reta;
+            }
+            case CIRCULO: {
+                int cx = e.x(), cy = e.y();
+                CirculoGr circulo;
+                if ((etiqueta & RAIO_REAL) != 0) {
+                    long alto = e.int4() & 0xFFFFFFFFL;
+                    circulo = new CirculoGr(cx, cy, 0, cor, "", esp);
+                    circulo.setRaio(Double.longBitsToDouble(alto << 32 | (e.int4() & 0xFFFFFFFFL)));
+                } else {
+                    circulo = new CirculoGr(cx, cy, desfazerZigzag(e.varint()), cor, "", esp);
+                }
+                circulo.setModo(modo != null ? modo : TipoPrimitivo.CIRCULO_LIB);
+                circulo.setPreenchido(preenchida);
+                return circulo;
+            }
+            case RETANGULO: {
+                Ponto p1 = new Ponto(e.x(), e.y());
+                Ponto p2 = new Ponto(e.x(), e.y());
+                RetanguloGraf retangulo = new RetanguloGraf(p1, p2, cor, esp);
+                retangulo.setPreenchido(preenchida);
+                return retangulo;
+            }
+            case TRIANGULO: {
+                Ponto p1 = new Ponto(e.x(), e.y());
+                Ponto p2 = new Ponto(e.x(), e.y());
+                Ponto p3 = new Ponto(e.x(), e.y());
+                TrianguloGraf triangulo = new TrianguloGraf(p1, p2, p3, cor, esp);
+                triangulo.setPreenchido(preenchida);
+                return triangulo;
+            }
+            default:
+                throw new IOException("Tipo de forma desconhecido no arquivo .edg: " + tipo);
+        }
+    }
+
+    /**
+     * Monta a etiqueta de uma forma: tipo e bits de preenchimento, modo e raio.
+     */
+    private static int etiqueta(Forma forma, TipoPrimitivo modo) throws IOException {
+        return codigo(forma) | (preenchida(forma) ? PREENCHIDA : 0) | (modo != null ? COM_MODO : 0)
+                | (forma instanceof CirculoGr && raioFracionario((CirculoGr) forma) ? RAIO_REAL : 0);
+    }
+
+    /**
+     * Indica se o raio do circulo nao cabe exatamente em um inteiro.
+     */
+    private static boolean raioFracionario(CirculoGr c) {
+        return c.getRaio() != (int) c.getRaio();
+    }
+
+    /**
+     * Retorna o codigo de tipo da forma na etiqueta.
+     */
+    private static int codigo(Forma forma) throws IOException {
+        switch (forma.getTipoForma()) {
+            case "PONTO": return PONTO;
+            case "RETA": return RETA;
+            case "CIRCULO": return CIRCULO;
+            case "RETANGULO": return RETANGULO;
+            case "TRIANGULO": return TRIANGULO;
+            default: throw new IOException("Forma sem representacao no formato .edg: " + forma.getTipoForma());
+        }
+    }
+
+    /**
+     * Retorna o modo de desenho gravado da forma, ou null se for o padrao.
+     */
+    private static TipoPrimitivo modo(Forma forma) {
+        if (forma instanceof RetaGr) {
+            TipoPrimitivo modo = ((RetaGr) forma).getModo();
+            return modo == TipoPrimitivo.RETA_LIB ? null : modo;
+        }
+        if (forma instanceof CirculoGr) {
+            TipoPrimitivo modo = ((CirculoGr) forma).getModo();
+            return modo == TipoPrimitivo.CIRCULO_LIB ? null : modo;
+        }
+        return null;
+    }
+
+    /**
+     * Retorna a espessura gravada da forma (no ponto, o diametro, como no JSON).
+     */
+    private static int espessura(Forma forma) {
+        return forma instanceof PontoGr ? ((PontoGr) forma).getDiametro() : forma.getEspessuraTraco();
+    }
+
+    /**
+     * Indica se a forma e preenchida.
+     */
+    private static boolean preenchida(Forma forma) {
+        if (forma instanceof CirculoGr) {
+            return ((CirculoGr) forma).isPreenchido();
+        }
+        if (forma instanceof RetanguloGraf) {
+            return ((RetanguloGraf) forma).isPreenchido();
+        }
+        if (forma instanceof TrianguloGraf) {
+            return ((TrianguloGraf) forma).isPreenchido();
+        }
+        return false;
+    }
+
+    /**
+     * Confere um indice lido do arquivo contra o tamanho da tabela.
+     */
+    private static int indice(int i, int tamanho) throws IOException {
+        if (i < 0 || i >= tamanho) {
+            throw new IOException("Indice fora da tabela no arquivo .edg: " + i);
+        }
+        return i;
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int desfazerZigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Escrita com buffer proprio, sem sincronizacao por byte, e com o ultimo
+     * ponto gravado para as diferencas.
+     */
+    static final class Saida implements AutoCloseable {
+        private final OutputStream destino;
+        private final byte[] buf;
+        private int pos;
+        private long esvaziados;
+        private int xAnt, yAnt;
+
+        Saida(OutputStream destino) {
+            this(destino, BUFFER);
+        }
+
+        Saida(OutputStream destino, int tamanhoBuffer) {
+            this.destino = destino;
+            this.buf = new byte[tamanhoBuffer];
+        }
+
+        void byte1(int b) throws IOException {
+            if (pos == buf.length) {
+                esvaziar();
+            }
+            buf[pos++] = (byte) b;
+        }
+
+        void bytes(byte[] b) throws IOException {
+            for (byte x : b) {
+                byte1(x);
+            }
+        }
+
+        void int4(int v) throws IOException {
+            byte1(v >>> 24);
+            byte1(v >>> 16);
+            byte1(v >>> 8);
+            byte1(v);
+        }
+
+        void varint(int v) throws IOException {
+            if (buf.length - pos < 5) {
+                esvaziar();
+            }
+            while ((v & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void ponto(double x, double y) throws IOException {
+            int xi = (int) x, yi = (int) y;
+            varint(zigzag(xi - xAnt));
+            varint(zigzag(yi - yAnt));
+            xAnt = xi;
+            yAnt = yi;
+        }
+
+        long posicao() {
+            return esvaziados + pos;
+        }
+
+        void esvaziar() throws IOException {
+            destino.write(buf, 0, pos);
+            esvaziados += pos;
+            pos = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                esvaziar();
+            } finally {
+                destino.close();
+            }
+        }
+    }
+
+    /**
+     * Tabelas lidas do cabecalho de um arquivo .edg.
+     */
+    static final class Cabecalho {
+        final int versao;
+        final Color[] paleta;
+        final TipoPrimitivo[] modos;
+        final int total;
+
+        Cabecalho(int versao, Color[] paleta, TipoPrimitivo[] modos, int total) {
+            this.versao = versao;
+            this.paleta = paleta;
+            this.modos = modos;
+            this.total = total;
+        }
+    }
+
+    /**
+     * Leitura dos campos do formato, com o ultimo ponto lido para as diferencas.
+     */
+    abstract static class Entrada {
+        private int xAnt, yAnt;
+
+        abstract int byte1() throws IOException;
+
+        /** Define o x e o y anteriores, para ler a partir do inicio de um bloco */
+        void anteriores(int x, int y) {
+            xAnt = x;
+            yAnt = y;
+        }
+
+        int xAnterior() {
+            return xAnt;
+        }
+
+        int yAnterior() {
+            return yAnt;
+        }
+
+        void bytes(byte[] b) throws IOException {
+            for (int i = 0; i < b.length; i++) {
+                b[i] = (byte) byte1();
+            }
+        }
+
+        int int4() throws IOException {
+            return (byte1() << 24) | (byte1() << 16) | (byte1() << 8) | byte1();
+        }
+
+        int varint() throws IOException {
+            int v = 0;
+            for (int desloc = 0; desloc < 35; desloc += 7) {
+                int b = byte1();
+                v |= (b & 0x7F) << desloc;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Varint invalido no arquivo .edg");
+        }
+
+        /** Le uma quantidade, que nao pode ser negativa */
+        int tamanho() throws IOException {
+            int n = varint();
+            if (n < 0) {
+                throw new IOException("Tamanho invalido no arquivo .edg: " + n);
+            }
+            return n;
+        }
+
+        int x() throws IOException {
+            xAnt += desfazerZigzag(varint());
+            return xAnt;
+        }
+
+        int y() throws IOException {
+            yAnt += desfazerZigzag(varint());
+            return yAnt;
+        }
+    }
+
+    /**
+     * Entrada de um fluxo, com buffer proprio.
+     */
+    static final class EntradaFluxo extends Entrada implements AutoCloseable {
+        private final InputStream origem;
+        private final byte[] buf = new byte[BUFFER];
+        private int pos, fim;
+        private long base;
+
+        EntradaFluxo(InputStream origem) {
+            this.origem = origem;
+        }
+
+        /** Posicao do proximo byte no fluxo */
+        long posicao() {
+            return base + pos;
+        }
+
+        @Override
+        int byte1() throws IOException {
+            if (pos == fim) {
+                base += fim;
+                fim = origem.read(buf, 0, buf.length);
+                pos = 0;
+                if (fim <= 0) {
+                    fim = 0;
+                    throw new EOFException("Arquivo .edg truncado");
+                }
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        @Override
+        public void close() throws IOException {
+            origem.close();
+        }
+    }
+
+    /**
+     * Entrada de um {@link ByteBuffer}, como um trecho de arquivo mapeado na memoria.
+     */
+    static final class EntradaMapeada extends Entrada {
+        private final ByteBuffer buf;
+
+        EntradaMapeada(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        int byte1() throws IOException {
+            if (!buf.hasRemaining()) {
+                throw new EOFException("Arquivo .edg truncado");
+            }
+            return buf.get() & 0xFF;
+        }
+
+        /** Posicao do proximo byte no buffer */
+        int posicao() {
+            return buf.position();
+        }
+    }
+}
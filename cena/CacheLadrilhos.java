@@ -0,0 +1,304 @@
+package cena;
+
+import forma.Forma;
+import java.awt.AlphaComposite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import raster.RasterInt;
+
+/**
+ * Cache da cena dividido em ladrilhos (tiles) de tamanho fixo.
+ * Cada ladrilho guarda em sua propria imagem as formas que o cruzam. Quando
+ * uma forma muda, apenas os ladrilhos que ela cobre sao marcados como sujos, e
+ * os ladrilhos sujos sao redesenhados em paralelo num ForkJoinPool antes de
+ * serem compostos na tela. O desenho de cada ladrilho e feito em lotes de
+ * mesmo estilo por um {@link RenderizadorLotes}; formas com rasterizacao
+ * propria escrevem direto nos pixels do ladrilho.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class CacheLadrilhos {
+
+    /** Lado de cada ladrilho, em pixels */
+    public static final int TAMANHO = 256;
+
+    /** Pool compartilhado usado para redesenhar os ladrilhos */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /** Indice espacial consultado para saber quais formas cruzam cada ladrilho */
+    private final IndiceEspacial indice;
+
+    /** Renderizador que desenha as formas agrupadas por estilo */
+    private final RenderizadorLotes renderizador;
+
+    /** Grade de ladrilhos, indexada por [linha][coluna] */
+    private Ladrilho[][] grade = new Ladrilho[0][0];
+
+    /** Fonte usada nos contextos graficos dos ladrilhos */
+    private Font fonte;
+
+    /** Formas desenhadas por baixo das do indice, ou null */
+    private volatile FonteFormas fundo;
+
+    /**
+     * Construtor do cache de ladrilhos.
+     *
+     * @param indice indice espacial das formas da cena
+     * @param renderizador renderizador que desenha as formas agrupadas por estilo
+     */
+    public CacheLadrilhos(IndiceEspacial indice, RenderizadorLotes renderizador) {
+        this.indice = indice;
+        this.renderizador = renderizador;
+    }
+
+    /**
+     * Define a fonte usada para desenhar os nomes das formas.
+     *
+     * @param fonte fonte do componente de desenho
+     */
+    public void setFonte(Font fonte) {
+        this.fonte = fonte;
+    }
+
+    /**
+     * Define formas desenhadas por baixo das formas do indice em cada
+     * ladrilho, como um desenho grande lido aos poucos de um arquivo. Todos
+     * os ladrilhos ficam sujos.
+     *
+     * @param fundo origem das formas de fundo, ou null para nenhuma
+     */
+    public void setFundo(FonteFormas fundo) {
+        this.fundo = fundo;
+        sujarTudo();
+    }
+
+    /**
+     * Ajusta a grade para cobrir uma area de desenho do tamanho dado.
+     * Ladrilhos que continuam dentro da area sao preservados, pois seu
+     * conteudo nao depende do tamanho do painel; os novos nascem sujos.
+     *
+     * @param larg largura da area de desenho
+     * @param alt altura da area de desenho
+     */
+    public void redimensionar(int larg, int alt) {
+        int colunas = Math.max(1, (larg + TAMANHO - 1) / TAMANHO);
+        int linhas = Math.max(1, (alt + TAMANHO - 1) / TAMANHO);
+        if (linhas == grade.length && colunas == grade[0].length) {
+            return;
+        }
+
+        Ladrilho[][] nova = new Ladrilho[linhas][colunas];
+        for (int l = 0; l < linhas; l++) {
+            for (int c = 0; c < colunas; c++) {
+                if (l < grade.length && c < grade[l].length) {
+                    nova[l][c] = grade[l][c];
+                } else {
+                    nova[l][c] = new Ladrilho(c * TAMANHO, l * TAMANHO);
+                }
+            }
+        }
+        grade = nova;
+    }
+
+    /**
+     * Marca como sujos os ladrilhos que cruzam uma regiao.
+     *
+     * @param regiao regiao da tela que mudou
+     */
+    public void sujar(Rectangle regiao) {
+        for (Ladrilho ladrilho : ladrilhosEm(regiao)) {
+            ladrilho.sujo = true;
+        }
+    }
+
+    /**
+     * Marca todos os ladrilhos como sujos.
+     */
+    public void sujarTudo() {
+        for (Ladrilho[] linha : grade) {
+            for (Ladrilho ladrilho : linha) {
+                ladrilho.sujo = true;
+            }
+        }
+    }
+
+    /**
+     * Desenha uma forma recem adicionada sobre os ladrilhos que ela cobre.
+     * Como a forma fica por cima de todas as outras, nao e preciso redesenhar
+     * o ladrilho inteiro; ladrilhos ja sujos serao redesenhados de qualquer modo.
+     *
+     * @param forma forma adicionada
+     */
+    public void acrescentar(Forma forma) {
+        for (Ladrilho ladrilho : ladrilhosEm(forma.calcularLimites())) {
+            if (!ladrilho.sujo) {
+                Graphics2D g = ladrilho.criarGraphics();
+                renderizador.desenhar(g, ladrilho.raster, Collections.singletonList(forma));
+                g.dispose();
+            }
+        }
+    }
+
+    /**
+     * Desenha um lote de formas recem adicionadas sobre os ladrilhos que elas
+     * cobrem, com um unico contexto grafico por ladrilho e na ordem do lote.
+     *
+     * @param novas formas adicionadas, na ordem de desenho
+     */
+    public void acrescentar(List<Forma> novas) {
+        Map<Ladrilho, List<Forma>> porLadrilho = new LinkedHashMap<>();
+        for (Forma forma : novas) {
+            for (Ladrilho ladrilho : ladrilhosEm(forma.calcularLimites())) {
+                if (!ladrilho.sujo) {
+                    porLadrilho.computeIfAbsent(ladrilho, l -> new ArrayList<>()).add(forma);
+                }
+            }
+        }
+        for (Map.Entry<Ladrilho, List<Forma>> e : porLadrilho.entrySet()) {
+            Graphics2D g = e.getKey().criarGraphics();
+            renderizador.desenhar(g, e.getKey().raster, e.getValue());
+            g.dispose();
+        }
+    }
+
+    /**
+     * Redesenha todos os ladrilhos sujos, em paralelo quando houver mais de um.
+     */
+    public void atualizar() {
+        List<Ladrilho> sujos = new ArrayList<>();
+        for (Ladrilho[] linha : grade) {
+            for (Ladrilho ladrilho : linha) {
+                if (ladrilho.sujo) {
+                    sujos.add(ladrilho);
+                }
+            }
+        }
+
+        if (sujos.size() == 1) {
+            renderizar(sujos.get(0));
+        } else if (!sujos.isEmpty()) {
+            POOL.submit(() -> sujos.parallelStream().forEach(this::renderizar)).join();
+        }
+    }
+
+    /**
+     * Compoe na tela os ladrilhos que cruzam a regiao de recorte do contexto.
+     *
+     * @param g contexto grafico da tela
+     */
+    public void desenhar(Graphics2D g) {
+        Rectangle clip = g.getClipBounds();
+        for (Ladrilho ladrilho : clip == null ? todos() : ladrilhosEm(clip)) {
+            g.drawImage(ladrilho.imagem, ladrilho.x, ladrilho.y, null);
+        }
+    }
+
+    /**
+     * Redesenha um ladrilho a partir do zero com as formas que o cruzam.
+     *
+     * @param ladrilho ladrilho a ser redesenhado
+     */
+    private void renderizar(Ladrilho ladrilho) {
+        Graphics2D g = ladrilho.criarGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(ladrilho.x, ladrilho.y, TAMANHO, TAMANHO);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        Rectangle area = new Rectangle(ladrilho.x, ladrilho.y, TAMANHO, TAMANHO);
+        FonteFormas f = fundo;
+        if (f != null) {
+            renderizador.desenhar(g, ladrilho.raster, f.consultar(area));
+        }
+        renderizador.desenhar(g, ladrilho.raster, indice.consultar(area));
+        g.dispose();
+        ladrilho.sujo = false;
+    }
+
+    /**
+     * Retorna os ladrilhos da grade que cruzam uma regiao.
+     *
+     * @param regiao regiao da tela
+     * @return lista de ladrilhos
+     */
+    private List<Ladrilho> ladrilhosEm(Rectangle regiao) {
+        List<Ladrilho> achados = new ArrayList<>();
+        if (grade.length == 0 || regiao.isEmpty()) {
+            return achados;
+        }
+        int c0 = Math.max(0, Math.floorDiv(regiao.x, TAMANHO));
+        int l0 = Math.max(0, Math.floorDiv(regiao.y, TAMANHO));
+        int c1 = Math.min(grade[0].length - 1, Math.floorDiv(regiao.x + regiao.width - 1, TAMANHO));
+        int l1 = Math.min(grade.length - 1, Math.floorDiv(regiao.y + regiao.height - 1, TAMANHO));
+        for (int l = l0; l <= l1; l++) {
+            for (int c = c0; c <= c1; c++) {
+                achados.add(grade[l][c]);
+            }
+        }
+        return achados;
+    }
+
+    /**
+     * Retorna todos os ladrilhos da grade.
+     *
+     * @return lista de ladrilhos
+     */
+    private List<Ladrilho> todos() {
+        List<Ladrilho> achados = new ArrayList<>();
+        for (Ladrilho[] linha : grade) {
+            for (Ladrilho ladrilho : linha) {
+                achados.add(ladrilho);
+            }
+        }
+        return achados;
+    }
+
+    /**
+     * Um ladrilho da grade, com sua imagem e sua posicao na tela.
+     */
+    private class Ladrilho {
+        /** Canto superior esquerdo do ladrilho na tela */
+        final int x, y;
+
+        /** Imagem com as formas que cruzam o ladrilho */
+        final BufferedImage imagem = new BufferedImage(TAMANHO, TAMANHO, BufferedImage.TYPE_INT_ARGB);
+
+        /** Acesso direto aos pixels da imagem, em coordenadas da tela */
+        final RasterInt raster;
+
+        /** Indica se a imagem precisa ser redesenhada */
+        volatile boolean sujo = true;
+
+        Ladrilho(int x, int y) {
+            this.x = x;
+            this.y = y;
+            this.raster = new RasterInt(imagem, x, y);
+        }
+
+        /**
+         * Cria um contexto grafico sobre a imagem, em coordenadas da tela.
+         *
+         * @return contexto grafico recortado ao ladrilho
+         */
+        Graphics2D criarGraphics() {
+            Graphics2D g = imagem.createGraphics();
+            if (fonte != null) {
+                g.setFont(fonte);
+            }
+            g.translate(-x, -y);
+            g.clipRect(x, y, TAMANHO, TAMANHO);
+            return g;
+        }
+    }
+}
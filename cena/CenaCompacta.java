@@ -0,0 +1,691 @@
+package cena;
+
+import circulo.CirculoGr;
+import constantes.TipoPrimitivo;
+import forma.EscritorFiguras;
+import forma.Forma;
+import forma.LeitorFiguras;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Path2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.json.JSONObject;
+import ponto.Ponto;
+import ponto.PontoGr;
+import raster.RasterInt;
+import reta.RetaGr;
+import retangulo.RetanguloGraf;
+import triangulo.TrianguloGraf;
+
+/**
+ * Armazenamento compacto de uma cena com muitos primitivos, organizado em
+ * colunas de tipos primitivos (struct-of-arrays) em vez de um objeto por forma.
+ * <p>
+ * Cada forma ocupa uma posicao nas colunas comuns (tipo, indice, cor ARGB,
+ * espessura e estilo: modo de desenho e preenchimento) e suas coordenadas
+ * ficam no vetor de inteiros do seu tipo, com passo fixo: ponto (x, y), reta
+ * (x1, y1, x2, y2), circulo (cx, cy, raio), retangulo (x1, y1, x2, y2) e
+ * triangulo (x1, y1, x2, y2, x3, y3). Como na leitura do JSON por jsonCoisas,
+ * as coordenadas sao inteiras. O raio do circulo, que vem de uma raiz quadrada
+ * quando e desenhado com o mouse, fica truncado ali (para o desenho e os
+ * limites, como faz CirculoGr) e sem arredondar numa coluna de doubles, usada
+ * ao gravar e ao recriar o objeto grafico. As formas guardadas aqui nao tem nome.
+ * </p>
+ * <p>
+ * A gravacao e a leitura em JSON trabalham direto sobre as colunas, sem criar
+ * objetos de forma. {@link #desenhar(Graphics2D)} tambem, para as formas de
+ * estilo padrao; as de outro modo ou preenchidas sao desenhadas pela classe
+ * grafica. A exportacao em lote desenha a cena pelo {@link RenderizadorLotes}
+ * (veja {@link #desenhar(Graphics2D, RasterInt, RenderizadorLotes)}), criando
+ * objetos so para um trecho de formas por vez.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class CenaCompacta {
+
+    /** Codigos de tipo guardados na coluna de tipos */
+    public static final byte PONTO = 0, RETA = 1, CIRCULO = 2, RETANGULO = 3, TRIANGULO = 4;
+
+    /** Etiquetas de tipo usadas no JSON, indexadas pelo codigo */
+    private static final String[] ETIQUETAS = {"PONTO", "RETA", "CIRCULO", "RETANGULO", "TRIANGULO"};
+
+    /** Quantidade de coordenadas de cada tipo, indexada pelo codigo */
+    private static final int[] PASSO = {2, 4, 3, 4, 6};
+
+    /** Marca de forma preenchida na coluna de estilos; os bits restantes sao o modo */
+    private static final int PREENCHIDA = 0x40;
+
+    /** Formas criadas de uma vez ao desenhar pelo RenderizadorLotes */
+    private static final int TRECHO = 4096;
+
+    /** Nomes das coordenadas de cada tipo no JSON, indexados pelo codigo */
+    private static final String[][] CAMPOS = {
+        {"x", "y"},
+        {"x1", "y1", "x2", "y2"},
+        {"centroX", "centroY", "raio"},
+        {"x1", "y1", "x2", "y2"},
+        {"x1", "y1", "x2", "y2", "x3", "y3"}
+    };
+
+    /** Quantidade de formas na cena */
+    private int tamanho = 0;
+
+    /** Tipo de cada forma */
+    private byte[] tipos = new byte[16];
+
+    /** Posicao de cada forma dentro do vetor de coordenadas do seu tipo */
+    private int[] indices = new int[16];
+
+    /** Cor de cada forma, em ARGB */
+    private int[] cores = new int[16];
+
+    /**
+     * Estilo de cada forma: ordinal do modo de desenho mais 1 (0 para o
+     * modo padrao) e a marca PREENCHIDA
+     */
+    private byte[] estilos = new byte[16];
+
+    /** Espessura de cada forma (diametro, no caso do ponto) */
+    private int[] espessuras = new int[16];
+
+    /** Coordenadas de cada tipo, indexadas pelo codigo */
+    private final int[][] coords = new int[ETIQUETAS.length][16];
+
+    /** Raio de cada circulo sem arredondar, indexado como as coordenadas do circulo */
+    private double[] raios = new double[16];
+
+    /** Quantidade de formas de cada tipo */
+    private final int[] porTipo = new int[ETIQUETAS.length];
+
+    /**
+     * Retorna a quantidade de formas na cena.
+     *
+     * @return quantidade de formas
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Remove todas as formas da cena, mantendo os vetores alocados.
+     */
+    public void limpar() {
+        tamanho = 0;
+        Arrays.fill(porTipo, 0);
+    }
+
+    /**
+     * Remove a ultima forma da cena, como um desfazer.
+     *
+     * @return objeto grafico da forma removida, para poder acrescenta-la de novo
+     * @throws IllegalStateException se a cena estiver vazia
+     */
+    public Forma removerUltima() {
+        if (tamanho == 0) {
+            throw new IllegalStateException("A cena esta vazia");
+        }
+        Forma forma = criarForma(tamanho - 1);
+        tamanho--;
+        porTipo[tipos[tamanho]]--;
+        return forma;
+    }
+
+    /**
+     * Retorna o tipo de uma forma.
+     *
+     * @param i posicao da forma
+     * @return codigo do tipo (PONTO, RETA, CIRCULO, RETANGULO ou TRIANGULO)
+     */
+    public byte getTipo(int i) {
+        return tipos[i];
+    }
+
+    /**
+     * Retorna a cor de uma forma.
+     *
+     * @param i posicao da forma
+     * @return cor em ARGB
+     */
+    public int getCor(int i) {
+        return cores[i];
+    }
+
+    /**
+     * Retorna a espessura de uma forma.
+     *
+     * @param i posicao da forma
+     * @return espessura (diametro, no caso do ponto)
+     */
+    public int getEspessura(int i) {
+        return espessuras[i];
+    }
+
+    /**
+     * Retorna o modo de desenho de uma reta ou circulo.
+     *
+     * @param i posicao da forma
+     * @return modo de desenho, ou null se a forma usa o modo padrao
+     */
+    public TipoPrimitivo getModo(int i) {
+        int m = estilos[i] & ~PREENCHIDA;
+        return m == 0 ? null : TipoPrimitivo.values()[m - 1];
+    }
+
+    /**
+     * Indica se um circulo, retangulo ou triangulo e desenhado preenchido.
+     *
+     * @param i posicao da forma
+     * @return true se a forma e preenchida
+     */
+    public boolean isPreenchida(int i) {
+        return (estilos[i] & PREENCHIDA) != 0;
+    }
+
+    /**
+     * Define o modo de desenho e o preenchimento de uma forma ja acrescentada.
+     *
+     * @param i posicao da forma
+     * @param modo modo de desenho, ou null para o modo padrao
+     * @param preenchida true se a forma e preenchida
+     */
+    public void setEstilo(int i, TipoPrimitivo modo, boolean preenchida) {
+        estilos[i] = (byte) ((modo == null ? 0 : modo.ordinal() + 1) | (preenchida ? PREENCHIDA : 0));
+    }
+
+    /**
+     * Retorna uma coordenada de uma forma, na ordem descrita na classe.
+     *
+     * @param i posicao da forma
+     * @param k indice da coordenada
+     * @return valor da coordenada
+     */
+    public int getCoord(int i, int k) {
+        return coords[tipos[i]][indices[i] * PASSO[tipos[i]] + k];
+    }
+
+    /**
+     * Acrescenta um ponto.
+     *
+     * @param x coordenada x
+     * @param y coordenada y
+     * @param cor cor em ARGB
+     * @param diametro diametro do ponto
+     */
+    public void adicionarPonto(int x, int y, int cor, int diametro) {
+        int[] c = reservar(PONTO, cor, diametro);
+        int k = (porTipo[PONTO] - 1) * 2;
+        c[k] = x;
+        c[k + 1] = y;
+    }
+
+    /**
+     * Acrescenta uma reta.
+     *
+     * @param x1 coordenada x do primeiro extremo
+     * @param y1 coordenada y do primeiro extremo
+     * @param x2 coordenada x do segundo extremo
+     * @param y2 coordenada y do segundo extremo
+     * @param cor cor em ARGB
+     * @param esp espessura
+     */
+    public void adicionarReta(int x1, int y1, int x2, int y2, int cor, int esp) {
+        adicionarQuatro(RETA, x1, y1, x2, y2, cor, esp);
+    }
+
+    /**
+     * Acrescenta um circulo.
+     *
+     * @param cx coordenada x do centro
+     * @param cy coordenada y do centro
+     * @param raio raio
+     * @param cor cor em ARGB
+     * @param esp espessura
+     */
+    public void adicionarCirculo(int cx, int cy, int raio, int cor, int esp) {
+        int[] c = reservar(CIRCULO, cor, esp);
+        int k = (porTipo[CIRCULO] - 1) * 3;
+        c[k] = cx;
+        c[k + 1] = cy;
+        c[k + 2] = raio;
+        raios[porTipo[CIRCULO] - 1] = raio;
+    }
+
+    /**
+     * Acrescenta um retangulo dado por dois cantos opostos.
+     *
+     * @param x1 coordenada x do primeiro canto
+     * @param y1 coordenada y do primeiro canto
+     * @param x2 coordenada x do canto oposto
+     * @param y2 coordenada y do canto oposto
+     * @param cor cor em ARGB
+     * @param esp espessura
+     */
+    public void adicionarRetangulo(int x1, int y1, int x2, int y2, int cor, int esp) {
+        adicionarQuatro(RETANGULO, x1, y1, x2, y2, cor, esp);
+    }
+
+    /**
+     * Acrescenta um triangulo.
+     *
+     * @param x1 coordenada x do primeiro vertice
+     * @param y1 coordenada y do primeiro vertice
+     * @param x2 coordenada x do segundo vertice
+     * @param y2 coordenada y do segundo vertice
+     * @param x3 coordenada x do terceiro vertice
+     * @param y3 coordenada y do terceiro vertice
+     * @param cor cor em ARGB
+     * @param esp espessura
+     */
+    public void adicionarTriangulo(int x1, int y1, int x2, int y2, int x3, int y3, int cor, int esp) {
+        int[] c = reservar(TRIANGULO, cor, esp);
+        int k = (porTipo[TRIANGULO] - 1) * 6;
+        c[k] = x1;
+        c[k + 1] = y1;
+        c[k + 2] = x2;
+        c[k + 3] = y2;
+        c[k + 4] = x3;
+        c[k + 5] = y3;
+    }
+
+    /**
+     * Acrescenta uma forma a partir do seu objeto JSON (mesmo formato de
+     * {@link Forma#serializar()}). Tipos desconhecidos sao ignorados. O JSON
+     * nao guarda transparencia: a cor fica opaca.
+     *
+     * @param json objeto JSON da forma
+     */
+    public void adicionar(JSONObject json) {
+        JSONObject cor = json.getJSONObject("cor");
+        adicionar(json, 0xFF000000 | (cor.getInt("r") << 16) | (cor.getInt("g") << 8) | cor.getInt("b"));
+    }
+
+    /**
+     * Acrescenta uma forma grafica, copiando sua geometria, cor (com a
+     * transparencia) e estilo para as colunas.
+     *
+     * @param forma forma a ser copiada
+     */
+    public void adicionar(Forma forma) {
+        adicionar(forma.serializar(), forma.getCorTraco().getRGB());
+    }
+
+    /**
+     * Acrescenta uma forma do seu objeto JSON com a cor dada.
+     */
+    private void adicionar(JSONObject json, int argb) {
+        byte tipo = codigo(json.getString("tipo"));
+        if (tipo < 0) {
+            return;
+        }
+        int[] c = reservar(tipo, argb, json.getInt("espessura"));
+
+        String[] campos = CAMPOS[tipo];
+        int k = (porTipo[tipo] - 1) * campos.length;
+        for (int j = 0; j < campos.length; j++) {
+            c[k + j] = (int) json.getDouble(campos[j]);
+        }
+        if (tipo == CIRCULO) {
+            raios[porTipo[CIRCULO] - 1] = json.getDouble("raio");
+        }
+        String modo = json.optString("modo", null);
+        setEstilo(tamanho - 1, modo == null ? null : TipoPrimitivo.valueOf(modo),
+            json.optBoolean("preenchido", false));
+    }
+
+    /**
+     * Cria o objeto grafico equivalente a uma forma da cena, para edicao.
+     *
+     * @param i posicao da forma
+     * @return forma grafica com a mesma geometria, cor, espessura e estilo
+     */
+    public Forma criarForma(int i) {
+        int[] c = coords[tipos[i]];
+        int k = indices[i] * PASSO[tipos[i]];
+        Color cor = new Color(cores[i], true);
+        int esp = espessuras[i];
+        TipoPrimitivo modo = getModo(i);
+        boolean preenchida = isPreenchida(i);
+        switch (tipos[i]) {
+            case PONTO:
+                return new PontoGr(c[k], c[k + 1], cor, esp);
+            case RETA: {
+                RetaGr reta = new RetaGr(c[k], c[k + 1], c[k + 2], c[k + 3], cor, "", esp);
+                if (modo != null) {
+                    reta.setModo(modo);
+                }
+                return reta;
+            }
+            case CIRCULO: {
+                CirculoGr circulo = new CirculoGr(c[k], c[k + 1], c[k + 2], cor, "", esp);
+                circulo.setRaio(raios[indices[i]]);
+                if (modo != null) {
+                    circulo.setModo(modo);
+                }
+                circulo.setPreenchido(preenchida);
+                return circulo;
+            }
+            case RETANGULO: {
+                RetanguloGraf retangulo = new RetanguloGraf(new Ponto(c[k], c[k + 1]), new Ponto(c[k + 2], c[k + 3]), cor, esp);
+                retangulo.setPreenchido(preenchida);
+                return retangulo;
+            }
+            default: {
+                TrianguloGraf triangulo = new TrianguloGraf(new Ponto(c[k], c[k + 1]), new Ponto(c[k + 2], c[k + 3]),
+                    new Ponto(c[k + 4], c[k + 5]), cor, esp);
+                triangulo.setPreenchido(preenchida);
+                return triangulo;
+            }
+        }
+    }
+
+    /**
+     * Calcula o retangulo da tela ocupado por uma forma, com as mesmas
+     * margens usadas pelas classes graficas.
+     *
+     * @param i posicao da forma
+     * @return limites da forma na tela
+     */
+    public Rectangle calcularLimites(int i) {
+        int[] c = coords[tipos[i]];
+        int k = indices[i] * PASSO[tipos[i]];
+        int esp = espessuras[i];
+        switch (tipos[i]) {
+            case PONTO: {
+                int raio = esp / 2;
+                return new Rectangle(c[k] - raio - 1, c[k + 1] - raio - 1, esp + 3, esp + 3);
+            }
+            case CIRCULO: {
+                int m = c[k + 2] + esp + 1;
+                return new Rectangle(c[k] - m, c[k + 1] - m, 2 * m + 1, 2 * m + 1);
+            }
+            default: {
+                int xMin = c[k], xMax = c[k], yMin = c[k + 1], yMax = c[k + 1];
+                for (int j = 2; j < PASSO[tipos[i]]; j += 2) {
+                    xMin = Math.min(xMin, c[k + j]);
+                    xMax = Math.max(xMax, c[k + j]);
+                    yMin = Math.min(yMin, c[k + j + 1]);
+                    yMax = Math.max(yMax, c[k + j + 1]);
+                }
+                int m = (tipos[i] == TRIANGULO ? 5 * esp : esp) + 1;
+                return new Rectangle(xMin - m, yMin - m, xMax - xMin + 2 * m + 1, yMax - yMin + 2 * m + 1);
+            }
+        }
+    }
+
+    /**
+     * Desenha a cena na ordem de insercao. Formas fora da regiao de recorte sao
+     * descartadas sem desenho, e a cor e o traco so sao trocados quando mudam
+     * de uma forma para a seguinte. Formas de outro modo de desenho ou
+     * preenchidas sao desenhadas pela sua classe grafica, como na tela.
+     *
+     * @param g contexto grafico
+     */
+    public void desenhar(Graphics2D g) {
+        Rectangle clip = g.getClipBounds();
+        int cx0 = Integer.MIN_VALUE, cy0 = Integer.MIN_VALUE, cx1 = Integer.MAX_VALUE, cy1 = Integer.MAX_VALUE;
+        if (clip != null) {
+            cx0 = clip.x;
+            cy0 = clip.y;
+            cx1 = clip.x + clip.width;
+            cy1 = clip.y + clip.height;
+        }
+
+        // caminho reaproveitado pelos poligonos, igual ao de cena.Poligono
+        Path2D.Float caminho = new Path2D.Float(Path2D.WIND_EVEN_ODD, 5);
+        int corAtual = 0;
+        boolean comCor = false;
+        int espAtual = -1;
+        for (int i = 0; i < tamanho; i++) {
+            byte tipo = tipos[i];
+            int[] c = coords[tipo];
+            int k = indices[i] * PASSO[tipo];
+            int esp = espessuras[i];
+
+            // descarte pelo retangulo envolvente, sem criar objetos
+            int xMin, yMin, xMax, yMax, m;
+            if (tipo == PONTO) {
+                m = esp / 2 + 2;
+                xMin = xMax = c[k];
+                yMin = yMax = c[k + 1];
+            } else if (tipo == CIRCULO) {
+                m = c[k + 2] + esp + 1;
+                xMin = xMax = c[k];
+                yMin = yMax = c[k + 1];
+            } else {
+                // quinas agudas do triangulo avancam ate 5 espessuras (ver TrianguloGraf)
+                m = (tipo == TRIANGULO ? 5 * esp : esp) + 1;
+                xMin = xMax = c[k];
+                yMin = yMax = c[k + 1];
+                for (int j = 2; j < PASSO[tipo]; j += 2) {
+                    xMin = Math.min(xMin, c[k + j]);
+                    xMax = Math.max(xMax, c[k + j]);
+                    yMin = Math.min(yMin, c[k + j + 1]);
+                    yMax = Math.max(yMax, c[k + j + 1]);
+                }
+            }
+            if (xMax + m < cx0 || yMax + m < cy0 || xMin - m >= cx1 || yMin - m >= cy1) {
+                continue;
+            }
+
+            if (estilos[i] != 0) {
+                // algoritmos proprios de cada modo: a classe grafica define cor e traco
+                criarForma(i).desenhar(g);
+                comCor = false;
+                espAtual = -1;
+                continue;
+            }
+            if (!comCor || cores[i] != corAtual) {
+                comCor = true;
+                corAtual = cores[i];
+                g.setColor(new Color(corAtual, true));
+            }
+            if (tipo != PONTO && esp != espAtual) {
+                espAtual = esp;
+                g.setStroke(Tracos.obter(esp));
+            }
+
+            switch (tipo) {
+                case PONTO:
+                    g.fillOval(c[k] - esp / 2, c[k + 1] - esp / 2, esp, esp);
+                    break;
+                case RETA:
+                    g.drawLine(c[k], c[k + 1], c[k + 2], c[k + 3]);
+                    break;
+                case CIRCULO:
+                    g.drawOval(c[k] - c[k + 2], c[k + 1] - c[k + 2], 2 * c[k + 2], 2 * c[k + 2]);
+                    break;
+                case RETANGULO:
+                    caminho.reset();
+                    caminho.moveTo(c[k], c[k + 1]);
+                    caminho.lineTo(c[k], c[k + 3]);
+                    caminho.lineTo(c[k + 2], c[k + 3]);
+                    caminho.lineTo(c[k + 2], c[k + 1]);
+                    caminho.closePath();
+                    g.draw(caminho);
+                    break;
+                default:
+                    caminho.reset();
+                    caminho.moveTo(c[k], c[k + 1]);
+                    caminho.lineTo(c[k + 2], c[k + 3]);
+                    caminho.lineTo(c[k + 4], c[k + 5]);
+                    caminho.closePath();
+                    g.draw(caminho);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Desenha a cena pelo renderizador em lotes, com o mesmo resultado de
+     * desenhar a lista de formas equivalente: as formas sao criadas um
+     * trecho por vez e cada trecho e entregue ao renderizador, de modo que
+     * so um trecho de objetos existe ao mesmo tempo.
+     *
+     * @param g contexto grafico
+     * @param raster pixels da imagem de destino, ou null para usar so o Graphics2D
+     * @param renderizador renderizador usado no desenho
+     */
+    public void desenhar(Graphics2D g, RasterInt raster, RenderizadorLotes renderizador) {
+        List<Forma> trecho = new ArrayList<>(Math.min(TRECHO, tamanho));
+        for (int i = 0; i < tamanho; i++) {
+            trecho.add(criarForma(i));
+            if (trecho.size() == TRECHO) {
+                renderizador.desenhar(g, raster, trecho);
+                trecho.clear();
+            }
+        }
+        if (!trecho.isEmpty()) {
+            renderizador.desenhar(g, raster, trecho);
+        }
+    }
+
+    /**
+     * Salva a cena no mesmo formato JSON usado pelo PainelDesenho (lista "figuras"),
+     * gravando forma a forma.
+     *
+     * @param arquivo arquivo onde sera salvo o JSON
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    public void salvar(File arquivo) throws IOException {
+        try (EscritorFiguras escritor = new EscritorFiguras(arquivo)) {
+            for (int i = 0; i < tamanho; i++) {
+                byte tipo = tipos[i];
+                int[] c = coords[tipo];
+                int k = indices[i] * PASSO[tipo];
+
+                JSONObject json = new JSONObject();
+                json.put("tipo", ETIQUETAS[tipo]);
+                String[] campos = CAMPOS[tipo];
+                for (int j = 0; j < campos.length; j++) {
+                    json.put(campos[j], (double) c[k + j]);
+                }
+                if (tipo == CIRCULO) {
+                    json.put("raio", raios[indices[i]]);
+                }
+                json.put("cor", Forma.corParaJson(new Color(cores[i], true)));
+                json.put("espessura", espessuras[i]);
+                TipoPrimitivo modo = getModo(i);
+                if (modo != null) {
+                    json.put("modo", modo.name());
+                }
+                if (isPreenchida(i)) {
+                    json.put("preenchido", true);
+                }
+                escritor.escrever(json);
+            }
+        }
+    }
+
+    /**
+     * Carrega uma cena salva em JSON (lista "figuras"), direto para as colunas,
+     * lendo uma forma por vez.
+     *
+     * @param arquivo arquivo JSON a ser carregado
+     * @return cena carregada
+     * @throws IOException se houver erro ao ler o arquivo
+     */
+    public static CenaCompacta carregar(File arquivo) throws IOException {
+        CenaCompacta cena = new CenaCompacta();
+        try (LeitorFiguras leitor = new LeitorFiguras(arquivo)) {
+            JSONObject json;
+            while ((json = leitor.proximo()) != null) {
+                cena.adicionar(json);
+            }
+        }
+        return cena;
+    }
+
+    /**
+     * Estima os bytes ocupados pelos vetores da cena (sem o cabecalho do objeto).
+     *
+     * @return bytes alocados nas colunas
+     */
+    public long bytesAlocados() {
+        long total = tipos.length + estilos.length + 4L * (indices.length + cores.length + espessuras.length);
+        for (int[] c : coords) {
+            total += 4L * c.length;
+        }
+        return total + 8L * raios.length;
+    }
+
+    /**
+     * Garante espaco nas colunas comuns para uma quantidade de formas.
+     *
+     * @param capacidade quantidade minima de formas
+     */
+    public void garantirCapacidade(int capacidade) {
+        if (capacidade > tipos.length) {
+            int nova = Math.max(capacidade, tipos.length + (tipos.length >> 1));
+            tipos = Arrays.copyOf(tipos, nova);
+            indices = Arrays.copyOf(indices, nova);
+            cores = Arrays.copyOf(cores, nova);
+            espessuras = Arrays.copyOf(espessuras, nova);
+            estilos = Arrays.copyOf(estilos, nova);
+        }
+    }
+
+    /**
+     * Reserva uma posicao para uma nova forma e espaco para suas coordenadas.
+     *
+     * @param tipo codigo do tipo
+     * @param cor cor em ARGB
+     * @param esp espessura
+     * @return vetor de coordenadas do tipo, ja com espaco para a nova forma
+     */
+    private int[] reservar(byte tipo, int cor, int esp) {
+        garantirCapacidade(tamanho + 1);
+        tipos[tamanho] = tipo;
+        indices[tamanho] = porTipo[tipo];
+        cores[tamanho] = cor;
+        espessuras[tamanho] = esp;
+        estilos[tamanho] = 0;
+        tamanho++;
+
+        int necessario = (porTipo[tipo] + 1) * PASSO[tipo];
+        if (necessario > coords[tipo].length) {
+            coords[tipo] = Arrays.copyOf(coords[tipo], Math.max(necessario, coords[tipo].length + (coords[tipo].length >> 1)));
+        }
+        if (tipo == CIRCULO && porTipo[CIRCULO] == raios.length) {
+            raios = Arrays.copyOf(raios, raios.length + (raios.length >> 1));
+        }
+        porTipo[tipo]++;
+        return coords[tipo];
+    }
+
+    /**
+     * Acrescenta uma forma de quatro coordenadas (reta ou retangulo).
+     */
+    private void adicionarQuatro(byte tipo, int x1, int y1, int x2, int y2, int cor, int esp) {
+        int[] c = reservar(tipo, cor, esp);
+        int k = (porTipo[tipo] - 1) * 4;
+        c[k] = x1;
+        c[k + 1] = y1;
+        c[k + 2] = x2;
+        c[k + 3] = y2;
+    }
+
+    /**
+     * Converte a etiqueta de tipo do JSON para o codigo interno.
+     *
+     * @param etiqueta etiqueta do tipo
+     * @return codigo do tipo, ou -1 se desconhecido
+     */
+    private static byte codigo(String etiqueta) {
+        for (byte t = 0; t < ETIQUETAS.length; t++) {
+            if (ETIQUETAS[t].equals(etiqueta)) {
+                return t;
+            }
+        }
+        return -1;
+    }
+}
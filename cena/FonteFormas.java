@@ -0,0 +1,28 @@
+package cena;
+
+import forma.Forma;
+import java.awt.Rectangle;
+import java.util.List;
+
+/**
+ * Origem de formas consultada por regiao, como o {@link IndiceEspacial} ou
+ * um desenho lido aos poucos de um arquivo. Permite que o cache de
+ * ladrilhos desenhe formas que nao estao todas na memoria.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public interface FonteFormas {
+
+    /**
+     * Retorna as formas que cruzam uma regiao, na ordem de desenho.
+     * Pode ser chamado por varias threads ao mesmo tempo.
+     *
+     * @param regiao regiao da tela
+     * @return formas que cruzam a regiao
+     */
+    List<Forma> consultar(Rectangle regiao);
+}
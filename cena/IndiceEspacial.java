@@ -0,0 +1,224 @@
+package cena;
+
+import forma.Forma;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indice espacial (quadtree) sobre as formas de uma cena.
+ * Cada forma e guardada no no mais profundo cujo quadrante contem seus limites,
+ * de modo que uma consulta por regiao visita apenas os quadrantes que a
+ * interceptam. Formas fora da area coberta pela raiz ficam na propria raiz.
+ * As consultas devolvem as formas na ordem em que foram inseridas, que e a
+ * ordem de desenho.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class IndiceEspacial implements FonteFormas {
+
+    /** Quantidade de formas em uma folha antes de dividi-la em quadrantes */
+    private static final int MAX_POR_NO = 8;
+
+    /** Profundidade maxima da arvore */
+    private static final int PROFUNDIDADE_MAX = 14;
+
+    /** Metade do lado do quadrado coberto pela raiz, centrado na origem */
+    private static final int MEIA_EXTENSAO = 1 << 16;
+
+    /** No raiz da arvore */
+    private No raiz;
+
+    /** Entrada de cada forma indexada, para remocao direta */
+    private final Map<Forma, Entrada> entradas = new IdentityHashMap<>();
+
+    /** Ordem atribuida a proxima forma inserida */
+    private long proximaOrdem = 0;
+
+    /**
+     * Construtor do indice vazio.
+     */
+    public IndiceEspacial() {
+        limpar();
+    }
+
+    /**
+     * Insere uma forma no indice. A forma passa a ser a ultima na ordem de desenho.
+     *
+     * @param forma forma a ser indexada
+     */
+    public void inserir(Forma forma) {
+        Entrada entrada = new Entrada(forma, forma.calcularLimites(), proximaOrdem++);
+        entradas.put(forma, entrada);
+        raiz.inserir(entrada);
+    }
+
+    /**
+     * Remove uma forma do indice.
+     *
+     * @param forma forma a ser removida
+     * @return limites da forma removida, ou null se ela nao estava indexada
+     */
+    public Rectangle remover(Forma forma) {
+        Entrada entrada = entradas.remove(forma);
+        if (entrada == null) {
+            return null;
+        }
+        entrada.no.itens.remove(entrada);
+        return entrada.limites;
+    }
+
+    /**
+     * Remove todas as formas do indice.
+     */
+    public void limpar() {
+        raiz = new No(-MEIA_EXTENSAO, -MEIA_EXTENSAO, 2 * MEIA_EXTENSAO, 0);
+        entradas.clear();
+        proximaOrdem = 0;
+    }
+
+    /**
+     * Retorna a quantidade de formas indexadas.
+     *
+     * @return quantidade de formas
+     */
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    /**
+     * Retorna as formas cujos limites interceptam a regiao, na ordem de insercao.
+     *
+     * @param regiao regiao da tela consultada
+     * @return lista de formas visiveis na regiao
+     */
+    public List<Forma> consultar(Rectangle regiao) {
+        List<Entrada> achadas = new ArrayList<>();
+        raiz.consultar(regiao, achadas);
+        achadas.sort(Comparator.comparingLong(e -> e.ordem));
+
+        List<Forma> formas = new ArrayList<>(achadas.size());
+        for (Entrada e : achadas) {
+            formas.add(e.forma);
+        }
+        return formas;
+    }
+
+    /**
+     * Forma indexada junto com seus limites e sua ordem de desenho.
+     */
+    private static class Entrada {
+        /** Forma indexada */
+        final Forma forma;
+
+        /** Limites da forma na tela */
+        final Rectangle limites;
+
+        /** Ordem de insercao (ordem de desenho) */
+        final long ordem;
+
+        /** No onde a entrada esta guardada */
+        No no;
+
+        Entrada(Forma forma, Rectangle limites, long ordem) {
+            this.forma = forma;
+            this.limites = limites;
+            this.ordem = ordem;
+        }
+    }
+
+    /**
+     * No da quadtree, cobrindo um quadrado da tela.
+     */
+    private static class No {
+        /** Quadrado coberto pelo no */
+        final int x, y, lado;
+
+        /** Profundidade do no na arvore */
+        final int profundidade;
+
+        /** Entradas guardadas neste no */
+        final List<Entrada> itens = new ArrayList<>();
+
+        /** Quadrantes filhos (null enquanto o no for folha) */
+        No[] filhos;
+
+        No(int x, int y, int lado, int profundidade) {
+            this.x = x;
+            this.y = y;
+            this.lado = lado;
+            this.profundidade = profundidade;
+        }
+
+        void inserir(Entrada e) {
+            if (filhos != null) {
+                No filho = filhoQueContem(e.limites);
+                if (filho != null) {
+                    filho.inserir(e);
+                    return;
+                }
+            }
+            itens.add(e);
+            e.no = this;
+
+            if (filhos == null && itens.size() > MAX_POR_NO && profundidade < PROFUNDIDADE_MAX) {
+                dividir();
+            }
+        }
+
+        void dividir() {
+            int meio = lado / 2;
+            filhos = new No[] {
+                new No(x, y, meio, profundidade + 1),
+                new No(x + meio, y, meio, profundidade + 1),
+                new No(x, y + meio, meio, profundidade + 1),
+                new No(x + meio, y + meio, meio, profundidade + 1)
+            };
+
+            // redistribui as entradas que cabem inteiras em algum quadrante
+            List<Entrada> antigos = new ArrayList<>(itens);
+            itens.clear();
+            for (Entrada e : antigos) {
+                No filho = filhoQueContem(e.limites);
+                if (filho != null) {
+                    filho.inserir(e);
+                } else {
+                    itens.add(e);
+                }
+            }
+        }
+
+        No filhoQueContem(Rectangle r) {
+            for (No filho : filhos) {
+                if (r.x >= filho.x && r.y >= filho.y
+                    && (long) r.x + r.width <= (long) filho.x + filho.lado
+                    && (long) r.y + r.height <= (long) filho.y + filho.lado) {
+                    return filho;
+                }
+            }
+            return null;
+        }
+
+        void consultar(Rectangle regiao, List<Entrada> achadas) {
+            for (Entrada e : itens) {
+                if (e.limites.intersects(regiao)) {
+                    achadas.add(e);
+                }
+            }
+            if (filhos != null) {
+                for (No filho : filhos) {
+                    if (regiao.intersects(filho.x, filho.y, filho.lado, filho.lado)) {
+                        filho.consultar(regiao, achadas);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package cena;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Path2D;
+import raster.DestinoSpans;
+import raster.Preenchimento;
+
+/**
+ * Poligono fechado imutavel, desenhado com uma unica chamada ao Graphics2D.
+ * Guarda os vertices inteiros (para comparar com a geometria atual da forma)
+ * e o caminho ja montado, de modo que desenhar o mesmo poligono varias vezes
+ * nao aloca nada nas classes de forma. Como nao e alterado depois de criado,
+ * pode ser desenhado por varias threads ao mesmo tempo.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class Poligono {
+
+    /** Coordenadas x dos vertices */
+    private final int[] xs;
+
+    /** Coordenadas y dos vertices */
+    private final int[] ys;
+
+    /** Caminho fechado pelos vertices */
+    private final Path2D.Float caminho;
+
+    /**
+     * Construtor do poligono. Os vetores passam a pertencer ao poligono e nao
+     * devem ser alterados por quem chamou.
+     *
+     * @param xs coordenadas x dos vertices
+     * @param ys coordenadas y dos vertices
+     */
+    public Poligono(int[] xs, int[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        caminho = new Path2D.Float(Path2D.WIND_EVEN_ODD, xs.length + 1);
+        caminho.moveTo(xs[0], ys[0]);
+        for (int i = 1; i < xs.length; i++) {
+            caminho.lineTo(xs[i], ys[i]);
+        }
+        caminho.closePath();
+    }
+
+    /**
+     * Retorna a coordenada x de um vertice.
+     *
+     * @param i indice do vertice
+     * @return coordenada x
+     */
+    public int x(int i) {
+        return xs[i];
+    }
+
+    /**
+     * Retorna a coordenada y de um vertice.
+     *
+     * @param i indice do vertice
+     * @return coordenada y
+     */
+    public int y(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Desenha o contorno do poligono como um unico traco, com os cantos unidos,
+     * usando a cor e o traco ja definidos no contexto grafico.
+     *
+     * @param g contexto grafico
+     */
+    public void tracar(Graphics2D g) {
+        g.draw(caminho);
+    }
+
+    /**
+     * Preenche o interior do poligono pela regra do canto superior esquerdo,
+     * sem pintar duas vezes as arestas compartilhadas com poligonos vizinhos.
+     *
+     * @param d destino dos trechos (raster ou Graphics2D)
+     * @param argb cor
+     */
+    public void preencher(DestinoSpans d, int argb) {
+        Preenchimento.poligono(d, xs, ys, xs.length, argb);
+    }
+}
@@ -0,0 +1,317 @@
+package cena;
+
+import forma.Forma;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import raster.RasterInt;
+
+/**
+ * Desenha formas agrupadas em lotes de mesmo estilo (cor e espessura).
+ * O estado do Graphics2D (setColor/setStroke) e definido uma unica vez por
+ * lote, com tracos compartilhados de {@link Tracos}.
+ * <p>
+ * Uma forma so e antecipada para um lote anterior de mesmo estilo se nenhum
+ * lote entre eles cruzar a forma; assim, onde formas se sobrepoem, a ordem de
+ * desenho continua a mesma da lista original.
+ * </p>
+ * <p>
+ * Nivel de detalhe: com a cena reduzida (por exemplo, exportada em escala
+ * menor que 1), formas cujos limites projetados ficam abaixo de um limiar,
+ * em pixels do dispositivo, sao desenhadas como um unico pixel na cor do
+ * traco, ou nem sao desenhadas quando ficam abaixo de um limiar menor.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class RenderizadorLotes {
+
+    /** Quantidade maxima de lotes examinados para tras ao agrupar uma forma */
+    private static final int MAX_BUSCA = 64;
+
+    /** Marca, em Lote.pixels, das formas desenhadas por inteiro */
+    private static final int SEM_PIXEL = Integer.MIN_VALUE;
+
+    /** Trocas de estado do Graphics2D desde o ultimo zerarContador() */
+    private final AtomicInteger trocasEstado = new AtomicInteger();
+
+    /** Formas desenhadas como um pixel desde o ultimo zerarContador() */
+    private final AtomicInteger simplificadas = new AtomicInteger();
+
+    /** Formas nao desenhadas, por serem pequenas demais, desde o ultimo zerarContador() */
+    private final AtomicInteger descartadas = new AtomicInteger();
+
+    /** Tamanho projetado, em pixels, abaixo do qual a forma vira um pixel */
+    private volatile double limiarSimplificar = 2;
+
+    /** Tamanho projetado, em pixels, abaixo do qual a forma nao e desenhada */
+    private volatile double limiarDescartar = 0.5;
+
+    /**
+     * Desenha as formas, na ordem dada, agrupadas por estilo.
+     *
+     * @param g contexto grafico
+     * @param formas formas na ordem de desenho
+     */
+    public void desenhar(Graphics2D g, List<Forma> formas) {
+        desenhar(g, null, formas);
+    }
+
+    /**
+     * Desenha as formas, na ordem dada, agrupadas por estilo. Formas que sabem
+     * se rasterizar escrevem direto no raster, que deve ser o da mesma imagem
+     * do contexto grafico; as demais usam o Graphics2D.
+     * <p>
+     * Quando o contexto so tem translacao (como nos ladrilhos), o raster esta
+     * nas coordenadas da cena. Com escala, as formas sao todas desenhadas
+     * pelo Graphics2D, e o raster, nas coordenadas do dispositivo, recebe
+     * apenas os pixels das formas simplificadas pelo nivel de detalhe.
+     * </p>
+     *
+     * @param g contexto grafico
+     * @param raster pixels da imagem de destino, ou null para usar so o Graphics2D
+     * @param formas formas na ordem de desenho
+     */
+    public void desenhar(Graphics2D g, RasterInt raster, List<Forma> formas) {
+        Color corAtual = null;
+        int espAtual = -1;
+        int trocas = 0;
+        AffineTransform cena = g.getTransform();
+        double escala = escala(cena);
+        // lado, em coordenadas da cena, de um pixel do dispositivo
+        int lado = Math.max(1, (int) Math.ceil(1 / escala));
+        boolean soTranslacao = (cena.getType() & ~AffineTransform.TYPE_TRANSLATION) == 0;
+        RasterInt rasterCena = soTranslacao ? raster : null;
+
+        for (Lote lote : agrupar(formas, escala, lado)) {
+            for (int i = 0; i < lote.itens.size(); i++) {
+                Forma forma = lote.itens.get(i);
+                boolean pixel = lote.pixels[2*i] != SEM_PIXEL;
+                if (pixel && raster != null) {
+                    // pixel de forma simplificada escrito direto, sem o estilo do contexto
+                    desenharPixel(raster, soTranslacao, cena, lote.pixels[2*i], lote.pixels[2*i + 1], lote.cor);
+                    continue;
+                }
+
+                // o estilo do lote e (re)definido so quando alguma forma vai usa-lo
+                if (!lote.cor.equals(corAtual)) {
+                    g.setColor(lote.cor);
+                    corAtual = lote.cor;
+                    trocas++;
+                }
+                if (lote.esp > 0 && lote.esp != espAtual) {
+                    g.setStroke(Tracos.obter(lote.esp));
+                    espAtual = lote.esp;
+                    trocas++;
+                }
+
+                if (pixel) {
+                    // sem raster: quadrado do tamanho de um pixel do dispositivo
+                    int x = lote.pixels[2*i], y = lote.pixels[2*i + 1];
+                    g.fillRect(x - lado / 2, y - lado / 2, lado, lado);
+                    continue;
+                }
+                if (rasterCena != null && forma.rasterizar(rasterCena)) {
+                    continue;
+                }
+                if (forma.tracar(g)) {
+                    // a forma mexeu no contexto: a proxima redefine o estilo
+                    corAtual = null;
+                    espAtual = -1;
+                }
+            }
+        }
+        trocasEstado.addAndGet(trocas);
+    }
+
+    /**
+     * Escreve no raster o pixel de uma forma simplificada, centrado em (x, y)
+     * da cena. Um fillRect com escala passaria pelo rasterizador de formas do
+     * Java2D, bem mais caro que um pixel.
+     */
+    private static void desenharPixel(RasterInt raster, boolean soTranslacao, AffineTransform cena,
+                                      int x, int y, Color cor) {
+        int argb = cor.getRGB();
+        if (soTranslacao) {
+            raster.misturar(x, y, argb, 255);
+        } else {
+            raster.misturar(
+                (int) Math.floor(cena.getScaleX() * x + cena.getShearX() * y + cena.getTranslateX()),
+                (int) Math.floor(cena.getShearY() * x + cena.getScaleY() * y + cena.getTranslateY()),
+                argb, 255);
+        }
+    }
+
+    /**
+     * Calcula o maior fator de ampliacao de uma transformacao (o comprimento
+     * do maior eixo transformado).
+     */
+    private static double escala(AffineTransform t) {
+        double ex = Math.hypot(t.getScaleX(), t.getShearY());
+        double ey = Math.hypot(t.getShearX(), t.getScaleY());
+        return Math.max(ex, ey);
+    }
+
+    /**
+     * Define os limiares do nivel de detalhe, medidos no maior lado dos
+     * limites projetados da forma (que ja incluem a margem da espessura).
+     * Limiares 0 desligam a simplificacao.
+     *
+     * @param descartar tamanho, em pixels, abaixo do qual a forma nao e desenhada
+     * @param simplificar tamanho, em pixels, abaixo do qual a forma vira um pixel
+     */
+    public void setLimiaresDetalhe(double descartar, double simplificar) {
+        this.limiarDescartar = descartar;
+        this.limiarSimplificar = simplificar;
+    }
+
+    /**
+     * Retorna quantas formas foram desenhadas como um pixel desde o ultimo
+     * zerarContador().
+     *
+     * @return formas simplificadas
+     */
+    public int getSimplificadas() {
+        return simplificadas.get();
+    }
+
+    /**
+     * Retorna quantas formas deixaram de ser desenhadas, por serem pequenas
+     * demais, desde o ultimo zerarContador().
+     *
+     * @return formas descartadas
+     */
+    public int getDescartadas() {
+        return descartadas.get();
+    }
+
+    /**
+     * Retorna a quantidade de trocas de estado desde o ultimo zerarContador().
+     *
+     * @return quantidade de chamadas a setColor/setStroke
+     */
+    public int getTrocasEstado() {
+        return trocasEstado.get();
+    }
+
+    /**
+     * Zera os contadores de trocas de estado e de nivel de detalhe (chamado a
+     * cada quadro).
+     */
+    public void zerarContador() {
+        trocasEstado.set(0);
+        simplificadas.set(0);
+        descartadas.set(0);
+    }
+
+    /**
+     * Agrupa as formas em lotes de mesmo estilo preservando a ordem onde ha sobreposicao.
+     *
+     * Aplica tambem o nivel de detalhe: formas pequenas demais ficam de fora,
+     * e as que viram um pixel entram num lote so de cor (sem traco), com os
+     * limites do proprio pixel.
+     *
+     * @param formas formas na ordem de desenho
+     * @param escala ampliacao da cena no dispositivo
+     * @param lado lado, em coordenadas da cena, de um pixel do dispositivo
+     * @return lotes na ordem em que devem ser desenhados
+     */
+    private List<Lote> agrupar(List<Forma> formas, double escala, int lado) {
+        double simplificar = limiarSimplificar, descartar = limiarDescartar;
+        int nSimplificadas = 0, nDescartadas = 0;
+        List<Lote> lotes = new ArrayList<>();
+        for (Forma forma : formas) {
+            Color cor = forma.getCorTraco();
+            int esp = forma.getEspessuraTraco();
+            Rectangle limites = forma.calcularLimites();
+            double tamanho = Math.max(limites.width, limites.height) * escala;
+            int px = SEM_PIXEL, py = 0;
+            if (tamanho < descartar) {
+                nDescartadas++;
+                continue;
+            }
+            if (tamanho < simplificar) {
+                px = limites.x + limites.width / 2;
+                py = limites.y + limites.height / 2;
+                limites.setBounds(px - lado / 2, py - lado / 2, lado, lado);
+                esp = 0;
+                nSimplificadas++;
+            }
+
+            // procura, do fim para o inicio, um lote de mesmo estilo antes de
+            // esbarrar num lote de outro estilo que cruze a forma; um pixel
+            // so se junta ao ultimo lote, sem gastar a busca
+            Lote destino = null;
+            int fim = Math.max(0, lotes.size() - (px == SEM_PIXEL ? MAX_BUSCA : 1));
+            for (int i = lotes.size() - 1; i >= fim; i--) {
+                Lote lote = lotes.get(i);
+                if (lote.esp == esp && lote.cor.equals(cor)) {
+                    destino = lote;
+                    break;
+                }
+                if (lote.uniao.intersects(limites)) {
+                    break;
+                }
+            }
+
+            if (destino == null) {
+                destino = new Lote(cor, esp, limites);
+                lotes.add(destino);
+            } else {
+                destino.uniao.add(limites);
+            }
+            destino.adicionar(forma, px, py);
+        }
+        simplificadas.addAndGet(nSimplificadas);
+        descartadas.addAndGet(nDescartadas);
+        return lotes;
+    }
+
+    /**
+     * Grupo de formas com o mesmo estilo.
+     */
+    private static class Lote {
+        /** Cor do lote */
+        final Color cor;
+
+        /** Espessura do lote */
+        final int esp;
+
+        /** Uniao dos limites das formas do lote */
+        final Rectangle uniao;
+
+        /** Formas do lote, na ordem de desenho */
+        final List<Forma> itens = new ArrayList<>();
+
+        /**
+         * Centro (x, y), na cena, de cada forma simplificada, na ordem de
+         * itens; SEM_PIXEL no x das formas desenhadas por inteiro
+         */
+        int[] pixels = new int[8];
+
+        Lote(Color cor, int esp, Rectangle limites) {
+            this.cor = cor;
+            this.esp = esp;
+            this.uniao = new Rectangle(limites);
+        }
+
+        void adicionar(Forma forma, int px, int py) {
+            int i = 2 * itens.size();
+            if (i == pixels.length) {
+                pixels = Arrays.copyOf(pixels, 2 * pixels.length);
+            }
+            pixels[i] = px;
+            pixels[i + 1] = py;
+            itens.add(forma);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cena;
+
+import forma.Forma;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import ponto.Ponto;
+import retangulo.RetanguloGraf;
+import triangulo.TrianguloGraf;
+
+/**
+ * Mede quantos bytes sao alocados por quadro ao desenhar uma cena estatica
+ * de retangulos e triangulos. Depois do aquecimento, as formas nao alocam
+ * nada: com traco de espessura 1 o quadro inteiro fica em 0 bytes; com tracos
+ * largos sobram apenas os objetos que o Java2D cria a cada draw para tracejar
+ * o caminho.
+ * Uso: java cena.TestaAlocacao [quantidade de formas] [quadros]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaAlocacao {
+    public static void main(String args[]) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int quadros = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("formas: " + n + ", quadros: " + quadros);
+        System.out.println("espessura 1, bytes por quadro: " + medir(gerarCena(n, 1), quadros));
+        System.out.println("espessuras 1 a 5, bytes por quadro: " + medir(gerarCena(n, 5), quadros));
+        System.out.println("(tracos largos: objetos criados pelo proprio Java2D a cada draw)");
+    }
+
+    /**
+     * Gera uma cena de retangulos e triangulos alternados.
+     */
+    private static List<Forma> gerarCena(int n, int espMax) {
+        Random r = new Random(7);
+        Color[] cores = {Color.RED, Color.BLUE, Color.GREEN, Color.BLACK};
+        List<Forma> formas = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int x = r.nextInt(800), y = r.nextInt(600);
+            Color cor = cores[r.nextInt(cores.length)];
+            int esp = 1 + r.nextInt(espMax);
+            if (i % 2 == 0) {
+                formas.add(new RetanguloGraf(new Ponto(x, y), new Ponto(x + r.nextInt(80), y + r.nextInt(80)), cor, esp));
+            } else {
+                formas.add(new TrianguloGraf(new Ponto(x, y), new Ponto(x + r.nextInt(80), y),
+                    new Ponto(x + r.nextInt(80), y + r.nextInt(80)), cor, esp));
+            }
+        }
+        return formas;
+    }
+
+    /**
+     * Desenha a cena varias vezes e retorna os bytes alocados por quadro,
+     * medidos na thread de desenho depois do aquecimento.
+     */
+    private static long medir(List<Forma> formas, int quadros) {
+        BufferedImage img = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+
+        // aquecimento: caches de tracos, contornos e do pipeline do Java2D
+        for (int q = 0; q < quadros; q++) {
+            desenharQuadro(g, formas);
+        }
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long antes = mx.getThreadAllocatedBytes(id);
+        for (int q = 0; q < quadros; q++) {
+            desenharQuadro(g, formas);
+        }
+        long bytes = mx.getThreadAllocatedBytes(id) - antes;
+        g.dispose();
+        return bytes / quadros;
+    }
+
+    /**
+     * Desenha um quadro da cena.
+     */
+    private static void desenharQuadro(Graphics2D g, List<Forma> formas) {
+        for (int i = 0; i < formas.size(); i++) {
+            formas.get(i).desenhar(g);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package cena;
+
+import forma.Forma;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara a memoria ocupada e o tempo de desenho de uma cena guardada como
+ * lista de objetos de forma com a mesma cena guardada em {@link CenaCompacta}.
+ * Uso: java cena.TestaCenaCompacta [quantidade de formas]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaCenaCompacta {
+    public static void main(String args[]) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int larg = 1920, alt = 1080;
+        Random r = new Random(42);
+
+        // gera a cena como objetos e copia para a cena compacta
+        long antes = memoriaUsada();
+        List<Forma> formas = new ArrayList<>(n);
+        CenaCompacta gerador = new CenaCompacta();
+        gerador.garantirCapacidade(n);
+        for (int i = 0; i < n; i++) {
+            int x = r.nextInt(larg), y = r.nextInt(alt);
+            int cor = r.nextInt(0x1000000), esp = 1 + r.nextInt(4);
+            switch (i % 5) {
+                case 0: gerador.adicionarPonto(x, y, cor, esp + 2); break;
+                case 1: gerador.adicionarReta(x, y, x + r.nextInt(60) - 30, y + r.nextInt(60) - 30, cor, esp); break;
+                case 2: gerador.adicionarCirculo(x, y, 1 + r.nextInt(20), cor, esp); break;
+                case 3: gerador.adicionarRetangulo(x, y, x + r.nextInt(40), y + r.nextInt(40), cor, esp); break;
+                default: gerador.adicionarTriangulo(x, y, x + r.nextInt(40), y, x, y + r.nextInt(40), cor, esp); break;
+            }
+            formas.add(gerador.criarForma(i));
+        }
+        gerador = null;
+        long comObjetos = memoriaUsada() - antes;
+
+        antes = memoriaUsada();
+        CenaCompacta cena = new CenaCompacta();
+        for (Forma f : formas) {
+            cena.adicionar(f);
+        }
+        long compacta = memoriaUsada() - antes;
+
+        System.out.println("formas: " + n);
+        System.out.printf("heap List<Forma>:   %8.1f MB%n", comObjetos / 1e6);
+        System.out.printf("heap CenaCompacta:  %8.1f MB (colunas: %.1f MB)%n", compacta / 1e6, cena.bytesAlocados() / 1e6);
+
+        BufferedImage imgLista = new BufferedImage(larg, alt, BufferedImage.TYPE_INT_RGB);
+        BufferedImage imgCena = new BufferedImage(larg, alt, BufferedImage.TYPE_INT_RGB);
+        for (int rodada = 0; rodada < 3; rodada++) {
+            Graphics2D g = imgLista.createGraphics();
+            long t0 = System.nanoTime();
+            for (Forma f : formas) {
+                f.desenhar(g);
+            }
+            long t1 = System.nanoTime();
+            g.dispose();
+
+            g = imgCena.createGraphics();
+            long t2 = System.nanoTime();
+            cena.desenhar(g);
+            long t3 = System.nanoTime();
+            g.dispose();
+
+            System.out.printf("rodada %d: desenho List<Forma> %.1f ms, CenaCompacta %.1f ms%n",
+                rodada, (t1 - t0) / 1e6, (t3 - t2) / 1e6);
+        }
+
+        int diferentes = 0;
+        for (int y = 0; y < alt; y++) {
+            for (int x = 0; x < larg; x++) {
+                if (imgLista.getRGB(x, y) != imgCena.getRGB(x, y)) {
+                    diferentes++;
+                }
+            }
+        }
+        System.out.println("pixels diferentes: " + diferentes);
+    }
+
+    /**
+     * Retorna a memoria ocupada no heap depois de forcar a coleta de lixo.
+     */
+    private static long memoriaUsada() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,44 @@
+package cena;
+
+import java.awt.BasicStroke;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache de tracos (BasicStroke) compartilhados por espessura.
+ * BasicStroke e imutavel, entao um unico objeto por espessura pode ser
+ * reutilizado por todas as formas e por todas as threads de desenho, em vez
+ * de alocar um novo traco a cada forma desenhada.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class Tracos {
+
+    /** Tracos das espessuras mais usadas (as do slider da interface) */
+    private static final BasicStroke[] COMUNS = new BasicStroke[64];
+
+    /** Tracos das demais espessuras, criados sob demanda */
+    private static final ConcurrentHashMap<Integer, BasicStroke> OUTROS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < COMUNS.length; i++) {
+            COMUNS[i] = new BasicStroke((float) i);
+        }
+    }
+
+    /**
+     * Retorna o traco compartilhado de uma espessura.
+     *
+     * @param espessura espessura do traco em pixels
+     * @return traco com a espessura pedida
+     */
+    public static BasicStroke obter(int espessura) {
+        if (espessura >= 0 && espessura < COMUNS.length) {
+            return COMUNS[espessura];
+        }
+        return OUTROS.computeIfAbsent(espessura, e -> new BasicStroke((float) e));
+    }
+}
@@ -1,8 +1,16 @@
 package circulo;
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import cena.Tracos;
+import constantes.TipoPrimitivo;
+import forma.Forma;
+import org.json.JSONObject;
 import ponto.PontoGr;
+import raster.Circulos;
+import raster.DestinoGraphics;
+import raster.RasterInt;
+import raster.Suavizacao;
 
 /**
  * Implementa circulo grafico.
@@ -11,12 +19,14 @@ import ponto.PontoGr;
  * @version 11/09/2021
  */
 
-public class CirculoGr extends Circulo {
+public class CirculoGr extends Circulo implements Forma {
     // Atributos do circulo grafico
     Color corCirculo = Color.BLACK;   // cor da Circulo
     String nomeCirculo = ""; // nome da Circulo
     Color corNomeCirculo  = Color.BLACK;
     int espCirculo = 1; // espessura da Circulo
+    TipoPrimitivo modo = TipoPrimitivo.CIRCULO_LIB; // algoritmo usado no desenho
+    boolean preenchido = false; // desenha o disco cheio em vez da borda
 
     /**
      * @param x coordenada x do centro
@@ -99,6 +109,38 @@ public class CirculoGr extends Circulo {
         this.espCirculo = espCirculo;
     }
 
+    /**
+     * Retorna o modo de desenho do circulo.
+     *
+     * @return TipoPrimitivo. CIRCULO_LIB, CIRCULO_EQ, CIRCULO_MP ou CIRCULO_AA.
+     */
+    public TipoPrimitivo getModo() {
+        return modo;
+    }
+
+    /**
+     * Altera o modo de desenho do circulo.
+     *
+     * @param modo TipoPrimitivo. CIRCULO_LIB, CIRCULO_EQ, CIRCULO_MP ou CIRCULO_AA.
+     */
+    public void setModo(TipoPrimitivo modo) {
+        this.modo = modo;
+    }
+
+    /**
+     * @return true se o circulo e desenhado como disco preenchido
+     */
+    public boolean isPreenchido() {
+        return preenchido;
+    }
+
+    /**
+     * @param preenchido true para desenhar o disco preenchido, false para a borda
+     */
+    public void setPreenchido(boolean preenchido) {
+        this.preenchido = preenchido;
+    }
+
     /**
      * @param g Biblioteca grafica
      */
@@ -107,13 +149,12 @@ public class CirculoGr extends Circulo {
         int cx = (int)getCentro().getX();
         int cy = (int)getCentro().getY();
         int raio = (int)getRaio();
-        // seta cor e espessura
+        // seta cor e espessura (traco compartilhado, sem alocacao)
         g.setColor(getCorCirculo());
-        //ponto.setDiametro(getEspCirculo());
-        g.setStroke(new BasicStroke((float)getEspCirculo()));
+        g.setStroke(Tracos.obter(getEspCirculo()));
         
         // desenha ponto como um oval
-        g.drawOval(cx - raio, cy - raio, 2*raio, 2*raio);
+        tracarCirculoLib(g);
         
         // desenha nome do circulo
         g.setColor(getCorNomeCirculo());
@@ -121,67 +162,119 @@ public class CirculoGr extends Circulo {
         
     }
     /**
-     * Desenha circulo grafico utilizando equacao parametrica (angulo de 0 a 360)
+     * Desenha apenas a borda do circulo, usando a cor e a espessura ja
+     * definidas no contexto grafico (desenho em lotes de mesmo estilo).
+     *
+     * @param g Biblioteca grafica
+     */
+    public void tracarCirculoLib(Graphics2D g){
+        int cx = (int)getCentro().getX();
+        int cy = (int)getCentro().getY();
+        int raio = (int)getRaio();
+        g.drawOval(cx - raio, cy - raio, 2*raio, 2*raio);
+    }
+
+    /**
+     * Desenha circulo grafico utilizando equacao parametrica (angulo de 0 a 45
+     * graus, replicado nos oito octantes). Seno e cosseno vem de uma tabela
+     * compartilhada, e o passo do angulo depende do raio: circulos pequenos
+     * nao repetem os mesmos pixels e circulos grandes nao ficam com falhas.
+     * Com espessura maior que 1, a borda e o anel preenchido por trechos.
      *
      * @param g Graphics. Classe com os metodos graficos do Java
      */
     public void desenharCirculoEq(Graphics2D g){
+        if (getEspCirculo() > 1) {
+            // borda espessa: o mesmo anel do modo MP, sem um oval por ponto
+            Circulos.mp(new DestinoGraphics(g), (int)getCentro().getX(), (int)getCentro().getY(),
+                (int)getRaio(), getCorCirculo().getRGB(), getEspCirculo());
+            desenharNome(g);
+            return;
+        }
         // Variaveis auxiliares
         PontoGr ponto = new PontoGr(); 
-        double x, y;
-
-        double angIni = 0;
-        double angFim = 45;
-        double incr = 0.1;
-        double alfa = 0;
-
-        // percorre de 0  ate 45. 
-        // x e� calculado pela equacao: x = xc + R*seno(alfa)
-        // y e� calculado pela equacao: y = yc + R*cos(alfa)
-        for(alfa = angIni; alfa <= angFim; alfa = alfa + incr){ 
-            // Calculo de x e y (por trigonometria)
-            x = getRaio() * Math.sin((alfa*Math.PI)/180.);
-            y = getRaio() * Math.cos((alfa*Math.PI)/180.);
-
-            // desenhar 8 pontos (um em cada octante) por simetria
-            desenharPontosSimetricos(g, (int)x, (int)y, ponto);
+        double raio = getRaio();
+        int passo = TabelaTrigonometrica.passo(raio);
+        int xAnt = -1, yAnt = -1;
+
+        g.setColor(getCorCirculo());
+        ponto.setDiametro(getEspCirculo());
+
+        // percorre de 0 ate 45 graus pelos indices da tabela.
+        // x e calculado pela equacao: x = R*seno(alfa)
+        // y e calculado pela equacao: y = R*cos(alfa)
+        for (int i = 0; ; i += passo) {
+            if (i > TabelaTrigonometrica.OCTANTE) {
+                i = TabelaTrigonometrica.OCTANTE; // o ultimo passo termina em 45 graus
+            }
+            int x = (int)(raio * TabelaTrigonometrica.seno(i));
+            int y = (int)(raio * TabelaTrigonometrica.cosseno(i));
+
+            // no octante x so cresce e y so diminui: basta comparar com o ponto anterior
+            if (x != xAnt || y != yAnt) {
+                desenharPontosSimetricos(g, x, y, ponto);
+                xAnt = x;
+                yAnt = y;
+            }
+            if (i == TabelaTrigonometrica.OCTANTE) {
+                break;
+            }
         }
+        desenharNome(g);
     }
     /**
-     * Desenha circulo utilizando algoritmo MidPoint (Bresenham)
+     * Desenha circulo utilizando algoritmo MidPoint (Bresenham), em aritmetica
+     * inteira. A espessura preenche um anel em vez de desenhar um oval por ponto.
      * @param g
      */
-    void desenharCirculoMp(Graphics2D g) {
-
+    public void desenharCirculoMp(Graphics2D g) {
         if (getRaio() != 0) {
-            // Variaveis auxiliares
-            PontoGr ponto = new PontoGr(); 
-
-            double x = 0;
-            double y = getRaio();
-            double d = 5 / 4 - getRaio();
-
-            desenharPontosSimetricos (g, (int)x, (int)y, ponto);
-
-            while (y > x) {
-                if (d < 0) {
-                    d = d + 2 * x + 3;
-                    x++;
-                }
-
-                else {
-                    d = d + 2 * (x - y) + 5;
-                    x++;
-                    y--;
-                }
-                desenharPontosSimetricos (g, (int)x, (int)y, ponto);
-            }
-        }       
+            Circulos.mp(new DestinoGraphics(g), (int)getCentro().getX(), (int)getCentro().getY(),
+                (int)getRaio(), getCorCirculo().getRGB(), getEspCirculo());
+            desenharNome(g);
+        }
+    }
+
+    /**
+     * Desenha circulo suavizado pelo algoritmo de Xiaolin Wu: cada pixel da
+     * borda recebe a cor com opacidade proporcional a fracao coberta.
+     *
+     * @param g Biblioteca grafica
+     */
+    public void desenharCirculoAa(Graphics2D g) {
+        Suavizacao.circulo(new DestinoGraphics(g), (int)getCentro().getX(), (int)getCentro().getY(),
+            (int)getRaio(), getCorCirculo().getRGB(), getEspCirculo());
+        desenharNome(g);
     }
 
     /**
-     * Desenha os pontos simetricos do circulo. Um em cada octante
-     * @param g - componente para acessar modo gr�fico
+     * Desenha o disco preenchido, um trecho horizontal por linha calculado
+     * pelo ponto medio. Cobre a borda do modo MP e todo o interior.
+     *
+     * @param g Biblioteca grafica
+     */
+    public void desenharDisco(Graphics2D g) {
+        Circulos.disco(new DestinoGraphics(g), (int)getCentro().getX(), (int)getCentro().getY(),
+            (int)getRaio(), getCorCirculo().getRGB());
+        desenharNome(g);
+    }
+
+    /**
+     * Desenha o nome do circulo no centro.
+     *
+     * @param g Biblioteca grafica
+     */
+    private void desenharNome(Graphics2D g){
+        g.setColor(getCorNomeCirculo());
+        g.drawString(getNomeCirculo(), (int)getCentro().getX(), (int)getCentro().getY());
+    }
+
+    /**
+     * Desenha os pontos simetricos do circulo. Um em cada octante; pontos que
+     * coincidem (sobre os eixos ou sobre as diagonais) sao desenhados uma
+     * unica vez. A cor ja deve estar definida no contexto grafico e o
+     * diametro no ponto.
+     * @param g - componente para acessar modo grafico
      * @param x - coordenada x de um ponto do primeiro octante do circulo
      * @param y - coordenada y de um ponto do primeiro octante do circulo
      * @param ponto - objeto utilizado para "acender" (desenhar) um ponto
@@ -191,36 +284,34 @@ public class CirculoGr extends Circulo {
         int cx = (int)getCentro().getX();
         int cy = (int)getCentro().getY();
 
-        // seta cor e espessura
-        ponto.setCorPto(getCorCirculo());
-        ponto.setDiametro(getEspCirculo());
-
-        // desenha nome do circulo
-        g.setColor(getCorNomeCirculo());
-        g.drawString(getNomeCirculo(), cx, cy);
+        // (1), (4), (5), (8): (cx+-x, cy+-y)
+        desenharPontosEspelhados(g, cx, cy, x, y, ponto);
+        // (2), (3), (6), (7): (cx+-y, cy+-x), iguais aos anteriores na diagonal
+        if (x != y) {
+            desenharPontosEspelhados(g, cx, cy, y, x, ponto);
+        }
+    }
 
-        // desenha os 8 pontos simetricos. Inclui o centro do circulo
-        // (1) (cx+x, cy+y)
-        desenharPontoSimetrico(g, cx + x, cy + y, ponto);
-        // (2) (cx+y, cy+x)
-        desenharPontoSimetrico(g, cx + y, cy + x, ponto);
-        // (3) (cx-y, cy+x)
-        desenharPontoSimetrico(g, cx - y, cy + x, ponto);
-        // (4) (cx-x, cy+y)
-        desenharPontoSimetrico(g, cx - x, cy + y, ponto);
-        // (5) (cx-x, cy-y)
-        desenharPontoSimetrico(g, cx - x, cy - y, ponto);
-        // (6) (cx-y, cy-x)
-        desenharPontoSimetrico(g, cx - y, cy - x, ponto);
-        // (7) (cx+y, cy-x)
-        desenharPontoSimetrico(g, cx + y, cy - x, ponto);
-        // (8) (cx+x, cy-y)
-        desenharPontoSimetrico(g, cx + x, cy - y, ponto);
+    /**
+     * Desenha (cx+-a, cy+-b) sem repetir pontos quando a ou b e zero.
+     */
+    private void desenharPontosEspelhados(Graphics2D g, int cx, int cy, int a, int b, PontoGr ponto){
+        desenharPontoSimetrico(g, cx + a, cy + b, ponto);
+        if (b != 0) {
+            desenharPontoSimetrico(g, cx + a, cy - b, ponto);
+        }
+        if (a != 0) {
+            desenharPontoSimetrico(g, cx - a, cy + b, ponto);
+            if (b != 0) {
+                desenharPontoSimetrico(g, cx - a, cy - b, ponto);
+            }
+        }
     }
 
 
     /**
-     * M�todo desenharPontoSimetrico
+     * Metodo desenharPontoSimetrico. Com diametro 1 acende um pixel, ja que
+     * um oval de 1x1 nao pinta nada.
      *
      * @param x coordenada x
      * @param y coordenda y
@@ -228,9 +319,139 @@ public class CirculoGr extends Circulo {
      * @param g Biblioteca grafica
      */
     private void desenharPontoSimetrico(Graphics2D g, int x, int y, PontoGr ponto){
+        if (ponto.getDiametro() <= 1) {
+            g.fillRect(x, y, 1, 1);
+            return;
+        }
         ponto.setX(x);
         ponto.setY(y);
-        ponto.desenharPonto(g);
+        ponto.tracarPonto(g);
+    }
+
+    /**
+     * Calcula o retangulo da tela ocupado pelo circulo, incluindo a espessura da borda.
+     *
+     * @return limites do circulo na tela
+     */
+    public Rectangle calcularLimites() {
+        int cx = (int)getCentro().getX();
+        int cy = (int)getCentro().getY();
+        int raio = (int)getRaio();
+        int margem = getEspCirculo() + 1;
+        return new Rectangle(cx - raio - margem, cy - raio - margem,
+            2*(raio + margem) + 1, 2*(raio + margem) + 1);
+    }
+
+    /**
+     * @return etiqueta de tipo do circulo ("CIRCULO")
+     */
+    @Override
+    public String getTipoForma() {
+        return "CIRCULO";
+    }
+
+    /**
+     * Desenha o circulo completo com a biblioteca grafica.
+     *
+     * @param g Biblioteca grafica
+     */
+    @Override
+    public void desenhar(Graphics2D g) {
+        if (preenchido) {
+            desenharDisco(g);
+        } else if (modo == TipoPrimitivo.CIRCULO_MP) {
+            desenharCirculoMp(g);
+        } else if (modo == TipoPrimitivo.CIRCULO_EQ) {
+            desenharCirculoEq(g);
+        } else if (modo == TipoPrimitivo.CIRCULO_AA) {
+            desenharCirculoAa(g);
+        } else {
+            desenharCirculoLib(g);
+        }
+    }
+
+    /**
+     * Desenha apenas a borda do circulo; se ele tiver nome, for preenchido
+     * ou nao for desenhado pela biblioteca, desenha completo.
+     *
+     * @param g Biblioteca grafica
+     * @return true se o estado do contexto foi alterado
+     */
+    @Override
+    public boolean tracar(Graphics2D g) {
+        if (!getNomeCirculo().isEmpty() || modo != TipoPrimitivo.CIRCULO_LIB || preenchido) {
+            desenhar(g);
+            return true;
+        }
+        tracarCirculoLib(g);
+        return false;
+    }
+
+    /**
+     * Preenchido ou nos modos CIRCULO_MP e CIRCULO_AA, desenha o circulo direto
+     * nos pixels do raster. Circulos com nome, ou de cor translucida fora do
+     * modo CIRCULO_AA (que ja mistura as cores), usam o Graphics2D.
+     *
+     * @param r raster do ladrilho
+     * @return true se o circulo foi desenhado no raster
+     */
+    @Override
+    public boolean rasterizar(RasterInt r) {
+        boolean suave = modo == TipoPrimitivo.CIRCULO_AA && !preenchido;
+        if ((modo != TipoPrimitivo.CIRCULO_MP && !preenchido && !suave)
+            || !getNomeCirculo().isEmpty() || (!suave && getCorCirculo().getAlpha() != 255)) {
+            return false;
+        }
+        if (suave) {
+            Suavizacao.circulo(r, (int)getCentro().getX(), (int)getCentro().getY(),
+                (int)getRaio(), getCorCirculo().getRGB(), getEspCirculo());
+        } else if (preenchido) {
+            Circulos.disco(r, (int)getCentro().getX(), (int)getCentro().getY(),
+                (int)getRaio(), getCorCirculo().getRGB());
+        } else if (getRaio() != 0) {
+            Circulos.mp(r, (int)getCentro().getX(), (int)getCentro().getY(),
+                (int)getRaio(), getCorCirculo().getRGB(), getEspCirculo());
+        }
+        return true;
+    }
+
+    /**
+     * @return the corCirculo
+     */
+    @Override
+    public Color getCorTraco() {
+        return getCorCirculo();
+    }
+
+    /**
+     * @return the espCirculo
+     */
+    @Override
+    public int getEspessuraTraco() {
+        return getEspCirculo();
+    }
+
+    /**
+     * Converte o circulo para o objeto JSON da lista "figuras".
+     *
+     * @return objeto JSON com tipo, centro, raio, cor e espessura
+     */
+    @Override
+    public JSONObject serializar() {
+        JSONObject json = new JSONObject();
+        json.put("tipo", getTipoForma());
+        json.put("centroX", getCentro().getX());
+        json.put("centroY", getCentro().getY());
+        json.put("raio", getRaio());
+        json.put("cor", Forma.corParaJson(getCorCirculo()));
+        json.put("espessura", getEspCirculo());
+        if (modo != TipoPrimitivo.CIRCULO_LIB) {
+            json.put("modo", modo.name());
+        }
+        if (preenchido) {
+            json.put("preenchido", true);
+        }
+        return json;
     }
 
     /**
@@ -3,8 +3,9 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 
 import constantes.Constantes;
+import constantes.TipoPrimitivo;
 import janela.Janela;
-import ponto.Ponto;
+import janela.Mapeamento;
 
 /**
  * Desenhar figuras com circulo.
@@ -17,7 +18,7 @@ public class FiguraCirculos {
     /**
      * Desenha circulo utilizando funcao de biblioteca
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param xc coordenada x do centro
      * @param yc coordenada y do centro
      * @param raio raio do circulo
@@ -33,7 +34,7 @@ public class FiguraCirculos {
     /**
      * Desenha circulo utilizando equacoes parametricas
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param xc coordenada x do centro
      * @param yc coordenada y do centro
      * @param raio raio do circulo
@@ -49,7 +50,7 @@ public class FiguraCirculos {
     /**
      * Desenha circulo na window utilizando algoritmo midpoint
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param xc coordenada x do centro
      * @param yc coordenada y do centro
      * @param raio raio do circulo
@@ -65,7 +66,7 @@ public class FiguraCirculos {
     /**
      * Desenha circulo na viewport utilizando a funcao de biblioteca
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param window dimensoes da window
      * @param viewport dimensoes da viewport
      * @param xc coordenada x do centro
@@ -76,16 +77,15 @@ public class FiguraCirculos {
      * @param cor cor do circulo
      */
     public static void desenharCirculoLibViewp(Graphics2D g, Janela window, Janela viewport, int xc, int yc, int raio, String nome, int esp, Color cor){
-        Ponto pAux = window.calcularNaViewPort(viewport, new Ponto(xc, yc));
-        int aux = window.calcularNaViewPort(viewport, raio);
-        CirculoGr c = new CirculoGr((int)pAux.getX(), (int)pAux.getY(), aux,  Color.BLUE, nome, esp);
+        Mapeamento m = window.mapearPara(viewport);
+        CirculoGr c = new CirculoGr((int)m.x(xc), (int)m.y(yc), m.distancia(raio),  Color.BLUE, nome, esp);
         c.desenharCirculoLib(g);
     }
     
     /**
      * Desenha circulo na viewport utilizando a equacao parametrica
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param window dimensoes da window
      * @param viewport dimensoes da viewport
      * @param xc coordenada x do centro
@@ -96,16 +96,15 @@ public class FiguraCirculos {
      * @param cor cor do circulo
      */
     public static void desenharCirculoEqViewp(Graphics2D g, Janela window, Janela viewport, int xc, int yc, int raio, String nome, int esp, Color cor){
-        Ponto pAux = window.calcularNaViewPort(viewport, new Ponto(xc, yc));
-        int aux = window.calcularNaViewPort(viewport, raio);
-        CirculoGr c = new CirculoGr((int)pAux.getX(), (int)pAux.getY(), aux,  Color.BLUE, nome, esp);
+        Mapeamento m = window.mapearPara(viewport);
+        CirculoGr c = new CirculoGr((int)m.x(xc), (int)m.y(yc), m.distancia(raio),  Color.BLUE, nome, esp);
         c.desenharCirculoEq(g);
     }
 
     /**
      * Desenha circulo com o algoritmo midpoint na viewport
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param window dimensoes da window
      * @param viewport dimensoes da viewport
      * @param xc coordenada x do centro
@@ -116,16 +115,46 @@ public class FiguraCirculos {
      * @param cor cor do circulo
      */
     public static void desenharCirculoMpViewp(Graphics2D g, Janela window, Janela viewport, int xc, int yc, int raio, String nome, int esp, Color cor){
-        Ponto pAux = window.calcularNaViewPort(viewport, new Ponto(xc, yc));
-        int aux = window.calcularNaViewPort(viewport, raio);
-        CirculoGr c = new CirculoGr((int)pAux.getX(), (int)pAux.getY(), aux,  Color.BLUE, nome, esp);
+        Mapeamento m = window.mapearPara(viewport);
+        CirculoGr c = new CirculoGr((int)m.x(xc), (int)m.y(yc), m.distancia(raio),  Color.BLUE, nome, esp);
         c.desenharCirculoMp(g);
     }
     
+    /**
+     * Desenha n circulos na viewport de uma vez. Centros e raios sao
+     * convertidos em lote, no proprio vetor, e um unico CirculoGr e
+     * reaproveitado para todos os circulos.
+     * 
+     * @param g Biblioteca gráfica
+     * @param window dimensoes da window
+     * @param viewport dimensoes da viewport
+     * @param xcs coordenadas x dos centros (convertidas no proprio vetor)
+     * @param ycs coordenadas y dos centros (convertidas no proprio vetor)
+     * @param raios raios dos circulos (convertidos no proprio vetor)
+     * @param n quantidade de circulos
+     * @param esp espessura da borda
+     * @param cor cor dos circulos
+     * @param modo CIRCULO_LIB, CIRCULO_EQ, CIRCULO_MP ou CIRCULO_AA
+     */
+    public static void desenharCirculosViewp(Graphics2D g, Janela window, Janela viewport, int[] xcs, int[] ycs,
+                                             int[] raios, int n, int esp, Color cor, TipoPrimitivo modo){
+        Mapeamento m = window.mapearPara(viewport);
+        m.transformar(xcs, ycs, n);
+        m.transformarDistancias(raios, n);
+        CirculoGr c = new CirculoGr(0, 0, 0, cor, "", esp);
+        c.setModo(modo);
+        for (int i = 0; i < n; i++) {
+            c.getCentro().setX(xcs[i]);
+            c.getCentro().setY(ycs[i]);
+            c.setRaio(raios[i]);
+            c.desenhar(g);
+        }
+    }
+
     /**
      * Desenha varios circulos
      * 
-     * @param g Biblioteca grfica
+     * @param g Biblioteca gráfica
      * @param qtde quantidade de circulos
      * @param esp espessura da borda do circulo
      */
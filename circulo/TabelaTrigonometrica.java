@@ -0,0 +1,75 @@
+package circulo;
+
+/**
+ * Tabela de senos e cossenos do primeiro octante (0 a 45 graus), calculada
+ * uma unica vez e compartilhada por todos os circulos desenhados pela
+ * equacao parametrica. O angulo e dado por um indice inteiro de 0 a
+ * {@link #OCTANTE}, e o passo entre indices e escolhido pelo raio, de modo
+ * que pontos consecutivos fiquem a no maximo um pixel de distancia.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class TabelaTrigonometrica {
+
+    /**
+     * Indice do angulo de 45 graus. Com este tamanho, o passo minimo de 1
+     * indice ainda anda menos de um pixel em circulos de raio ate ~20000.
+     */
+    public static final int OCTANTE = 1 << 14;
+
+    /** Seno de cada angulo da tabela */
+    private static final double[] SENO = new double[OCTANTE + 1];
+
+    /** Cosseno de cada angulo da tabela */
+    private static final double[] COSSENO = new double[OCTANTE + 1];
+
+    static {
+        for (int i = 0; i <= OCTANTE; i++) {
+            double alfa = (Math.PI / 4) * i / OCTANTE;
+            SENO[i] = Math.sin(alfa);
+            COSSENO[i] = Math.cos(alfa);
+        }
+    }
+
+    private TabelaTrigonometrica() {
+    }
+
+    /**
+     * @param i indice do angulo, de 0 (0 graus) a OCTANTE (45 graus)
+     * @return seno do angulo
+     */
+    public static double seno(int i) {
+        return SENO[i];
+    }
+
+    /**
+     * @param i indice do angulo, de 0 (0 graus) a OCTANTE (45 graus)
+     * @return cosseno do angulo
+     */
+    public static double cosseno(int i) {
+        return COSSENO[i];
+    }
+
+    /**
+     * Calcula o passo entre indices para um raio. O arco do octante mede
+     * raio*PI/4 pixels; o passo divide o octante em pelo menos esse numero
+     * de partes, para que cada passo ande no maximo um pixel.
+     *
+     * @param raio raio do circulo
+     * @return passo entre indices, entre 1 e OCTANTE
+     */
+    public static int passo(double raio) {
+        double partes = Math.ceil(raio * Math.PI / 4);
+        if (partes <= 1) {
+            return OCTANTE;
+        }
+        if (partes >= OCTANTE) {
+            return 1;
+        }
+        return OCTANTE / (int) partes;
+    }
+}
@@ -0,0 +1,132 @@
+package circulo;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Compara o desenho do circulo pela equacao parametrica com passo fixo de
+ * 0,1 grau e Math.sin/Math.cos a cada passo (como era feito antes) com o
+ * desenho atual de {@link CirculoGr#desenharCirculoEq}, que usa a tabela
+ * compartilhada e passo adaptado ao raio. Para cada raio mostra os passos
+ * no octante, os pontos desenhados, as falhas (pontos consecutivos a mais
+ * de um pixel) e o tempo por circulo.
+ * Uso: java circulo.TestaCirculoEq [repeticoes por raio]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaCirculoEq {
+    public static void main(String args[]) {
+        int repeticoes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int[] raios = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+        BufferedImage img = new BufferedImage(1024, 1024, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+
+        System.out.println("  raio | passos antes/agora | pontos antes/agora | falhas antes/agora | us/circulo antes/agora");
+        for (int raio : raios) {
+            CirculoGr c = new CirculoGr(512, 512, raio, Color.RED, "", 2);
+
+            // aquecimento
+            for (int i = 0; i < repeticoes; i++) {
+                desenharAntigo(g, c);
+                c.desenharCirculoEq(g);
+            }
+            long t0 = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                desenharAntigo(g, c);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < repeticoes; i++) {
+                c.desenharCirculoEq(g);
+            }
+            long t2 = System.nanoTime();
+
+            int[] antes = contarAntigo(raio);
+            int[] agora = contarAtual(raio);
+            System.out.printf("%6d | %8d / %-7d | %8d / %-7d | %8d / %-7d | %10.1f / %.1f%n",
+                raio, antes[0], agora[0], antes[1], agora[1], antes[2], agora[2],
+                (t1 - t0) / 1e3 / repeticoes, (t2 - t1) / 1e3 / repeticoes);
+        }
+        g.dispose();
+    }
+
+    /**
+     * Desenho anterior: passos de 0,1 grau (450, pela soma em double), oito ovais por passo.
+     */
+    private static void desenharAntigo(Graphics2D g, CirculoGr c) {
+        int cx = (int) c.getCentro().getX(), cy = (int) c.getCentro().getY();
+        int d = c.getEspCirculo();
+        g.setColor(c.getCorCirculo());
+        for (double alfa = 0; alfa <= 45; alfa = alfa + 0.1) {
+            int x = (int) (c.getRaio() * Math.sin((alfa * Math.PI) / 180.));
+            int y = (int) (c.getRaio() * Math.cos((alfa * Math.PI) / 180.));
+            g.fillOval(cx + x - d / 2, cy + y - d / 2, d, d);
+            g.fillOval(cx + y - d / 2, cy + x - d / 2, d, d);
+            g.fillOval(cx - y - d / 2, cy + x - d / 2, d, d);
+            g.fillOval(cx - x - d / 2, cy + y - d / 2, d, d);
+            g.fillOval(cx - x - d / 2, cy - y - d / 2, d, d);
+            g.fillOval(cx - y - d / 2, cy - x - d / 2, d, d);
+            g.fillOval(cx + y - d / 2, cy - x - d / 2, d, d);
+            g.fillOval(cx + x - d / 2, cy - y - d / 2, d, d);
+        }
+    }
+
+    /**
+     * Passos, pontos e falhas do desenho anterior.
+     */
+    private static int[] contarAntigo(double raio) {
+        int passos = 0, falhas = 0, xAnt = 0, yAnt = (int) raio;
+        for (double alfa = 0; alfa <= 45; alfa = alfa + 0.1) {
+            int x = (int) (raio * Math.sin((alfa * Math.PI) / 180.));
+            int y = (int) (raio * Math.cos((alfa * Math.PI) / 180.));
+            if (Math.abs(x - xAnt) > 1 || Math.abs(y - yAnt) > 1) {
+                falhas++;
+            }
+            xAnt = x;
+            yAnt = y;
+            passos++;
+        }
+        return new int[] {passos, passos * 8, falhas};
+    }
+
+    /**
+     * Passos, pontos e falhas do desenho atual, seguindo o mesmo percurso
+     * de CirculoGr.desenharCirculoEq.
+     */
+    private static int[] contarAtual(double raio) {
+        int passo = TabelaTrigonometrica.passo(raio);
+        int passos = 0, pontos = 0, falhas = 0, xAnt = -1, yAnt = -1;
+        for (int i = 0; ; i += passo) {
+            if (i > TabelaTrigonometrica.OCTANTE) {
+                i = TabelaTrigonometrica.OCTANTE;
+            }
+            int x = (int) (raio * TabelaTrigonometrica.seno(i));
+            int y = (int) (raio * TabelaTrigonometrica.cosseno(i));
+            passos++;
+            if (x != xAnt || y != yAnt) {
+                if (xAnt >= 0 && (x - xAnt > 1 || yAnt - y > 1)) {
+                    falhas++;
+                }
+                pontos += espelhados(x, y) + (x != y ? espelhados(y, x) : 0);
+                xAnt = x;
+                yAnt = y;
+            }
+            if (i == TabelaTrigonometrica.OCTANTE) {
+                break;
+            }
+        }
+        return new int[] {passos, pontos, falhas};
+    }
+
+    /**
+     * Quantidade de pontos distintos em (+-a, +-b).
+     */
+    private static int espelhados(int a, int b) {
+        return (a != 0 ? 2 : 1) * (b != 0 ? 2 : 1);
+    }
+}
@@ -14,9 +14,11 @@ public enum TipoPrimitivo {
     RETA_EQ,
     RETA_MP,
     RETA_LIB,
+    RETA_AA,
     CIRCULO_EQ,
     CIRCULO_MP,
     CIRCULO_LIB,
+    CIRCULO_AA,
     RETANGULO,
     TRIANGULO;
 }
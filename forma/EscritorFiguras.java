@@ -0,0 +1,130 @@
+package forma;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import org.json.JSONObject;
+
+/**
+ * Grava a lista "figuras" de um arquivo JSON forma a forma, direto num
+ * arquivo com buffer, sem montar a arvore do desenho inteiro nem o texto
+ * completo na memoria. O texto gravado e o mesmo de
+ * {@code root.toString(4)} sobre a lista completa.
+ * <p>
+ * Como o toString(4) escreve uma lista de um elemento so sem quebras de
+ * linha, o escritor segura sempre a ultima forma recebida e so a grava
+ * quando chega a proxima ou no {@link #close()}. A memoria usada fica
+ * constante, qualquer que seja o tamanho do desenho.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class EscritorFiguras implements Closeable {
+
+    /** Indentacao usada pelo toString(4) */
+    private static final int INDENTACAO = 4;
+
+    /** Tamanho do buffer de escrita, em caracteres */
+    private static final int BUFFER = 1 << 16;
+
+    /** Destino do texto */
+    private final Writer saida;
+
+    /** Ultima forma recebida, ainda nao gravada */
+    private JSONObject pendente;
+
+    /** Quantidade de formas ja gravadas */
+    private int gravadas;
+
+    /**
+     * Abre o arquivo e grava o inicio da lista "figuras".
+     *
+     * @param arquivo arquivo onde sera salvo o JSON
+     * @throws IOException se houver erro ao abrir ou escrever no arquivo
+     */
+    public EscritorFiguras(File arquivo) throws IOException {
+        saida = new BufferedWriter(new FileWriter(arquivo), BUFFER);
+        try {
+            saida.write("{\"figuras\": [");
+        } catch (IOException ex) {
+            saida.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Acrescenta uma forma a lista.
+     *
+     * @param forma forma a ser gravada
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    public void escrever(Forma forma) throws IOException {
+        escrever(forma.serializar());
+    }
+
+    /**
+     * Acrescenta o objeto JSON de uma forma a lista.
+     *
+     * @param json objeto JSON da forma
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    public void escrever(JSONObject json) throws IOException {
+        if (pendente != null) {
+            gravarNaLista(pendente);
+        }
+        pendente = json;
+    }
+
+    /**
+     * Grava a forma pendente, fecha a lista e o arquivo.
+     *
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pendente != null) {
+                if (gravadas == 0) {
+                    // lista de um elemento so: fica na mesma linha dos colchetes
+                    gravar(pendente, 0);
+                } else {
+                    gravarNaLista(pendente);
+                    saida.write('\n');
+                }
+                pendente = null;
+            }
+            saida.write("]}");
+        } finally {
+            saida.close();
+        }
+    }
+
+    /**
+     * Grava uma forma numa lista de mais de um elemento, em linha propria.
+     */
+    private void gravarNaLista(JSONObject json) throws IOException {
+        if (gravadas > 0) {
+            saida.write(',');
+        }
+        saida.write('\n');
+        for (int i = 0; i < INDENTACAO; i++) {
+            saida.write(' ');
+        }
+        gravar(json, INDENTACAO);
+        gravadas++;
+    }
+
+    /**
+     * Grava um objeto JSON com a indentacao dada.
+     */
+    private void gravar(JSONObject json, int indentacao) throws IOException {
+        json.write(saida, INDENTACAO, indentacao);
+    }
+}
@@ -0,0 +1,100 @@
+package forma;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import org.json.JSONObject;
+import raster.RasterInt;
+
+/**
+ * Interface comum a todos os primitivos graficos que compoem uma cena.
+ * Permite que o painel de desenho, o cache de ladrilhos e a persistencia em
+ * JSON tratem qualquer forma pelo mesmo contrato, sem cadeias de instanceof.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public interface Forma {
+
+    /**
+     * Retorna a etiqueta de tipo da forma, usada no campo "tipo" do JSON
+     * (PONTO, RETA, CIRCULO, RETANGULO ou TRIANGULO).
+     *
+     * @return etiqueta de tipo
+     */
+    String getTipoForma();
+
+    /**
+     * Desenha a forma completa, definindo cor e espessura no contexto grafico.
+     *
+     * @param g contexto grafico
+     */
+    void desenhar(Graphics2D g);
+
+    /**
+     * Desenha apenas a geometria da forma, usando a cor e a espessura ja
+     * definidas no contexto grafico (desenho em lotes de mesmo estilo).
+     *
+     * @param g contexto grafico
+     * @return true se o desenho alterou o estado do contexto (ex.: nome da forma)
+     */
+    boolean tracar(Graphics2D g);
+
+    /**
+     * Desenha a forma escrevendo direto nos pixels de um raster, sem passar
+     * pelo Graphics2D. Formas que nao tem um algoritmo proprio de
+     * rasterizacao (ou que precisam desenhar texto) retornam false, e quem
+     * chamou deve usar {@link #tracar(Graphics2D)}.
+     *
+     * @param r raster de destino
+     * @return true se a forma foi desenhada no raster
+     */
+    default boolean rasterizar(RasterInt r) {
+        return false;
+    }
+
+    /**
+     * Retorna a cor do traco da forma.
+     *
+     * @return cor da forma
+     */
+    Color getCorTraco();
+
+    /**
+     * Retorna a espessura do traco da forma.
+     *
+     * @return espessura em pixels, ou 0 se a forma nao usa traco
+     */
+    int getEspessuraTraco();
+
+    /**
+     * Calcula o retangulo da tela ocupado pela forma, incluindo a espessura.
+     *
+     * @return limites da forma na tela
+     */
+    Rectangle calcularLimites();
+
+    /**
+     * Converte a forma para o objeto JSON gravado na lista "figuras".
+     *
+     * @return objeto JSON com o tipo, as coordenadas, a cor e a espessura
+     */
+    JSONObject serializar();
+
+    /**
+     * Converte uma cor para o formato JSON {r, g, b}.
+     *
+     * @param cor cor a ser convertida
+     * @return objeto JSON contendo componentes RGB da cor
+     */
+    static JSONObject corParaJson(Color cor) {
+        JSONObject json = new JSONObject();
+        json.put("r", cor.getRed());
+        json.put("g", cor.getGreen());
+        json.put("b", cor.getBlue());
+        return json;
+    }
+}
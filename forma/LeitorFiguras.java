@@ -0,0 +1,130 @@
+package forma;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Le a lista "figuras" de um arquivo JSON uma forma por vez, sem montar a
+ * arvore do documento inteiro. O {@link JSONTokener} e usado como leitor de
+ * fichas (pull-parser): o construtor abre o objeto raiz e a lista, e cada
+ * chamada de {@link #proximo()} le so o objeto da forma seguinte.
+ * <p>
+ * Chaves da raiz antes de "figuras" sao lidas e descartadas; o que vem
+ * depois da lista nao e lido. A memoria usada depende so do tamanho de uma
+ * forma, nao do arquivo.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class LeitorFiguras implements Closeable {
+
+    /** Tamanho do buffer de leitura, em caracteres */
+    private static final int BUFFER = 1 << 16;
+
+    /** Origem do texto */
+    private final Reader entrada;
+
+    /** Leitor de fichas sobre a origem */
+    private final JSONTokener fichas;
+
+    /** Indica se a proxima forma e a primeira da lista */
+    private boolean primeira = true;
+
+    /** Indica se a lista ja terminou */
+    private boolean fim;
+
+    /**
+     * Abre o arquivo e le ate o inicio da lista "figuras".
+     *
+     * @param arquivo arquivo JSON a ser lido
+     * @throws IOException se houver erro ao abrir o arquivo
+     * @throws org.json.JSONException se o arquivo nao tiver a lista "figuras"
+     */
+    public LeitorFiguras(File arquivo) throws IOException {
+        entrada = new BufferedReader(new FileReader(arquivo), BUFFER);
+        fichas = new JSONTokener(entrada);
+        try {
+            irParaLista();
+        } catch (RuntimeException ex) {
+            entrada.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Le a proxima forma da lista.
+     *
+     * @return objeto JSON da forma, ou null se a lista terminou
+     * @throws org.json.JSONException se o texto nao for JSON valido
+     */
+    public JSONObject proximo() {
+        if (fim) {
+            return null;
+        }
+        char c = fichas.nextClean();
+        if (c == ']') {
+            fim = true;
+            return null;
+        }
+        if (primeira) {
+            fichas.back();
+            primeira = false;
+        } else if (c != ',') {
+            throw fichas.syntaxError("Esperado ',' ou ']' na lista figuras");
+        }
+        Object valor = fichas.nextValue();
+        if (!(valor instanceof JSONObject)) {
+            throw fichas.syntaxError("Elemento da lista figuras nao e um objeto");
+        }
+        return (JSONObject) valor;
+    }
+
+    /**
+     * Fecha o arquivo.
+     *
+     * @throws IOException se houver erro ao fechar o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    /**
+     * Le a abertura do objeto raiz e as chaves ate a lista "figuras".
+     */
+    private void irParaLista() {
+        if (fichas.nextClean() != '{') {
+            throw fichas.syntaxError("O arquivo deve comecar com '{'");
+        }
+        while (true) {
+            char c = fichas.nextClean();
+            if (c != '"' && c != '\'') {
+                throw fichas.syntaxError("Lista figuras nao encontrada");
+            }
+            String chave = fichas.nextString(c);
+            if (fichas.nextClean() != ':') {
+                throw fichas.syntaxError("Esperado ':' depois de " + chave);
+            }
+            if (chave.equals("figuras")) {
+                if (fichas.nextClean() != '[') {
+                    throw fichas.syntaxError("figuras deve ser uma lista");
+                }
+                return;
+            }
+            fichas.nextValue();
+            if (fichas.nextClean() != ',') {
+                throw fichas.syntaxError("Lista figuras nao encontrada");
+            }
+        }
+    }
+}
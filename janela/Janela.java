@@ -3,15 +3,18 @@ package janela;
 import ponto.Ponto;
 
 /**
- * Escreva a descrio da classe Janela aqui.
+ * Escreva a descrição da classe Janela aqui.
  * 
  * @author (seu nome) 
- * @version (nmero de verso ou data)
+ * @version (número de versão ou data)
  */
 public class Janela {
-    // variaveis de instncia 
+    // variaveis de instância 
     private int xmin, ymin, xmax, ymax;
 
+    // mapeamento para a ultima viewport usada, refeito se algum limite mudar
+    private Mapeamento mapeamento;
+
     /**
      * COnstrutor para objetos da classe Janela
      */
@@ -93,6 +96,23 @@ public class Janela {
         this.ymax = ymax;
     }
     
+    /**
+     * Retorna o mapeamento desta window para a viewport. As escalas sao
+     * calculadas uma vez e reaproveitadas enquanto os limites das duas
+     * janelas nao mudarem.
+     *
+     * @param viewp Janela viewport
+     * @return Mapeamento transformacao da window para a viewport
+     */
+    public Mapeamento mapearPara(Janela viewp) {
+        Mapeamento m = mapeamento;
+        if (m == null || !m.valePara(this, viewp)) {
+            m = new Mapeamento(this, viewp);
+            mapeamento = m;
+        }
+        return m;
+    }
+
     /**
      * Metodo para fazer omapeamento numa viewport
      * Calcula um ponto da window para a viewport
@@ -102,18 +122,30 @@ public class Janela {
      * @return Ponto ponto calculado
      */
     public Ponto calcularNaViewPort(Janela viewp, Ponto pw) {
-        Ponto pViewp = new Ponto();
-        
-        pViewp.setX(viewp.getXmin() + ((pw.getX()-getXmin())/(getXmax()-getXmin()))*(viewp.getXmax() - viewp.getXmin()));
-        pViewp.setY(viewp.getYmin() + ((pw.getY()-getYmin())/(getYmax()-getYmin()))*(viewp.getYmax() - viewp.getYmin()));
-        
-        return pViewp;
+        return calcularNaViewPort(viewp, pw, new Ponto());
     }
+
+    /**
+     * Calcula um ponto da window para a viewport, gravando o resultado num
+     * ponto ja existente (sem criar objetos).
+     * @param viewp Janela viewport onde o ponto sera calculado
+     * @param pw Ponto ponto a ser calculado
+     * @param destino Ponto que recebe o resultado (pode ser o proprio pw)
+     * 
+     * @return Ponto o destino
+     */
+    public Ponto calcularNaViewPort(Janela viewp, Ponto pw, Ponto destino) {
+        Mapeamento m = mapearPara(viewp);
+        destino.setX(m.x(pw.getX()));
+        destino.setY(m.y(pw.getY()));
+        return destino;
+    }
+
     //
     // Especifico para calculo do raio...    
     // Neste caso, fica proporcional a borda horizontal da viewport
     //
     public int calcularNaViewPort(Janela viewp, int a){
-        return (int)(((double)a/(double)(getXmax()-getXmin()))*((double)viewp.getXmax()-(double)viewp.getXmin()));
+        return mapearPara(viewp).distancia(a);
     }
 }
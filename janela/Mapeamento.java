@@ -0,0 +1,148 @@
+package janela;
+
+/**
+ * Mapeamento de uma window para uma viewport, calculado uma unica vez:
+ * x' = x*sx + dx e y' = y*sy + dy. Converte pontos soltos ou vetores
+ * inteiros de coordenadas, numa passada so, sem criar objetos por ponto.
+ * <p>
+ * Os lacos em lote sao simples (um multiplica-soma por elemento, sem
+ * desvios), de modo que o compilador JIT os vetoriza com instrucoes SIMD.
+ * As conversoes para int truncam, como os casts (int) usados no desenho.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class Mapeamento {
+
+    /** Limites da window e da viewport usados no calculo */
+    private final int wxMin, wyMin, wxMax, wyMax, vxMin, vyMin, vxMax, vyMax;
+
+    /** Escalas e deslocamentos da transformacao */
+    private final double sx, sy, dx, dy;
+
+    /**
+     * Calcula o mapeamento da window para a viewport.
+     *
+     * @param window janela de desenho
+     * @param viewport janela de visualizacao
+     */
+    public Mapeamento(Janela window, Janela viewport) {
+        wxMin = window.getXmin();
+        wyMin = window.getYmin();
+        wxMax = window.getXmax();
+        wyMax = window.getYmax();
+        vxMin = viewport.getXmin();
+        vyMin = viewport.getYmin();
+        vxMax = viewport.getXmax();
+        vyMax = viewport.getYmax();
+        sx = (double) (vxMax - vxMin) / (wxMax - wxMin);
+        sy = (double) (vyMax - vyMin) / (wyMax - wyMin);
+        dx = vxMin - wxMin * sx;
+        dy = vyMin - wyMin * sy;
+    }
+
+    /**
+     * Indica se o mapeamento ainda corresponde aos limites atuais da window
+     * e da viewport.
+     *
+     * @param window janela de desenho
+     * @param viewport janela de visualizacao
+     * @return true se os limites nao mudaram
+     */
+    public boolean valePara(Janela window, Janela viewport) {
+        return wxMin == window.getXmin() && wyMin == window.getYmin()
+            && wxMax == window.getXmax() && wyMax == window.getYmax()
+            && vxMin == viewport.getXmin() && vyMin == viewport.getYmin()
+            && vxMax == viewport.getXmax() && vyMax == viewport.getYmax();
+    }
+
+    /**
+     * @param x coordenada x na window
+     * @return coordenada x na viewport
+     */
+    public double x(double x) {
+        return x * sx + dx;
+    }
+
+    /**
+     * @param y coordenada y na window
+     * @return coordenada y na viewport
+     */
+    public double y(double y) {
+        return y * sy + dy;
+    }
+
+    /**
+     * Converte uma distancia horizontal (como o raio de um circulo).
+     *
+     * @param a distancia na window
+     * @return distancia na viewport, truncada
+     */
+    public int distancia(int a) {
+        return (int) (a * sx);
+    }
+
+    /**
+     * Converte n pontos, de coordenadas em vetores separados, no proprio vetor.
+     *
+     * @param xs coordenadas x
+     * @param ys coordenadas y
+     * @param n quantidade de pontos
+     */
+    public void transformar(double[] xs, double[] ys, int n) {
+        transformarEixo(xs, n, sx, dx);
+        transformarEixo(ys, n, sy, dy);
+    }
+
+    /**
+     * Converte n pontos de coordenadas inteiras, no proprio vetor. O
+     * resultado e truncado, como (int) de {@link #x} e {@link #y}.
+     *
+     * @param xs coordenadas x
+     * @param ys coordenadas y
+     * @param n quantidade de pontos
+     */
+    public void transformar(int[] xs, int[] ys, int n) {
+        transformarEixo(xs, n, sx, dx);
+        transformarEixo(ys, n, sy, dy);
+    }
+
+    /**
+     * Converte n pontos intercalados (x0, y0, x1, y1, ...), no proprio vetor.
+     *
+     * @param xy coordenadas intercaladas
+     * @param n quantidade de pontos
+     */
+    public void transformarPares(int[] xy, int n) {
+        for (int i = 0; i < 2 * n; i += 2) {
+            xy[i] = (int) (xy[i] * sx + dx);
+            xy[i + 1] = (int) (xy[i + 1] * sy + dy);
+        }
+    }
+
+    /**
+     * Converte distancias horizontais (raios), no proprio vetor.
+     *
+     * @param as distancias
+     * @param n quantidade de distancias
+     */
+    public void transformarDistancias(int[] as, int n) {
+        transformarEixo(as, n, sx, 0);
+    }
+
+    private static void transformarEixo(double[] v, int n, double s, double d) {
+        for (int i = 0; i < n; i++) {
+            v[i] = v[i] * s + d;
+        }
+    }
+
+    private static void transformarEixo(int[] v, int n, double s, double d) {
+        for (int i = 0; i < n; i++) {
+            v[i] = (int) (v[i] * s + d);
+        }
+    }
+}
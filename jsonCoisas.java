@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import ponto.Ponto;
 import ponto.PontoGr;
@@ -21,6 +22,13 @@ import retangulo.Retangulo;
 import retangulo.RetanguloGraf;
 import triangulo.Triangulo;
 import triangulo.TrianguloGraf;
+import binario.Diario;
+import binario.FormatoEdg;
+import cena.CenaCompacta;
+import forma.EscritorFiguras;
+import forma.Forma;
+import forma.LeitorFiguras;
+import constantes.TipoPrimitivo;
 
 /**
  * Utilitario para salvar e carregar figuras em formato JSON.
@@ -72,151 +80,345 @@ public class jsonCoisas {
     /**
      * Salva uma lista mista de formas graficas em um arquivo JSON.
      * Este metodo e usado pelo PainelDesenho para salvar o estado da tela.
+     * Cada forma e gravada no arquivo assim que e serializada (veja
+     * {@link EscritorFiguras}), sem montar o documento inteiro na memoria.
      * 
-     * @param formas lista de objetos graficos (PontoGr, RetaGr, CirculoGr, etc.)
+     * @param formas lista de formas graficas (PontoGr, RetaGr, CirculoGr, etc.)
      * @param arquivo arquivo onde sera salvo o JSON
      * @throws IOException se houver erro ao escrever no arquivo
      */
-    public static void salvarFormasGraficas(List<Object> formas, File arquivo) throws IOException {
-        JSONArray arrayFormas = new JSONArray();
-
-        for (Object forma : formas) {
-            JSONObject jsonForma = new JSONObject();
-
-            if (forma instanceof PontoGr) {
-                PontoGr p = (PontoGr) forma;
-                jsonForma.put("tipo", "PONTO");
-                jsonForma.put("x", p.getX());
-                jsonForma.put("y", p.getY());
-                jsonForma.put("cor", corToJson(p.getCorPto()));
-                jsonForma.put("espessura", p.getDiametro());
-
-            } else if (forma instanceof RetaGr) {
-                RetaGr r = (RetaGr) forma;
-                jsonForma.put("tipo", "RETA");
-                jsonForma.put("x1", r.p1.getX());
-                jsonForma.put("y1", r.p1.getY());
-                jsonForma.put("x2", r.p2.getX());
-                jsonForma.put("y2", r.p2.getY());
-                jsonForma.put("cor", corToJson(r.getCorReta()));
-                jsonForma.put("espessura", r.getEspReta());
-
-            } else if (forma instanceof RetanguloGraf) {
-                RetanguloGraf r = (RetanguloGraf) forma;
-                jsonForma.put("tipo", "RETANGULO");
-                jsonForma.put("x1", r.getP1().getX());
-                jsonForma.put("y1", r.getP1().getY());
-                jsonForma.put("x2", r.getP2().getX());
-                jsonForma.put("y2", r.getP2().getY());
-                jsonForma.put("cor", corToJson(r.getCor()));
-                jsonForma.put("espessura", r.getEspessura());
-
-            } else if (forma instanceof CirculoGr) {
-                CirculoGr c = (CirculoGr) forma;
-                jsonForma.put("tipo", "CIRCULO");
-                jsonForma.put("centroX", c.getCentro().getX());
-                jsonForma.put("centroY", c.getCentro().getY());
-                jsonForma.put("raio", c.getRaio());
-                jsonForma.put("cor", corToJson(c.getCorCirculo()));
-                jsonForma.put("espessura", c.getEspCirculo());
-
-            } else if (forma instanceof TrianguloGraf) {
-                TrianguloGraf t = (TrianguloGraf) forma;
-                jsonForma.put("tipo", "TRIANGULO");
-                jsonForma.put("x1", t.getP1().getX());
-                jsonForma.put("y1", t.getP1().getY());
-                jsonForma.put("x2", t.getP2().getX());
-                jsonForma.put("y2", t.getP2().getY());
-                jsonForma.put("x3", t.getP3().getX());
-                jsonForma.put("y3", t.getP3().getY());
-                jsonForma.put("cor", corToJson(t.getCor()));
-                jsonForma.put("espessura", t.getEspessura());
-            }
-
-            if (jsonForma.length() > 0) {
-                arrayFormas.put(jsonForma);
+    public static void salvarFormasGraficas(List<Forma> formas, File arquivo) throws IOException {
+        try (EscritorFiguras escritor = new EscritorFiguras(arquivo)) {
+            for (Forma forma : formas) {
+                escritor.escrever(forma);
             }
         }
+    }
 
-        JSONObject root = new JSONObject();
-        root.put("figuras", arrayFormas);
+    /**
+     * Carrega formas graficas de um arquivo JSON, com as operacoes salvas no
+     * diario dele (veja {@link Diario}).
+     * A lista "figuras" e lida uma forma por vez (veja {@link LeitorFiguras}),
+     * sem montar a arvore do documento inteiro.
+     * 
+     * @param arquivo arquivo JSON a ser carregado
+     * @return lista de formas graficas carregadas
+     * @throws IOException se houver erro ao ler o arquivo ou o diario
+     */
+    public static List<Forma> carregarFormasGraficas(File arquivo) throws IOException {
+        return aplicarDiario(arquivo, lerFormasGraficas(arquivo));
+    }
 
-        try (FileWriter file = new FileWriter(arquivo)) {
-            file.write(root.toString(4));
+    /**
+     * Carrega formas graficas de um arquivo JSON em lotes, entregando cada
+     * lote assim que ele fica completo. Quem recebe pode desenhar as formas
+     * enquanto o resto do arquivo ainda esta sendo lido; alem das formas ja
+     * entregues, a memoria usada fica limitada ao tamanho do lote. Se o
+     * diario do arquivo tiver operacoes salvas, que podem desfazer formas ja
+     * lidas, o desenho e carregado inteiro antes de ser entregue.
+     * 
+     * @param arquivo arquivo JSON a ser carregado
+     * @param tamanhoLote quantidade de formas por lote (o ultimo pode ter menos)
+     * @param receptor recebe cada lote, na ordem do arquivo
+     * @throws IOException se houver erro ao ler o arquivo ou o diario
+     */
+    public static void carregarFormasGraficas(File arquivo, int tamanhoLote, Consumer<List<Forma>> receptor)
+            throws IOException {
+        if (Diario.temSalvas(arquivo)) {
+            entregarEmLotes(carregarFormasGraficas(arquivo), tamanhoLote, receptor);
+        } else {
+            lerFormasGraficas(arquivo, tamanhoLote, receptor);
         }
     }
 
     /**
-     * Carrega formas graficas de um arquivo JSON.
-     * Este metodo e usado pelo PainelDesenho para restaurar o estado da tela.
+     * Le as formas de um arquivo JSON sem o diario dele.
+     * Usado pelo PainelDesenho, que reproduz o diario inteiro por conta propria.
      * 
-     * @param arquivo arquivo JSON a ser carregado
-     * @return lista de objetos graficos carregados
+     * @param arquivo arquivo JSON a ser lido
+     * @return formas gravadas no arquivo
      * @throws IOException se houver erro ao ler o arquivo
      */
-    public static List<Object> carregarFormasGraficas(File arquivo) throws IOException {
-        List<Object> formas = new ArrayList<>();
+    static List<Forma> lerFormasGraficas(File arquivo) throws IOException {
+        List<Forma> formas = new ArrayList<>();
+        lerFormasGraficas(arquivo, 4096, formas::addAll);
+        return formas;
+    }
 
-        try (FileReader reader = new FileReader(arquivo)) {
-            JSONObject jsonObject = new JSONObject(new JSONTokener(reader));
-            JSONArray arrayFormas = jsonObject.getJSONArray("figuras");
-
-            for (int i = 0; i < arrayFormas.length(); i++) {
-                JSONObject jsonForma = arrayFormas.getJSONObject(i);
-                String tipo = jsonForma.getString("tipo");
-
-                if (tipo.equals("PONTO")) {
-                    double x = jsonForma.getDouble("x");
-                    double y = jsonForma.getDouble("y");
-                    Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
-                    int esp = jsonForma.getInt("espessura");
-                    formas.add(new PontoGr((int)x, (int)y, cor, esp));
-
-                } else if (tipo.equals("RETA")) {
-                    double x1 = jsonForma.getDouble("x1");
-                    double y1 = jsonForma.getDouble("y1");
-                    double x2 = jsonForma.getDouble("x2");
-                    double y2 = jsonForma.getDouble("y2");
-                    Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
-                    int esp = jsonForma.getInt("espessura");
-                    formas.add(new RetaGr((int)x1, (int)y1, (int)x2, (int)y2, cor, "", esp));
-
-                } else if (tipo.equals("RETANGULO")) {
-                    double x1 = jsonForma.getDouble("x1");
-                    double y1 = jsonForma.getDouble("y1");
-                    double x2 = jsonForma.getDouble("x2");
-                    double y2 = jsonForma.getDouble("y2");
-                    Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
-                    int esp = jsonForma.getInt("espessura");
-                    formas.add(new RetanguloGraf(new Ponto(x1, y1), new Ponto(x2, y2), cor, esp));
-
-                } else if (tipo.equals("CIRCULO")) {
-                    double centroX = jsonForma.getDouble("centroX");
-                    double centroY = jsonForma.getDouble("centroY");
-                    double raio = jsonForma.getDouble("raio");
-                    Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
-                    int esp = jsonForma.getInt("espessura");
-                    formas.add(new CirculoGr((int)centroX, (int)centroY, (int)raio, cor, "", esp));
-
-                } else if (tipo.equals("TRIANGULO")) {
-                    double x1 = jsonForma.getDouble("x1");
-                    double y1 = jsonForma.getDouble("y1");
-                    double x2 = jsonForma.getDouble("x2");
-                    double y2 = jsonForma.getDouble("y2");
-                    double x3 = jsonForma.getDouble("x3");
-                    double y3 = jsonForma.getDouble("y3");
-                    Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
-                    int esp = jsonForma.getInt("espessura");
-                    Ponto p1 = new Ponto(x1, y1);
-                    Ponto p2 = new Ponto(x2, y2);
-                    Ponto p3 = new Ponto(x3, y3);
-                    formas.add(new TrianguloGraf(p1, p2, p3, cor, esp));
+    /**
+     * Le as formas de um arquivo JSON em lotes, sem o diario dele.
+     * 
+     * @param arquivo arquivo JSON a ser lido
+     * @param tamanhoLote quantidade de formas por lote (o ultimo pode ter menos)
+     * @param receptor recebe cada lote, na ordem do arquivo
+     * @throws IOException se houver erro ao ler o arquivo
+     */
+    static void lerFormasGraficas(File arquivo, int tamanhoLote, Consumer<List<Forma>> receptor)
+            throws IOException {
+        List<Forma> lote = new ArrayList<>(tamanhoLote);
+
+        try (LeitorFiguras leitor = new LeitorFiguras(arquivo)) {
+            JSONObject jsonForma;
+            while ((jsonForma = leitor.proximo()) != null) {
+                Forma forma = criarForma(jsonForma);
+                if (forma == null) {
+                    continue;
+                }
+                lote.add(forma);
+                if (lote.size() >= tamanhoLote) {
+                    receptor.accept(lote);
+                    lote = new ArrayList<>(tamanhoLote);
                 }
             }
         }
+        if (!lote.isEmpty()) {
+            receptor.accept(lote);
+        }
+    }
+
+    /**
+     * Salva uma lista mista de formas graficas no formato binario .edg, mais
+     * compacto e mais rapido de ler que o JSON (veja {@link FormatoEdg}).
+     * 
+     * @param formas lista de formas graficas
+     * @param arquivo arquivo onde sera salvo o desenho
+     * @throws IOException se houver erro ao escrever no arquivo
+     */
+    public static void salvarFormasEdg(List<Forma> formas, File arquivo) throws IOException {
+        FormatoEdg.salvar(formas, arquivo);
+    }
+
+    /**
+     * Carrega formas graficas de um arquivo no formato binario .edg, com as
+     * operacoes salvas no diario dele.
+     * 
+     * @param arquivo arquivo .edg a ser carregado
+     * @return lista de formas graficas carregadas
+     * @throws IOException se houver erro ao ler o arquivo ou o diario, ou o arquivo for invalido
+     */
+    public static List<Forma> carregarFormasEdg(File arquivo) throws IOException {
+        return aplicarDiario(arquivo, FormatoEdg.carregar(arquivo));
+    }
+
+    /**
+     * Carrega formas graficas de um arquivo .edg em lotes, como
+     * {@link #carregarFormasGraficas(File, int, Consumer)}.
+     * 
+     * @param arquivo arquivo .edg a ser carregado
+     * @param tamanhoLote quantidade de formas por lote (o ultimo pode ter menos)
+     * @param receptor recebe cada lote, na ordem do arquivo
+     * @throws IOException se houver erro ao ler o arquivo ou o diario, ou o arquivo for invalido
+     */
+    public static void carregarFormasEdg(File arquivo, int tamanhoLote, Consumer<List<Forma>> receptor)
+            throws IOException {
+        if (Diario.temSalvas(arquivo)) {
+            entregarEmLotes(carregarFormasEdg(arquivo), tamanhoLote, receptor);
+        } else {
+            FormatoEdg.carregar(arquivo, tamanhoLote, receptor);
+        }
+    }
+
+    /**
+     * Le as formas de um arquivo .edg sem o diario dele.
+     * 
+     * @param arquivo arquivo .edg a ser lido
+     * @return formas gravadas no arquivo
+     * @throws IOException se houver erro ao ler o arquivo ou ele for invalido
+     */
+    static List<Forma> lerFormasEdg(File arquivo) throws IOException {
+        return FormatoEdg.carregar(arquivo);
+    }
+
+    /**
+     * Le as formas de um arquivo .edg em lotes, sem o diario dele.
+     * 
+     * @param arquivo arquivo .edg a ser lido
+     * @param tamanhoLote quantidade de formas por lote (o ultimo pode ter menos)
+     * @param receptor recebe cada lote, na ordem do arquivo
+     * @throws IOException se houver erro ao ler o arquivo ou ele for invalido
+     */
+    static void lerFormasEdg(File arquivo, int tamanhoLote, Consumer<List<Forma>> receptor)
+            throws IOException {
+        FormatoEdg.carregar(arquivo, tamanhoLote, receptor);
+    }
+
+    /**
+     * Carrega um desenho JSON ou .edg direto para as colunas de uma
+     * {@link CenaCompacta}, sem guardar um objeto por forma, com as
+     * operacoes salvas no diario dele.
+     * 
+     * @param arquivo arquivo JSON ou .edg a ser carregado
+     * @return cena carregada
+     * @throws IOException se houver erro ao ler o arquivo ou o diario, ou o arquivo for invalido
+     */
+    public static CenaCompacta carregarCenaCompacta(File arquivo) throws IOException {
+        CenaCompacta cena;
+        if (ehEdg(arquivo)) {
+            CenaCompacta lida = new CenaCompacta();
+            FormatoEdg.carregar(arquivo, 4096, lote -> {
+                for (Forma forma : lote) {
+                    lida.adicionar(forma);
+                }
+            });
+            cena = lida;
+        } else {
+            cena = CenaCompacta.carregar(arquivo);
+        }
+
+        List<Forma> desfeitas = new ArrayList<>();
+        Diario.reproduzirSalvas(arquivo, new Diario.Receptor() {
+            @Override
+            public void adicionar(Forma forma) {
+                cena.adicionar(forma);
+                desfeitas.clear();
+            }
+
+            @Override
+            public void desfazer() {
+                if (cena.tamanho() > 0) {
+                    desfeitas.add(cena.removerUltima());
+                }
+            }
+
+            @Override
+            public void refazer() {
+                if (!desfeitas.isEmpty()) {
+                    cena.adicionar(desfeitas.remove(desfeitas.size() - 1));
+                }
+            }
+
+            @Override
+            public void limpar() {
+                cena.limpar();
+                desfeitas.clear();
+            }
+        });
+        return cena;
+    }
+
+    /**
+     * Aplica as operacoes salvas no diario do arquivo a lista de formas
+     * lida dele, como o PainelDesenho as aplicou.
+     */
+    private static List<Forma> aplicarDiario(File arquivo, List<Forma> formas) throws IOException {
+        List<Forma> desfeitas = new ArrayList<>();
+        Diario.reproduzirSalvas(arquivo, new Diario.Receptor() {
+            @Override
+            public void adicionar(Forma forma) {
+                formas.add(forma);
+                desfeitas.clear();
+            }
+
+            @Override
+            public void desfazer() {
+                if (!formas.isEmpty()) {
+                    desfeitas.add(formas.remove(formas.size() - 1));
+                }
+            }
+
+            @Override
+            public void refazer() {
+                if (!desfeitas.isEmpty()) {
+                    formas.add(desfeitas.remove(desfeitas.size() - 1));
+                }
+            }
+
+            @Override
+            public void limpar() {
+                formas.clear();
+                desfeitas.clear();
+            }
+        });
         return formas;
     }
 
+    /**
+     * Entrega uma lista ja carregada em lotes do tamanho dado.
+     */
+    private static void entregarEmLotes(List<Forma> formas, int tamanhoLote, Consumer<List<Forma>> receptor) {
+        for (int i = 0; i < formas.size(); i += tamanhoLote) {
+            receptor.accept(new ArrayList<>(formas.subList(i, Math.min(formas.size(), i + tamanhoLote))));
+        }
+    }
+
+    /**
+     * Indica se o arquivo esta no formato binario, pela extensao .edg.
+     * 
+     * @param arquivo arquivo de desenho
+     * @return true se o nome terminar em .edg
+     */
+    public static boolean ehEdg(File arquivo) {
+        return arquivo.getName().toLowerCase().endsWith(".edg");
+    }
+
+    /**
+     * Cria uma forma grafica a partir do seu objeto JSON.
+     * 
+     * @param jsonForma objeto JSON de um elemento da lista "figuras"
+     * @return forma criada, ou null se o tipo for desconhecido
+     */
+    private static Forma criarForma(JSONObject jsonForma) {
+        String tipo = jsonForma.getString("tipo");
+
+        if (tipo.equals("PONTO")) {
+            double x = jsonForma.getDouble("x");
+            double y = jsonForma.getDouble("y");
+            Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
+            int esp = jsonForma.getInt("espessura");
+            return new PontoGr((int)x, (int)y, cor, esp);
+
+        } else if (tipo.equals("RETA")) {
+            double x1 = jsonForma.getDouble("x1");
+            double y1 = jsonForma.getDouble("y1");
+            double x2 = jsonForma.getDouble("x2");
+            double y2 = jsonForma.getDouble("y2");
+            Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
+            int esp = jsonForma.getInt("espessura");
+            RetaGr reta = new RetaGr((int)x1, (int)y1, (int)x2, (int)y2, cor, "", esp);
+            reta.setModo(TipoPrimitivo.valueOf(jsonForma.optString("modo", "RETA_LIB")));
+            return reta;
+
+        } else if (tipo.equals("RETANGULO")) {
+            double x1 = jsonForma.getDouble("x1");
+            double y1 = jsonForma.getDouble("y1");
+            double x2 = jsonForma.getDouble("x2");
+            double y2 = jsonForma.getDouble("y2");
+            Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
+            int esp = jsonForma.getInt("espessura");
+            RetanguloGraf retangulo = new RetanguloGraf(new Ponto(x1, y1), new Ponto(x2, y2), cor, esp);
+            retangulo.setPreenchido(jsonForma.optBoolean("preenchido", false));
+            return retangulo;
+
+        } else if (tipo.equals("CIRCULO")) {
+            double centroX = jsonForma.getDouble("centroX");
+            double centroY = jsonForma.getDouble("centroY");
+            double raio = jsonForma.getDouble("raio");
+            Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
+            int esp = jsonForma.getInt("espessura");
+            CirculoGr circulo = new CirculoGr((int)centroX, (int)centroY, (int)raio, cor, "", esp);
+            circulo.setModo(TipoPrimitivo.valueOf(jsonForma.optString("modo", "CIRCULO_LIB")));
+            circulo.setPreenchido(jsonForma.optBoolean("preenchido", false));
+            return circulo;
+
+        } else if (tipo.equals("TRIANGULO")) {
+            double x1 = jsonForma.getDouble("x1");
+            double y1 = jsonForma.getDouble("y1");
+            double x2 = jsonForma.getDouble("x2");
+            double y2 = jsonForma.getDouble("y2");
+            double x3 = jsonForma.getDouble("x3");
+            double y3 = jsonForma.getDouble("y3");
+            Color cor = jsonToCor(jsonForma.getJSONObject("cor"));
+            int esp = jsonForma.getInt("espessura");
+            Ponto p1 = new Ponto(x1, y1);
+            Ponto p2 = new Ponto(x2, y2);
+            Ponto p3 = new Ponto(x3, y3);
+            TrianguloGraf triangulo = new TrianguloGraf(p1, p2, p3, cor, esp);
+            triangulo.setPreenchido(jsonForma.optBoolean("preenchido", false));
+            return triangulo;
+        }
+        return null;
+    }
+
     /**
      * Le as listas de figuras de um arquivo JSON.
      * Carrega e deserializa todas as figuras contidas no arquivo.
@@ -241,7 +443,7 @@ public class jsonCoisas {
         }
     }
 
-    // --- Mtodos auxiliares de converso ---
+    // --- Métodos auxiliares de conversão ---
 
     /**
      * Converte lista de pontos em JSONArray.
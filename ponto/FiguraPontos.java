@@ -3,6 +3,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 
 import janela.Janela;
+import janela.Mapeamento;
 
 /**
  * Implementacao de metodos estaticos para desenhar ponto.
@@ -44,11 +45,35 @@ public class FiguraPontos {
      * @param diametro int espessura do ponto (diametro)
      */
     public static void desenharPontoViewp(Graphics2D g, Janela window, Janela viewport, int x, int y, String nome, int diametro, Color cor){
-        Ponto pAux = window.calcularNaViewPort(viewport, new Ponto(x, y));
-        PontoGr p = new PontoGr((int)pAux.getX(), (int)pAux.getY(), Color.BLUE, nome, diametro);
+        Mapeamento m = window.mapearPara(viewport);
+        PontoGr p = new PontoGr((int)m.x(x), (int)m.y(y), Color.BLUE, nome, diametro);
         p.desenharPonto(g);
     }
 
+    /**
+     * Desenha n pontos na viewport de uma vez. As coordenadas sao convertidas
+     * em lote, no proprio vetor, e um unico PontoGr e reaproveitado para
+     * todos os pontos.
+     * 
+     * @param g Graphics biblioteca grafica do java
+     * @param window janela de desenho 
+     * @param viewport janela de visualizacao
+     * @param xs coordenadas x dos pontos (convertidas no proprio vetor)
+     * @param ys coordenadas y dos pontos (convertidas no proprio vetor)
+     * @param n quantidade de pontos
+     * @param diametro int espessura do ponto (diametro)
+     * @param cor Color cor dos pontos
+     */
+    public static void desenharPontosViewp(Graphics2D g, Janela window, Janela viewport, int[] xs, int[] ys, int n, int diametro, Color cor){
+        window.mapearPara(viewport).transformar(xs, ys, n);
+        PontoGr p = new PontoGr(0, 0, cor, "", diametro);
+        for (int i = 0; i < n; i++) {
+            p.setX(xs[i]);
+            p.setY(ys[i]);
+            p.desenharPonto(g);
+        }
+    }
+
     /**
      * Desenha varios pontos na janela de desenho
      * 
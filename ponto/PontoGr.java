@@ -2,8 +2,11 @@ package ponto;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import forma.Forma;
+import org.json.JSONObject;
 
-public class PontoGr extends Ponto {
+public class PontoGr extends Ponto implements Forma {
     Color corPto = Color.BLACK; // cor do ponto
     String nomePto = ""; // nome do ponto
     Color corNomePto  = Color.BLACK; // cor do nome (string) do ponto  
@@ -135,10 +138,93 @@ public class PontoGr extends Ponto {
     public void desenharPonto(Graphics2D g){
         // desenha ponto como um oval
         g.setColor(getCorPto());
-        g.fillOval((int)getX() -(getDiametro()/2), (int)getY() - (getDiametro()/2), getDiametro(), getDiametro());
+        tracarPonto(g);
        
         // desenha nome do ponto
         g.setColor(getCorNomePto());
         g.drawString(getNomePto(), (int)getX() + getDiametro(), (int)getY());
     }
+
+    /**
+     * desenha apenas o oval do ponto, com a cor ja definida no contexto grafico
+     * 
+     * @param g contexto grafico
+     */
+    public void tracarPonto(Graphics2D g){
+        g.fillOval((int)getX() -(getDiametro()/2), (int)getY() - (getDiametro()/2), getDiametro(), getDiametro());
+    }
+
+    /**
+     * calcula o retangulo da tela ocupado pelo oval do ponto
+     * 
+     * @return limites do ponto na tela
+     */
+    public Rectangle calcularLimites() {
+        int raio = getDiametro()/2;
+        return new Rectangle((int)getX() - raio - 1, (int)getY() - raio - 1, getDiametro() + 3, getDiametro() + 3);
+    }
+
+    /**
+     * @return etiqueta de tipo do ponto ("PONTO")
+     */
+    @Override
+    public String getTipoForma() {
+        return "PONTO";
+    }
+
+    /**
+     * desenha o ponto completo (oval e nome)
+     * 
+     * @param g contexto grafico
+     */
+    @Override
+    public void desenhar(Graphics2D g) {
+        desenharPonto(g);
+    }
+
+    /**
+     * desenha apenas o oval; se o ponto tiver nome, desenha completo
+     * 
+     * @param g contexto grafico
+     * @return true se o nome foi desenhado (cor do contexto alterada)
+     */
+    @Override
+    public boolean tracar(Graphics2D g) {
+        if (!getNomePto().isEmpty()) {
+            desenharPonto(g);
+            return true;
+        }
+        tracarPonto(g);
+        return false;
+    }
+
+    /**
+     * @return a cor do ponto
+     */
+    @Override
+    public Color getCorTraco() {
+        return getCorPto();
+    }
+
+    /**
+     * @return 0, pois o ponto e preenchido e nao usa traco
+     */
+    @Override
+    public int getEspessuraTraco() {
+        return 0;
+    }
+
+    /**
+     * @return objeto JSON do ponto (tipo, x, y, cor e espessura)
+     */
+    @Override
+    public JSONObject serializar() {
+        JSONObject json = new JSONObject();
+        json.put("tipo", getTipoForma());
+        json.put("x", getX());
+        json.put("y", getY());
+        json.put("cor", Forma.corParaJson(getCorPto()));
+        json.put("espessura", getDiametro());
+        return json;
+    }
 }
@@ -0,0 +1,210 @@
+package raster;
+
+import java.util.Arrays;
+
+/**
+ * Rasterizacao de circulos pelo algoritmo do ponto medio, so com aritmetica
+ * inteira, escrevendo num {@link DestinoSpans} (o int[] de um
+ * {@link RasterInt} ou um Graphics2D por {@link DestinoGraphics}).
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class Circulos {
+
+    private Circulos() {
+    }
+
+    /**
+     * Desenha a borda de um circulo pelo ponto medio.
+     * <p>
+     * Com espessura 1 acende os mesmos pixels de CirculoGr.desenharCirculoMp,
+     * octante por octante; octantes inteiros fora do recorte nao sao
+     * desenhados. Com espessura maior, preenche o anel entre dois circulos
+     * do ponto medio, de raios raio + esp/2 e raio + esp/2 - esp + 1, com
+     * um ou dois trechos horizontais por linha.
+     * </p>
+     *
+     * @param d destino dos pixels
+     * @param cx coordenada x do centro
+     * @param cy coordenada y do centro
+     * @param raio raio do circulo
+     * @param argb cor
+     * @param esp espessura da borda
+     */
+    public static void mp(DestinoSpans d, int cx, int cy, int raio, int argb, int esp) {
+        int ext = esp > 1 ? raio + esp / 2 : raio;
+        if (raio < 0 || !d.cruza(cx - ext, cy - ext, cx + ext, cy + ext)) {
+            return;
+        }
+        if (esp > 1) {
+            preencherAnel(d, cx, cy, ext, ext - esp + 1, argb);
+        } else {
+            contorno(d, cx, cy, raio, argb);
+        }
+    }
+
+    /**
+     * Preenche um disco com um trecho horizontal por linha. A largura de cada
+     * linha vem do circulo do ponto medio de mesmo raio, de modo que o disco
+     * cobre exatamente a borda desenhada por {@link #mp} e o seu interior.
+     * Linhas fora do recorte nao sao desenhadas.
+     *
+     * @param d destino dos trechos
+     * @param cx coordenada x do centro
+     * @param cy coordenada y do centro
+     * @param raio raio do disco
+     * @param argb cor
+     */
+    public static void disco(DestinoSpans d, int cx, int cy, int raio, int argb) {
+        if (raio < 0 || !d.cruza(cx - raio, cy - raio, cx + raio, cy + raio)) {
+            return;
+        }
+        preencherAnel(d, cx, cy, raio, 0, argb);
+    }
+
+    /**
+     * Borda de espessura 1: oito pontos simetricos por passo, sem repetir os
+     * pontos que coincidem sobre os eixos e sobre a diagonal.
+     */
+    private static void contorno(DestinoSpans d, int cx, int cy, int raio, int argb) {
+        int octantes = octantesVisiveis(d, cx, cy, raio);
+        if (octantes == 0) {
+            return;
+        }
+
+        // d = 1 - R decide igual a 5/4 - R, ja que d so varia de inteiros
+        int x = 0;
+        int y = raio;
+        int dec = 1 - raio;
+        simetricos(d, octantes, cx, cy, x, y, argb);
+        while (y > x) {
+            if (dec < 0) {
+                dec += 2 * x + 3;
+            } else {
+                dec += 2 * (x - y) + 5;
+                y--;
+            }
+            x++;
+            simetricos(d, octantes, cx, cy, x, y, argb);
+        }
+    }
+
+    /**
+     * Calcula quais octantes tem pixels dentro do recorte (um bit por
+     * octante, na ordem de {@link #simetricos}).
+     */
+    private static int octantesVisiveis(DestinoSpans d, int cx, int cy, int raio) {
+        // no primeiro octante x vai de 0 a ~R/sqrt(2) e y de ~R/sqrt(2) a R;
+        // a caixa tem um pixel de folga para o ultimo passo do laco
+        int h = (int) Math.sqrt(raio * (double) raio / 2) + 1;
+        int a0 = 0, a1 = h + 1, b0 = Math.max(0, h - 2), b1 = raio;
+        int bits = 0;
+        if (d.cruza(cx + a0, cy + b0, cx + a1, cy + b1)) bits |= 1;    // (cx+x, cy+y)
+        if (d.cruza(cx + b0, cy + a0, cx + b1, cy + a1)) bits |= 2;    // (cx+y, cy+x)
+        if (d.cruza(cx - b1, cy + a0, cx - b0, cy + a1)) bits |= 4;    // (cx-y, cy+x)
+        if (d.cruza(cx - a1, cy + b0, cx - a0, cy + b1)) bits |= 8;    // (cx-x, cy+y)
+        if (d.cruza(cx - a1, cy - b1, cx - a0, cy - b0)) bits |= 16;   // (cx-x, cy-y)
+        if (d.cruza(cx - b1, cy - a1, cx - b0, cy - a0)) bits |= 32;   // (cx-y, cy-x)
+        if (d.cruza(cx + b0, cy - a1, cx + b1, cy - a0)) bits |= 64;   // (cx+y, cy-x)
+        if (d.cruza(cx + a0, cy - b1, cx + a1, cy - b0)) bits |= 128;  // (cx+x, cy-y)
+        return bits;
+    }
+
+    /**
+     * Acende os pontos simetricos de (x, y) nos octantes visiveis.
+     */
+    private static void simetricos(DestinoSpans d, int octantes, int cx, int cy, int x, int y, int argb) {
+        espelhados(d, octantes, 1, 128, 8, 16, cx, cy, x, y, argb);
+        if (x != y) {
+            espelhados(d, octantes, 2, 64, 4, 32, cx, cy, y, x, argb);
+        }
+    }
+
+    /**
+     * Acende (cx+-a, cy+-b) sem repetir pontos quando a ou b e zero. Os bits
+     * indicam o octante de cada combinacao de sinais.
+     */
+    private static void espelhados(DestinoSpans d, int octantes, int pp, int pn, int np, int nn,
+                                   int cx, int cy, int a, int b, int argb) {
+        if ((octantes & pp) != 0) {
+            d.ponto(cx + a, cy + b, argb);
+        }
+        if (b != 0 && (octantes & pn) != 0) {
+            d.ponto(cx + a, cy - b, argb);
+        }
+        if (a != 0) {
+            if ((octantes & np) != 0) {
+                d.ponto(cx - a, cy + b, argb);
+            }
+            if (b != 0 && (octantes & nn) != 0) {
+                d.ponto(cx - a, cy - b, argb);
+            }
+        }
+    }
+
+    /**
+     * Borda espessa: preenche, linha a linha, o anel entre o circulo externo
+     * e o interno, incluindo os pixels dos dois. Sem circulo interno
+     * (inter menor ou igual a 0), preenche o disco inteiro.
+     */
+    private static void preencherAnel(DestinoSpans d, int cx, int cy, int ext, int inter, int argb) {
+        int[] maxExt = new int[ext + 1];
+        extremosPorLinha(ext, maxExt, true);
+        int[] minInt = null;
+        if (inter > 0) {
+            minInt = new int[inter + 1];
+            Arrays.fill(minInt, Integer.MAX_VALUE);
+            extremosPorLinha(inter, minInt, false);
+        }
+
+        for (int dy = -ext; dy <= ext; dy++) {
+            int linha = cy + dy;
+            int ady = Math.abs(dy);
+            int xo = maxExt[ady];
+            if (!d.cruza(cx - xo, linha, cx + xo, linha)) {
+                continue;
+            }
+            if (minInt != null && ady <= inter && minInt[ady] > 0) {
+                int xi = minInt[ady];
+                d.spanH(cx - xo, cx - xi, linha, argb);
+                d.spanH(cx + xi, cx + xo, linha, argb);
+            } else {
+                d.spanH(cx - xo, cx + xo, linha, argb);
+            }
+        }
+    }
+
+    /**
+     * Percorre o circulo do ponto medio e guarda, para cada distancia ao
+     * centro na vertical, o maior (ou o menor) deslocamento horizontal
+     * dos pixels do circulo naquela linha.
+     */
+    private static void extremosPorLinha(int raio, int[] porLinha, boolean maior) {
+        int x = 0;
+        int y = raio;
+        int dec = 1 - raio;
+        guardar(porLinha, maior, y, x);
+        guardar(porLinha, maior, x, y);
+        while (y > x) {
+            if (dec < 0) {
+                dec += 2 * x + 3;
+            } else {
+                dec += 2 * (x - y) + 5;
+                y--;
+            }
+            x++;
+            guardar(porLinha, maior, y, x);
+            guardar(porLinha, maior, x, y);
+        }
+    }
+
+    private static void guardar(int[] porLinha, boolean maior, int linha, int dx) {
+        if (linha < porLinha.length) {
+            porLinha[linha] = maior ? Math.max(porLinha[linha], dx) : Math.min(porLinha[linha], dx);
+        }
+    }
+}
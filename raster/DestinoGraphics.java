@@ -0,0 +1,116 @@
+package raster;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+/**
+ * Destino de spans que desenha cada trecho com um unico fillRect num
+ * Graphics2D. A cor so e trocada quando muda de um trecho para o seguinte.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class DestinoGraphics implements DestinoSpans {
+
+    /** Contexto grafico de destino */
+    private final Graphics2D g;
+
+    /** Regiao de recorte do contexto, ou null se nao houver */
+    private final Rectangle clip;
+
+    /** Cor definida por ultimo no contexto */
+    private int corAtual;
+
+    /** Indica se alguma cor ja foi definida */
+    private boolean temCor = false;
+
+    /** Cores translucidas ja criadas para a mistura, por alfa */
+    private Color[] translucidas;
+
+    /** Cor (sem alfa) das cores translucidas guardadas */
+    private int rgbTranslucidas;
+
+    /**
+     * Construtor do destino.
+     *
+     * @param g contexto grafico de destino
+     */
+    public DestinoGraphics(Graphics2D g) {
+        this.g = g;
+        this.clip = g.getClipBounds();
+    }
+
+    @Override
+    public boolean cruza(int x0, int y0, int x1, int y1) {
+        return clip == null || (x1 >= clip.x && x0 < clip.x + clip.width
+            && y1 >= clip.y && y0 < clip.y + clip.height);
+    }
+
+    @Override
+    public int primeiraLinha() {
+        return clip == null ? Integer.MIN_VALUE : clip.y;
+    }
+
+    @Override
+    public int ultimaLinha() {
+        return clip == null ? Integer.MAX_VALUE : clip.y + clip.height - 1;
+    }
+
+    @Override
+    public void ponto(int x, int y, int argb) {
+        cor(argb);
+        g.fillRect(x, y, 1, 1);
+    }
+
+    /**
+     * Pinta o pixel com a cor de alfa reduzido pela cobertura. As cores sao
+     * criadas uma vez por nivel de alfa, e nao a cada pixel.
+     */
+    @Override
+    public void misturar(int x, int y, int argb, int cobertura) {
+        int a = ((argb >>> 24) * cobertura + 127) / 255;
+        if (a == 0) {
+            return;
+        }
+        int rgb = argb & 0xffffff;
+        if (translucidas == null || rgb != rgbTranslucidas) {
+            translucidas = new Color[256];
+            rgbTranslucidas = rgb;
+        }
+        Color c = translucidas[a];
+        if (c == null) {
+            c = new Color(a << 24 | rgb, true);
+            translucidas[a] = c;
+        }
+        g.setColor(c);
+        temCor = false;
+        g.fillRect(x, y, 1, 1);
+    }
+
+    @Override
+    public void spanH(int x0, int x1, int y, int argb) {
+        cor(argb);
+        g.fillRect(Math.min(x0, x1), y, Math.abs(x1 - x0) + 1, 1);
+    }
+
+    @Override
+    public void spanV(int x, int y0, int y1, int argb) {
+        cor(argb);
+        g.fillRect(x, Math.min(y0, y1), 1, Math.abs(y1 - y0) + 1);
+    }
+
+    /**
+     * Define a cor no contexto se ela mudou.
+     */
+    private void cor(int argb) {
+        if (!temCor || argb != corAtual) {
+            g.setColor(new Color(argb, true));
+            corAtual = argb;
+            temCor = true;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package raster;
+
+/**
+ * Destino de pixels e de trechos (spans) de uma cor, horizontais ou verticais.
+ * Permite que o mesmo algoritmo de rasterizacao escreva num {@link RasterInt}
+ * ou, por meio de {@link DestinoGraphics}, em qualquer Graphics2D.
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public interface DestinoSpans {
+
+    /**
+     * Indica se um retangulo da tela cruza a regiao desenhavel do destino.
+     *
+     * @param x0 menor x (inclusivo)
+     * @param y0 menor y (inclusivo)
+     * @param x1 maior x (inclusivo)
+     * @param y1 maior y (inclusivo)
+     * @return true se algum pixel do retangulo puder ser pintado
+     */
+    boolean cruza(int x0, int y0, int x1, int y1);
+
+    /**
+     * Retorna a primeira linha que pode ser pintada. Os rasterizadores por
+     * linha de varredura comecam nela em vez de rejeitar linha a linha.
+     *
+     * @return menor y desenhavel, ou Integer.MIN_VALUE se nao houver limite
+     */
+    default int primeiraLinha() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Retorna a ultima linha que pode ser pintada.
+     *
+     * @return maior y desenhavel, ou Integer.MAX_VALUE se nao houver limite
+     */
+    default int ultimaLinha() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Pinta um pixel.
+     *
+     * @param x coordenada x da tela
+     * @param y coordenada y da tela
+     * @param argb cor opaca
+     */
+    void ponto(int x, int y, int argb);
+
+    /**
+     * Mistura uma cor sobre um pixel, com a cobertura dada (suavizacao).
+     * A opacidade efetiva e a do alfa da cor vezes a cobertura.
+     *
+     * @param x coordenada x da tela
+     * @param y coordenada y da tela
+     * @param argb cor, com alfa
+     * @param cobertura fracao do pixel coberta, de 0 a 255
+     */
+    void misturar(int x, int y, int argb, int cobertura);
+
+    /**
+     * Pinta um trecho horizontal de pixels, de x0 a x1 (inclusivos).
+     *
+     * @param x0 primeiro x
+     * @param x1 ultimo x
+     * @param y linha
+     * @param argb cor opaca
+     */
+    void spanH(int x0, int x1, int y, int argb);
+
+    /**
+     * Pinta um trecho vertical de pixels, de y0 a y1 (inclusivos).
+     *
+     * @param x coluna
+     * @param y0 primeiro y
+     * @param y1 ultimo y
+     * @param argb cor opaca
+     */
+    void spanV(int x, int y0, int y1, int argb);
+}
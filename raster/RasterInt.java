@@ -0,0 +1,246 @@
+package raster;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Acesso direto aos pixels de uma BufferedImage do tipo TYPE_INT_ARGB ou
+ * TYPE_INT_RGB, para que os algoritmos de rasterizacao escrevam no vetor
+ * int[] da imagem em vez de chamar o Graphics2D a cada pixel.
+ * <p>
+ * As coordenadas recebidas sao coordenadas da tela; a origem indica qual
+ * ponto da tela corresponde ao pixel (0, 0) da imagem, o que permite usar a
+ * mesma forma em ladrilhos deslocados. Toda escrita e recortada a regiao de
+ * recorte, que por padrao e a imagem inteira.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class RasterInt implements DestinoSpans {
+
+    /** Pixels da imagem, linha a linha */
+    private final int[] pixels;
+
+    /** Largura da imagem (passo entre linhas) */
+    private final int largura;
+
+    /** Altura da imagem */
+    private final int altura;
+
+    /** Indica se a imagem tem canal alfa (TYPE_INT_ARGB) */
+    private final boolean comAlfa;
+
+    /** Ponto da tela correspondente ao pixel (0, 0) da imagem */
+    private final int origemX, origemY;
+
+    /** Regiao de recorte, em coordenadas da tela (x1 e y1 exclusivos) */
+    private int clipX0, clipY0, clipX1, clipY1;
+
+    /**
+     * Construtor do raster sobre uma imagem posicionada na origem da tela.
+     *
+     * @param imagem imagem do tipo TYPE_INT_ARGB ou TYPE_INT_RGB
+     */
+    public RasterInt(BufferedImage imagem) {
+        this(imagem, 0, 0);
+    }
+
+    /**
+     * Construtor do raster sobre uma imagem deslocada na tela.
+     *
+     * @param imagem imagem do tipo TYPE_INT_ARGB ou TYPE_INT_RGB
+     * @param origemX coordenada x da tela correspondente a coluna 0 da imagem
+     * @param origemY coordenada y da tela correspondente a linha 0 da imagem
+     * @throws IllegalArgumentException se a imagem nao for de pixels int
+     */
+    public RasterInt(BufferedImage imagem, int origemX, int origemY) {
+        if (!suporta(imagem)) {
+            throw new IllegalArgumentException("imagem deve ser TYPE_INT_ARGB ou TYPE_INT_RGB");
+        }
+        this.pixels = ((DataBufferInt) imagem.getRaster().getDataBuffer()).getData();
+        this.largura = imagem.getWidth();
+        this.altura = imagem.getHeight();
+        this.comAlfa = imagem.getType() == BufferedImage.TYPE_INT_ARGB;
+        this.origemX = origemX;
+        this.origemY = origemY;
+        recortarTudo();
+    }
+
+    /**
+     * Indica se uma imagem pode ser acessada por um RasterInt.
+     *
+     * @param imagem imagem a verificar
+     * @return true se a imagem for TYPE_INT_ARGB ou TYPE_INT_RGB
+     */
+    public static boolean suporta(BufferedImage imagem) {
+        return imagem.getType() == BufferedImage.TYPE_INT_ARGB
+            || imagem.getType() == BufferedImage.TYPE_INT_RGB;
+    }
+
+    /**
+     * Restringe a escrita a uma regiao da tela (intersecao com a imagem).
+     *
+     * @param regiao regiao da tela, ou null para a imagem inteira
+     */
+    public void setRecorte(Rectangle regiao) {
+        recortarTudo();
+        if (regiao != null) {
+            clipX0 = Math.max(clipX0, regiao.x);
+            clipY0 = Math.max(clipY0, regiao.y);
+            clipX1 = Math.min(clipX1, regiao.x + regiao.width);
+            clipY1 = Math.min(clipY1, regiao.y + regiao.height);
+        }
+    }
+
+    /**
+     * Retorna a regiao de recorte atual, em coordenadas da tela.
+     *
+     * @return regiao de recorte
+     */
+    public Rectangle getRecorte() {
+        return new Rectangle(clipX0, clipY0, Math.max(0, clipX1 - clipX0), Math.max(0, clipY1 - clipY0));
+    }
+
+    /**
+     * Indica se um retangulo da tela cruza a regiao de recorte.
+     *
+     * @param x0 menor x (inclusivo)
+     * @param y0 menor y (inclusivo)
+     * @param x1 maior x (inclusivo)
+     * @param y1 maior y (inclusivo)
+     * @return true se houver algum pixel do retangulo dentro do recorte
+     */
+    @Override
+    public boolean cruza(int x0, int y0, int x1, int y1) {
+        return x1 >= clipX0 && x0 < clipX1 && y1 >= clipY0 && y0 < clipY1;
+    }
+
+    @Override
+    public int primeiraLinha() {
+        return clipY0;
+    }
+
+    @Override
+    public int ultimaLinha() {
+        return clipY1 - 1;
+    }
+
+    /**
+     * Pinta um pixel, se estiver dentro do recorte.
+     *
+     * @param x coordenada x da tela
+     * @param y coordenada y da tela
+     * @param argb cor opaca
+     */
+    @Override
+    public void ponto(int x, int y, int argb) {
+        if (x >= clipX0 && x < clipX1 && y >= clipY0 && y < clipY1) {
+            pixels[(y - origemY) * largura + (x - origemX)] = argb;
+        }
+    }
+
+    /**
+     * Mistura uma cor sobre um pixel (composicao "src over"), com a
+     * opacidade do alfa da cor vezes a cobertura. So usa aritmetica inteira.
+     *
+     * @param x coordenada x da tela
+     * @param y coordenada y da tela
+     * @param argb cor, com alfa
+     * @param cobertura fracao do pixel coberta, de 0 a 255
+     */
+    @Override
+    public void misturar(int x, int y, int argb, int cobertura) {
+        if (x < clipX0 || x >= clipX1 || y < clipY0 || y >= clipY1) {
+            return;
+        }
+        int sa = ((argb >>> 24) * cobertura + 127) / 255;
+        if (sa == 0) {
+            return;
+        }
+        int i = (y - origemY) * largura + (x - origemX);
+        if (sa == 255) {
+            pixels[i] = argb;
+            return;
+        }
+        int dst = pixels[i];
+        int da = comAlfa ? dst >>> 24 : 255;
+        int fundo = da * (255 - sa);          // peso do destino, escala 255*255
+        int oa = sa * 255 + fundo;            // alfa resultante, escala 255*255
+        if (oa == 0) {
+            return;
+        }
+        int r = ((argb >> 16 & 0xff) * sa * 255 + (dst >> 16 & 0xff) * fundo + oa / 2) / oa;
+        int g = ((argb >> 8 & 0xff) * sa * 255 + (dst >> 8 & 0xff) * fundo + oa / 2) / oa;
+        int b = ((argb & 0xff) * sa * 255 + (dst & 0xff) * fundo + oa / 2) / oa;
+        pixels[i] = ((oa + 127) / 255) << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Pinta um trecho horizontal de pixels, de x0 a x1 (inclusivos).
+     *
+     * @param x0 primeiro x
+     * @param x1 ultimo x
+     * @param y linha
+     * @param argb cor opaca
+     */
+    @Override
+    public void spanH(int x0, int x1, int y, int argb) {
+        if (y < clipY0 || y >= clipY1) {
+            return;
+        }
+        if (x0 > x1) {
+            int t = x0;
+            x0 = x1;
+            x1 = t;
+        }
+        x0 = Math.max(x0, clipX0);
+        x1 = Math.min(x1, clipX1 - 1);
+        if (x0 > x1) {
+            return;
+        }
+        int base = (y - origemY) * largura - origemX;
+        Arrays.fill(pixels, base + x0, base + x1 + 1, argb);
+    }
+
+    /**
+     * Pinta um trecho vertical de pixels, de y0 a y1 (inclusivos).
+     *
+     * @param x coluna
+     * @param y0 primeiro y
+     * @param y1 ultimo y
+     * @param argb cor opaca
+     */
+    @Override
+    public void spanV(int x, int y0, int y1, int argb) {
+        if (x < clipX0 || x >= clipX1) {
+            return;
+        }
+        if (y0 > y1) {
+            int t = y0;
+            y0 = y1;
+            y1 = t;
+        }
+        y0 = Math.max(y0, clipY0);
+        y1 = Math.min(y1, clipY1 - 1);
+        int i = (y0 - origemY) * largura + (x - origemX);
+        for (int y = y0; y <= y1; y++, i += largura) {
+            pixels[i] = argb;
+        }
+    }
+
+    /**
+     * Volta o recorte para a imagem inteira.
+     */
+    private void recortarTudo() {
+        clipX0 = origemX;
+        clipY0 = origemY;
+        clipX1 = origemX + largura;
+        clipY1 = origemY + altura;
+    }
+}
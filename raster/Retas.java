@@ -0,0 +1,164 @@
+package raster;
+
+import java.awt.BasicStroke;
+
+/**
+ * Algoritmos de rasterizacao de retas que escrevem num {@link DestinoSpans}
+ * (o int[] de um {@link RasterInt} ou um Graphics2D por {@link DestinoGraphics}).
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class Retas {
+
+    private Retas() {
+    }
+
+    /**
+     * Desenha uma reta pelo algoritmo do ponto medio (Bresenham), com os
+     * mesmos pixels que o laco original de RetaGr.desenharRetaMp. Com
+     * espessura maior que 1, desenha a reta espessa com pontas redondas
+     * por {@link TracosEspessos}.
+     *
+     * @param r destino dos pixels
+     * @param x1 coordenada x do primeiro extremo
+     * @param y1 coordenada y do primeiro extremo
+     * @param x2 coordenada x do segundo extremo
+     * @param y2 coordenada y do segundo extremo
+     * @param argb cor opaca
+     * @param esp espessura
+     */
+    public static void mp(DestinoSpans r, int x1, int y1, int x2, int y2, int argb, int esp) {
+        if (esp > 1) {
+            TracosEspessos.reta(r, x1, y1, x2, y2, argb, esp, BasicStroke.CAP_ROUND);
+            return;
+        }
+        // descarta retas inteiramente fora do recorte
+        if (!r.cruza(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2))) {
+            return;
+        }
+
+        int dx = Math.abs(x2 - x1);
+        int dy = Math.abs(y2 - y1);
+        int incx = x2 < x1 ? -1 : 1;
+        int incy = y2 < y1 ? -1 : 1;
+        int x = x1, y = y1;
+
+        r.ponto(x, y, argb);
+        if (dx > dy) {
+            int e = 2 * dy - dx;
+            int inc1 = 2 * (dy - dx);
+            int inc2 = 2 * dy;
+            for (int i = 0; i < dx; i++) {
+                if (e >= 0) {
+                    y += incy;
+                    e += inc1;
+                } else {
+                    e += inc2;
+                }
+                x += incx;
+                r.ponto(x, y, argb);
+            }
+        } else {
+            int e = 2 * dx - dy;
+            int inc1 = 2 * (dx - dy);
+            int inc2 = 2 * dx;
+            for (int i = 0; i < dy; i++) {
+                if (e >= 0) {
+                    x += incx;
+                    e += inc1;
+                } else {
+                    e += inc2;
+                }
+                y += incy;
+                r.ponto(x, y, argb);
+            }
+        }
+    }
+
+    /**
+     * Desenha uma reta pela equacao y = mx + b, em trechos horizontais (retas
+     * mais deitadas) ou verticais (retas mais em pe), com os mesmos pixels que
+     * RetaGr.desenharRetaEq sempre escolheu: y = (int)(m*x + b) percorrendo x,
+     * ou x = (int)((y - b)/m) percorrendo y.
+     * <p>
+     * No ramo em pe, x e calculado pela equacao inversa x = y/m + b', que nao
+     * divide a cada passo nem perde precisao perto da vertical. A divisao
+     * original so e feita quando o valor cai muito perto de um inteiro, onde
+     * o arredondamento das duas formulas poderia escolher pixels diferentes.
+     * </p>
+     *
+     * @param d destino dos trechos
+     * @param x1 coordenada x do primeiro extremo
+     * @param y1 coordenada y do primeiro extremo
+     * @param x2 coordenada x do segundo extremo
+     * @param y2 coordenada y do segundo extremo
+     * @param argb cor opaca
+     * @param esp espessura; maior que 1, a reta espessa e desenhada com
+     *        pontas redondas por {@link TracosEspessos}
+     */
+    public static void eq(DestinoSpans d, int x1, int y1, int x2, int y2, int argb, int esp) {
+        if (esp > 1) {
+            TracosEspessos.reta(d, x1, y1, x2, y2, argb, esp, BasicStroke.CAP_ROUND);
+            return;
+        }
+        if (!d.cruza(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2))) {
+            return;
+        }
+
+        if (x1 == x2) { // reta vertical: um unico trecho
+            d.spanV(x1, Math.min(y1, y2), Math.max(y1, y2), argb);
+            return;
+        }
+
+        double m = (double) (y2 - y1) / (x2 - x1);
+        double b = y1 - m * x1;
+
+        if (Math.abs(x2 - x1) > Math.abs(y2 - y1)) { // percorre pelo x
+            int ini = Math.min(x1, x2), fim = Math.max(x1, x2);
+            int inicio = ini;
+            int yTrecho = (int) (m * ini + b);
+            for (int x = ini + 1; x <= fim; x++) {
+                int y = (int) (m * x + b);
+                if (y != yTrecho) {
+                    d.spanH(inicio, x - 1, yTrecho, argb);
+                    inicio = x;
+                    yTrecho = y;
+                }
+            }
+            d.spanH(inicio, fim, yTrecho, argb);
+
+        } else { // percorre pelo y
+            double mi = (double) (x2 - x1) / (y2 - y1);
+            double bi = x1 - mi * y1;
+            int ini = Math.min(y1, y2), fim = Math.max(y1, y2);
+            int inicio = ini;
+            int xTrecho = xEmPe(ini, m, b, mi, bi);
+            for (int y = ini + 1; y <= fim; y++) {
+                int x = xEmPe(y, m, b, mi, bi);
+                if (x != xTrecho) {
+                    d.spanV(xTrecho, inicio, y - 1, argb);
+                    inicio = y;
+                    xTrecho = x;
+                }
+            }
+            d.spanV(xTrecho, inicio, fim, argb);
+        }
+    }
+
+    /**
+     * Calcula o x de uma linha y no ramo em pe da reta EQ.
+     * Longe de inteiros, a equacao inversa trunca para o mesmo valor que
+     * (y - b)/m; perto deles, usa a divisao original para decidir igual.
+     */
+    private static int xEmPe(int y, double m, double b, double mi, double bi) {
+        double u = mi * y + bi;
+        if (Math.abs(u - Math.rint(u)) < 1e-6) {
+            return (int) ((y - b) / m);
+        }
+        return (int) u;
+    }
+}
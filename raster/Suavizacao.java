@@ -0,0 +1,256 @@
+package raster;
+
+/**
+ * Retas e circulos suavizados (anti-aliasing) pelo algoritmo de Xiaolin Wu,
+ * misturando a cor em cada pixel de acordo com a fracao coberta. So a forma
+ * desenhada fica suavizada, sem ligar a suavizacao do Graphics2D inteiro.
+ * <p>
+ * Com espessura 1, cada passo acende os dois pixels vizinhos ao traco ideal,
+ * com coberturas que somam 1. Com espessura maior, a cobertura de cada pixel
+ * vem da sua distancia ao traco ideal: 1 ate a meia espessura, caindo a 0
+ * no meio pixel seguinte.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class Suavizacao {
+
+    private Suavizacao() {
+    }
+
+    /**
+     * Desenha uma reta suavizada.
+     *
+     * @param d destino dos pixels
+     * @param x1 coordenada x do primeiro extremo
+     * @param y1 coordenada y do primeiro extremo
+     * @param x2 coordenada x do segundo extremo
+     * @param y2 coordenada y do segundo extremo
+     * @param argb cor, com alfa
+     * @param esp espessura
+     */
+    public static void reta(DestinoSpans d, int x1, int y1, int x2, int y2, int argb, int esp) {
+        int m = esp / 2 + 2;
+        if (!d.cruza(Math.min(x1, x2) - m, Math.min(y1, y2) - m, Math.max(x1, x2) + m, Math.max(y1, y2) + m)) {
+            return;
+        }
+        if (esp > 1) {
+            retaEspessa(d, x1, y1, x2, y2, argb, esp / 2.0);
+            return;
+        }
+
+        boolean emPe = Math.abs(y2 - y1) > Math.abs(x2 - x1);
+        if (emPe) { // percorre pelo y: troca os papeis de x e y
+            int t = x1; x1 = y1; y1 = t;
+            t = x2; x2 = y2; y2 = t;
+        }
+        if (x1 > x2) {
+            int t = x1; x1 = x2; x2 = t;
+            t = y1; y1 = y2; y2 = t;
+        }
+        int dx = x2 - x1;
+        double grad = dx == 0 ? 0 : (double) (y2 - y1) / dx;
+
+        // extremos inteiros caem no centro de um pixel: cobertura total
+        plotar(d, emPe, x1, y1, argb, 255);
+        if (dx == 0) {
+            return;
+        }
+        plotar(d, emPe, x2, y2, argb, 255);
+
+        double yReal = y1 + grad;
+        for (int x = x1 + 1; x < x2; x++) {
+            int yBase = (int) Math.floor(yReal);
+            int frac = (int) ((yReal - yBase) * 255 + 0.5);
+            plotar(d, emPe, x, yBase, argb, 255 - frac);
+            plotar(d, emPe, x, yBase + 1, argb, frac);
+            yReal += grad;
+        }
+    }
+
+    /**
+     * Desenha a borda de um circulo suavizada.
+     *
+     * @param d destino dos pixels
+     * @param cx coordenada x do centro
+     * @param cy coordenada y do centro
+     * @param raio raio do circulo
+     * @param argb cor, com alfa
+     * @param esp espessura da borda
+     */
+    public static void circulo(DestinoSpans d, int cx, int cy, int raio, int argb, int esp) {
+        int m = raio + esp / 2 + 2;
+        if (raio < 0 || !d.cruza(cx - m, cy - m, cx + m, cy + m)) {
+            return;
+        }
+        if (esp > 1) {
+            anel(d, cx, cy, raio, argb, esp / 2.0);
+            return;
+        }
+
+        // primeiro octante: x de 0 ate a diagonal (x <= y, ou 2x^2 <= R^2),
+        // y real = sqrt(R^2 - x^2), dividido entre as linhas floor(y) e floor(y) + 1
+        long r2 = (long) raio * raio;
+        for (int x = 0; 2L * x * x <= r2; x++) {
+            double yReal = Math.sqrt(r2 - (long) x * x);
+            int yBase = (int) yReal;
+            int frac = (int) ((yReal - yBase) * 255 + 0.5);
+            simetricos(d, cx, cy, x, yBase, argb, 255 - frac);
+            if (frac > 0) {
+                simetricos(d, cx, cy, x, yBase + 1, argb, frac);
+            }
+        }
+    }
+
+    /**
+     * Mistura o ponto (x, y) do primeiro octante nos oito octantes, sem
+     * repetir pixels sobre os eixos e sobre a diagonal.
+     */
+    private static void simetricos(DestinoSpans d, int cx, int cy, int x, int y, int argb, int cob) {
+        espelhados(d, cx, cy, x, y, argb, cob);
+        if (x != y) {
+            espelhados(d, cx, cy, y, x, argb, cob);
+        }
+    }
+
+    /**
+     * Mistura (cx+-a, cy+-b) sem repetir pixels quando a ou b e zero.
+     */
+    private static void espelhados(DestinoSpans d, int cx, int cy, int a, int b, int argb, int cob) {
+        d.misturar(cx + a, cy + b, argb, cob);
+        if (b != 0) {
+            d.misturar(cx + a, cy - b, argb, cob);
+        }
+        if (a != 0) {
+            d.misturar(cx - a, cy + b, argb, cob);
+            if (b != 0) {
+                d.misturar(cx - a, cy - b, argb, cob);
+            }
+        }
+    }
+
+    /**
+     * Mistura um pixel da reta, desfazendo a troca de x e y das retas em pe.
+     */
+    private static void plotar(DestinoSpans d, boolean emPe, int x, int y, int argb, int cob) {
+        if (cob <= 0) {
+            return;
+        }
+        if (emPe) {
+            d.misturar(y, x, argb, cob);
+        } else {
+            d.misturar(x, y, argb, cob);
+        }
+    }
+
+    /**
+     * Reta espessa com pontas redondas: em cada linha percorre so os pixels
+     * a ate w + 0.5 do segmento e mistura cada um pela sua distancia a ele.
+     */
+    private static void retaEspessa(DestinoSpans d, int ax, int ay, int bx, int by, int argb, double w) {
+        double vx = bx - ax, vy = by - ay;
+        double len2 = vx * vx + vy * vy;
+        double len = Math.sqrt(len2);
+        double alcance = w + 0.5;
+        double a2 = alcance * alcance;
+
+        // retangulo do corpo alargado; reta de um ponto so fica com os discos
+        double nx = len == 0 ? 0 : -vy / len * alcance, ny = len == 0 ? 0 : vx / len * alcance;
+        double p0x = ax + nx, p0y = ay + ny, p1x = bx + nx, p1y = by + ny;
+        double p2x = bx - nx, p2y = by - ny, p3x = ax - nx, p3y = ay - ny;
+
+        // so as linhas do recorte, como em TracosEspessos.reta
+        int linhaIni = Math.max((int) Math.floor(Math.min(ay, by) - alcance), d.primeiraLinha());
+        int linhaFim = Math.min((int) Math.ceil(Math.max(ay, by) + alcance), d.ultimaLinha());
+        for (int py = linhaIni; py <= linhaFim; py++) {
+            // a figura e convexa: a uniao dos cortes do retangulo e dos dois
+            // discos das pontas e um intervalo so
+            double xe = Double.POSITIVE_INFINITY, xd = Double.NEGATIVE_INFINITY;
+            double c;
+            if (!Double.isNaN(c = corte(py, p0x, p0y, p1x, p1y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (!Double.isNaN(c = corte(py, p1x, p1y, p2x, p2y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (!Double.isNaN(c = corte(py, p2x, p2y, p3x, p3y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (!Double.isNaN(c = corte(py, p3x, p3y, p0x, p0y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            double t = a2 - (double) (py - ay) * (py - ay);
+            if (t >= 0) {
+                double s = Math.sqrt(t);
+                xe = Math.min(xe, ax - s);
+                xd = Math.max(xd, ax + s);
+            }
+            t = a2 - (double) (py - by) * (py - by);
+            if (t >= 0) {
+                double s = Math.sqrt(t);
+                xe = Math.min(xe, bx - s);
+                xd = Math.max(xd, bx + s);
+            }
+            int px0 = (int) Math.ceil(xe), px1 = (int) Math.floor(xd);
+            if (px0 > px1 || !d.cruza(px0, py, px1, py)) {
+                continue;
+            }
+
+            for (int px = px0; px <= px1; px++) {
+                // distancia do centro do pixel ao ponto mais proximo do segmento
+                double u = len2 == 0 ? 0 : ((px - ax) * vx + (py - ay) * vy) / len2;
+                u = Math.max(0, Math.min(1, u));
+                double qx = px - (ax + u * vx), qy = py - (ay + u * vy);
+                misturarPorDistancia(d, px, py, argb, w, Math.sqrt(qx * qx + qy * qy));
+            }
+        }
+    }
+
+    /**
+     * Calcula o x em que a linha y corta uma aresta, ou NaN se nao cortar.
+     */
+    private static double corte(double y, double xi, double yi, double xj, double yj) {
+        if (yi == yj || y < Math.min(yi, yj) || y > Math.max(yi, yj)) {
+            return Double.NaN;
+        }
+        return xi + (y - yi) * (xj - xi) / (yj - yi);
+    }
+
+    /**
+     * Borda espessa do circulo: em cada linha percorre so os pixels do anel
+     * alargado de meio pixel e mistura cada um pela distancia ao circulo.
+     */
+    private static void anel(DestinoSpans d, int cx, int cy, int raio, int argb, double w) {
+        double ext = raio + w + 0.5, inter = raio - w - 0.5;
+        int alcance = (int) Math.ceil(ext);
+        for (int dy = -alcance; dy <= alcance; dy++) {
+            int py = cy + dy;
+            double t = ext * ext - (double) dy * dy;
+            if (t < 0) {
+                continue;
+            }
+            int xo = (int) Math.floor(Math.sqrt(t));
+            if (!d.cruza(cx - xo, py, cx + xo, py)) {
+                continue;
+            }
+            // colunas de dentro do anel interno ficam de fora
+            double ti = inter > 0 ? inter * inter - (double) dy * dy : -1;
+            int xi = ti > 0 ? (int) Math.ceil(Math.sqrt(ti)) : 0;
+            for (int dx = xi; dx <= xo; dx++) {
+                double dist = Math.abs(Math.sqrt((double) dx * dx + (double) dy * dy) - raio);
+                misturarPorDistancia(d, cx + dx, py, argb, w, dist);
+                if (dx != 0) {
+                    misturarPorDistancia(d, cx - dx, py, argb, w, dist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mistura um pixel com cobertura 1 ate a distancia w do traco ideal,
+     * caindo linearmente ate 0 em w + 1.
+     */
+    private static void misturarPorDistancia(DestinoSpans d, int x, int y, int argb, double w, double dist) {
+        double cob = w + 0.5 - dist;
+        if (cob <= 0) {
+            return;
+        }
+        d.misturar(x, y, argb, cob >= 1 ? 255 : (int) (cob * 255 + 0.5));
+    }
+}
@@ -0,0 +1,129 @@
+package raster;
+
+import java.awt.BasicStroke;
+
+/**
+ * Retas espessas desenhadas como um poligono convexo preenchido por linhas
+ * de varredura: um unico trecho horizontal por linha da tela. O custo cresce
+ * com a area coberta, e nao com o numero de marcas sobrepostas ao longo da
+ * reta.
+ * <p>
+ * A reta de espessura e vai de um extremo ao outro com e/2 pixels para cada
+ * lado. O centro fica onde ficaria o centro de um fillOval de diametro e
+ * no pixel do extremo, e um pixel e pintado quando o seu centro cai dentro
+ * da figura, como no preenchimento do Java2D.
+ * </p>
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public final class TracosEspessos {
+
+    private TracosEspessos() {
+    }
+
+    /**
+     * Desenha uma reta espessa.
+     *
+     * @param d destino dos trechos
+     * @param x1 coordenada x do primeiro extremo
+     * @param y1 coordenada y do primeiro extremo
+     * @param x2 coordenada x do segundo extremo
+     * @param y2 coordenada y do segundo extremo
+     * @param argb cor
+     * @param esp espessura, em pixels
+     * @param ponta BasicStroke.CAP_ROUND (semicirculos nos extremos),
+     *        CAP_SQUARE (prolonga e/2 alem dos extremos) ou CAP_BUTT (sem ponta)
+     */
+    public static void reta(DestinoSpans d, int x1, int y1, int x2, int y2, int argb, int esp, int ponta) {
+        double w = esp / 2.0;
+        double o = (esp % 2) * 0.5;
+        double ax = x1 + o, ay = y1 + o;
+        double bx = x2 + o, by = y2 + o;
+
+        // direcao (ux, uy) e normal (-uy, ux); reta de um ponto so usa a horizontal
+        double len = Math.hypot(bx - ax, by - ay);
+        if (len == 0 && ponta == BasicStroke.CAP_BUTT) {
+            return;
+        }
+        double ux = len == 0 ? 1 : (bx - ax) / len;
+        double uy = len == 0 ? 0 : (by - ay) / len;
+        double ext = ponta == BasicStroke.CAP_SQUARE ? w : 0;
+        double nx = -uy * w, ny = ux * w;
+
+        // retangulo do corpo da reta (com a ponta quadrada, se for o caso)
+        double sx = ax - ux * ext, sy = ay - uy * ext;
+        double ex = bx + ux * ext, ey = by + uy * ext;
+        double p0x = sx + nx, p0y = sy + ny;
+        double p1x = ex + nx, p1y = ey + ny;
+        double p2x = ex - nx, p2y = ey - ny;
+        double p3x = sx - nx, p3y = sy - ny;
+        boolean redonda = ponta == BasicStroke.CAP_ROUND;
+
+        double minY = Math.min(Math.min(p0y, p1y), Math.min(p2y, p3y));
+        double maxY = Math.max(Math.max(p0y, p1y), Math.max(p2y, p3y));
+        double minX = Math.min(Math.min(p0x, p1x), Math.min(p2x, p3x));
+        double maxX = Math.max(Math.max(p0x, p1x), Math.max(p2x, p3x));
+        if (redonda) {
+            minY = Math.min(minY, Math.min(ay, by) - w);
+            maxY = Math.max(maxY, Math.max(ay, by) + w);
+            minX = Math.min(minX, Math.min(ax, bx) - w);
+            maxX = Math.max(maxX, Math.max(ax, bx) + w);
+        }
+        if (!d.cruza((int) Math.floor(minX), (int) Math.floor(minY), (int) Math.ceil(maxX), (int) Math.ceil(maxY))) {
+            return;
+        }
+
+        // so as linhas do recorte: num ladrilho, uma reta longa nao percorre as demais
+        int linhaIni = Math.max((int) Math.ceil(minY - 0.5), d.primeiraLinha());
+        int linhaFim = Math.min((int) Math.ceil(maxY - 0.5) - 1, d.ultimaLinha());
+        double w2 = w * w;
+        for (int py = linhaIni; py <= linhaFim; py++) {
+            double yc = py + 0.5;
+            double xe = Double.POSITIVE_INFINITY, xd = Double.NEGATIVE_INFINITY;
+
+            // a figura e convexa: a linha de varredura corta cada parte num
+            // intervalo, e a uniao dos intervalos e um intervalo so
+            double c;
+            if (!Double.isNaN(c = corte(yc, p0x, p0y, p1x, p1y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (!Double.isNaN(c = corte(yc, p1x, p1y, p2x, p2y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (!Double.isNaN(c = corte(yc, p2x, p2y, p3x, p3y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (!Double.isNaN(c = corte(yc, p3x, p3y, p0x, p0y))) { xe = Math.min(xe, c); xd = Math.max(xd, c); }
+            if (redonda) {
+                double t = w2 - (yc - ay) * (yc - ay);
+                if (t > 0) {
+                    double s = Math.sqrt(t);
+                    xe = Math.min(xe, ax - s);
+                    xd = Math.max(xd, ax + s);
+                }
+                t = w2 - (yc - by) * (yc - by);
+                if (t > 0) {
+                    double s = Math.sqrt(t);
+                    xe = Math.min(xe, bx - s);
+                    xd = Math.max(xd, bx + s);
+                }
+            }
+
+            // pixels cujo centro (px + 0.5) esta em [xe, xd)
+            int px0 = (int) Math.ceil(xe - 0.5);
+            int px1 = (int) Math.ceil(xd - 0.5) - 1;
+            if (px0 <= px1) {
+                d.spanH(px0, px1, py, argb);
+            }
+        }
+    }
+
+    /**
+     * Calcula o x em que a linha de varredura yc corta uma aresta, ou NaN se
+     * nao cortar. A aresta inclui o extremo de menor y e exclui o de maior y.
+     */
+    private static double corte(double yc, double xi, double yi, double xj, double yj) {
+        if ((yi <= yc && yc < yj) || (yj <= yc && yc < yi)) {
+            return xi + (yc - yi) * (xj - xi) / (yj - yi);
+        }
+        return Double.NaN;
+    }
+}
@@ -1,9 +1,10 @@
 package reta;
 import constantes.Constantes;
+import constantes.TipoPrimitivo;
 import janela.Janela;
+import janela.Mapeamento;
 import java.awt.Color;
 import java.awt.Graphics2D;
-import ponto.Ponto;
 
 /**
  * Desenha figuras com retas.
@@ -69,9 +70,8 @@ public class FiguraRetas {
      * @param cor
      */
     public static void desenharRetaLibViewp(Graphics2D g, Janela window, Janela viewport, int x1, int y1, int x2, int y2, String nome, int esp, Color cor){
-        Ponto pAux1 = window.calcularNaViewPort(viewport, new Ponto(x1, y1));
-        Ponto pAux2 = window.calcularNaViewPort(viewport, new Ponto(x2, y2));
-        RetaGr r = new RetaGr((int)pAux1.getX(),(int)pAux1.getY(), (int)pAux2.getX(), (int)pAux2.getY(), Color.BLUE, nome, esp);
+        Mapeamento m = window.mapearPara(viewport);
+        RetaGr r = new RetaGr((int)m.x(x1), (int)m.y(y1), (int)m.x(x2), (int)m.y(y2), Color.BLUE, nome, esp);
         r.desenharRetaLib(g );
     }
     
@@ -88,9 +88,8 @@ public class FiguraRetas {
      * @param cor
      */
     public static void desenharRetaEqViewp(Graphics2D g, Janela window, Janela viewport, int x1, int y1, int x2, int y2, String nome, int esp, Color cor){
-        Ponto pAux1 = window.calcularNaViewPort(viewport, new Ponto(x1, y1));
-        Ponto pAux2 = window.calcularNaViewPort(viewport, new Ponto(x2, y2));
-        RetaGr r = new RetaGr((int)pAux1.getX(),(int)pAux1.getY(), (int)pAux2.getX(), (int)pAux2.getY(), Color.BLUE, nome, esp);
+        Mapeamento m = window.mapearPara(viewport);
+        RetaGr r = new RetaGr((int)m.x(x1), (int)m.y(y1), (int)m.x(x2), (int)m.y(y2), Color.BLUE, nome, esp);
         r.desenharRetaEq(g );
     }
     
@@ -107,12 +106,44 @@ public class FiguraRetas {
      * @param cor
      */
     public static void desenharRetaMpViewp(Graphics2D g, Janela window, Janela viewport, int x1, int y1, int x2, int y2, String nome, int esp, Color cor){
-        Ponto pAux1 = window.calcularNaViewPort(viewport, new Ponto(x1, y1));
-        Ponto pAux2 = window.calcularNaViewPort(viewport, new Ponto(x2, y2));
-        RetaGr r = new RetaGr((int)pAux1.getX(),(int)pAux1.getY(), (int)pAux2.getX(), (int)pAux2.getY(), Color.BLUE, nome, esp);
+        Mapeamento m = window.mapearPara(viewport);
+        RetaGr r = new RetaGr((int)m.x(x1), (int)m.y(y1), (int)m.x(x2), (int)m.y(y2), Color.BLUE, nome, esp);
         r.desenharRetaMp(g );
     }
    
+    /**
+     * Desenha n retas na viewport de uma vez. As coordenadas sao convertidas
+     * em lote, no proprio vetor, e uma unica RetaGr e reaproveitada para
+     * todas as retas.
+     *
+     * @param g Graphics2D
+     * @param window janela de desenho
+     * @param viewport janela de visualizacao
+     * @param x1s coordenadas x do primeiro ponto (convertidas no proprio vetor)
+     * @param y1s coordenadas y do primeiro ponto (convertidas no proprio vetor)
+     * @param x2s coordenadas x do segundo ponto (convertidas no proprio vetor)
+     * @param y2s coordenadas y do segundo ponto (convertidas no proprio vetor)
+     * @param n quantidade de retas
+     * @param esp espessura
+     * @param cor cor das retas
+     * @param modo RETA_LIB, RETA_EQ, RETA_MP ou RETA_AA
+     */
+    public static void desenharRetasViewp(Graphics2D g, Janela window, Janela viewport, int[] x1s, int[] y1s,
+                                          int[] x2s, int[] y2s, int n, int esp, Color cor, TipoPrimitivo modo){
+        Mapeamento m = window.mapearPara(viewport);
+        m.transformar(x1s, y1s, n);
+        m.transformar(x2s, y2s, n);
+        RetaGr r = new RetaGr(0, 0, 0, 0, cor, "", esp);
+        r.setModo(modo);
+        for (int i = 0; i < n; i++) {
+            r.getP1().setX(x1s[i]);
+            r.getP1().setY(y1s[i]);
+            r.getP2().setX(x2s[i]);
+            r.getP2().setY(y2s[i]);
+            r.desenhar(g);
+        }
+    }
+
     /**
      * @param g
      * @param qtde
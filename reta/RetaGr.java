@@ -1,8 +1,16 @@
 package reta;
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import cena.Tracos;
+import constantes.TipoPrimitivo;
+import forma.Forma;
+import java.awt.Rectangle;
+import org.json.JSONObject;
 import ponto.PontoGr;
+import raster.DestinoGraphics;
+import raster.RasterInt;
+import raster.Retas;
+import raster.Suavizacao;
 
 /**
  * Implementacao da classe reta grafica.
@@ -10,12 +18,13 @@ import ponto.PontoGr;
  * @author Julio Arakaki
  * @version 1.0 - 24/08/2020
  */
-public class RetaGr extends Reta{
+public class RetaGr extends Reta implements Forma {
     // Atributos da reta grafica
     Color corReta = Color.BLACK;   // cor da reta
     String nomeReta = ""; // nome da reta
     Color corNomeReta  = Color.BLACK;
     int espReta = 1; // espessura da reta
+    TipoPrimitivo modo = TipoPrimitivo.RETA_LIB; // algoritmo usado no desenho
 
     // Construtores
     /**
@@ -170,6 +179,24 @@ public class RetaGr extends Reta{
         return nomeReta;
     }
 
+    /**
+     * Retorna o modo de desenho da reta.
+     *
+     * @return TipoPrimitivo. RETA_LIB, RETA_EQ, RETA_MP ou RETA_AA.
+     */
+    public TipoPrimitivo getModo() {
+        return modo;
+    }
+
+    /**
+     * Altera o modo de desenho da reta.
+     *
+     * @param modo TipoPrimitivo. RETA_LIB, RETA_EQ, RETA_MP ou RETA_AA.
+     */
+    public void setModo(TipoPrimitivo modo) {
+        this.modo = modo;
+    }
+
     /**
      * @return the corNomeReta
      */
@@ -187,16 +214,12 @@ public class RetaGr extends Reta{
      * @param g Biblioteca Grafica Graphics2D
      */
     public void desenharRetaLib(Graphics2D g){
-        // pega p1 e p2 da reta
-        int x1 = (int)getP1().getX(), x2 = (int)getP2().getX();
-        int y1 = (int)getP1().getY(), y2 = (int)getP2().getY();
-        // seta cor e espessura
+        // seta cor e espessura (traco compartilhado, sem alocacao)
         g.setColor(getCorReta());
-        //ponto.setDiametro(getEspReta());
-        g.setStroke(new BasicStroke((float)getEspReta()));
+        g.setStroke(Tracos.obter(getEspReta()));
         
         // desenha ponto como um drawline
-        g.drawLine(x1, y1, x2, y2);
+        tracarRetaLib(g);
         
         // desenha nome do circulo
         g.setColor(getCorNomeReta());
@@ -204,186 +227,184 @@ public class RetaGr extends Reta{
         
     }
     /**
-     * Desenha reta grafica utilizando a equacao da reta: y = mx + b
+     * Desenha apenas o traco da reta, usando a cor e a espessura ja definidas
+     * no contexto grafico (desenho em lotes de mesmo estilo).
+     *
+     * @param g Biblioteca Grafica Graphics2D
+     */
+    public void tracarRetaLib(Graphics2D g){
+        g.drawLine((int)getP1().getX(), (int)getP1().getY(), (int)getP2().getX(), (int)getP2().getY());
+    }
+
+    /**
+     * Desenha reta grafica utilizando a equacao da reta: y = mx + b.
+     * Os pixels consecutivos de mesma linha (ou coluna) sao agrupados em
+     * trechos, desenhados cada um com um unico fillRect. Com espessura maior
+     * que 1, a reta e preenchida por trechos, com pontas redondas.
      *
      * @param g Graphics. Classe com os metodos graficos do Java
      */
     public void desenharRetaEq(Graphics2D g){
+        // desenha nome da reta
+        g.setColor(getCorNomeReta());
+        g.drawString(getNomeReta(), (int)getP1().getX() + getEspReta(), (int)getP1().getY());
 
-        // calcula m e b da equacao da reta y = mx + b
-        double m = calcularM();
-        double b = calcularB();
+        Retas.eq(new DestinoGraphics(g), (int)getP1().getX(), (int)getP1().getY(),
+            (int)getP2().getX(), (int)getP2().getY(), getCorReta().getRGB(), getEspReta());
+    }
 
-        // Variaveis auxiliares
-        PontoGr ponto = new PontoGr(); 
-        double x, y;
+    /**
+     * Desenha reta utilizando o algoritmo de MidPoint (Bresenham). Com espessura
+     * maior que 1, a reta e preenchida por trechos, com pontas redondas.
+     * @param g
+     */
+    public void desenharRetaMp(Graphics2D g){
+        // desenha nome da reta
+        g.setColor(getCorNomeReta());
+        g.drawString(getNomeReta(), (int)getP1().getX() + getEspReta(), (int)getP1().getY());
 
-        double pIni;
-        double pFim;
+        Retas.mp(new DestinoGraphics(g), (int)getP1().getX(), (int)getP1().getY(),
+            (int)getP2().getX(), (int)getP2().getY(), getCorReta().getRGB(), getEspReta());
+    }
 
+    /**
+     * Desenha reta suavizada pelo algoritmo de Xiaolin Wu: cada pixel recebe
+     * a cor com opacidade proporcional a fracao coberta pela reta. So esta
+     * reta fica suavizada, sem ligar a suavizacao do Graphics2D.
+     *
+     * @param g Graphics. Classe com os metodos graficos do Java
+     */
+    public void desenharRetaAa(Graphics2D g){
         // desenha nome da reta
         g.setColor(getCorNomeReta());
         g.drawString(getNomeReta(), (int)getP1().getX() + getEspReta(), (int)getP1().getY());
 
-        if(p1.getX() == p2.getX()) { // reta vertical
-            // Caso 1: y1 < y2
-            if (p1.getY() < p2.getY()){
-                pIni = p1.getY();
-                pFim = p2.getY();
-            } else { // Caso 2: y1 > y2
-                pIni = p2.getY();
-                pFim = p1.getY();            
-            }
-            // percorre de y1 ate y2. 
-            // x e� calculado pela equacao: x = (y - b) / m
-            for(y = pIni; y <= pFim; ++y){ // percorre de y1 ate y2
-                // x1 e x2 s�o iguais
-                x = p1.getX(); // ou x = p2.getX()
-
-                // Define ponto grafico
-                //ponto = new PontoGr((int)x, (int)y, getCorReta(), getEspReta());
-                ponto.setX((int)x);
-                ponto.setY((int)y);
-                ponto.setCorPto(getCorReta());
-                ponto.setDiametro(getEspReta());
-
-                // Desenha ponto grafico
-                ponto.desenharPonto(g);
-            }
-        } else {
-            double deltaX = Math.abs(p1.getX() - p2.getX());
-            double deltaY = Math.abs(p1.getY() - p2.getY());
-
-            if (deltaX > deltaY){ // percorre pelo x
-                // Caso 1: x1 < x2
-                if (p1.getX() < p2.getX()){
-                    pIni = p1.getX();
-                    pFim = p2.getX();
-                } else { // Caso 2: x1 > x2
-                    pIni = p2.getX();
-                    pFim = p1.getX();            
-                }
-
-                // percorre de x1 ate x2. 
-                // y e� calculado pela equacao: y = mx + b
-                for(x = pIni; x <= pFim; ++x){ 
-                    // Calculo de y pela equacao da reta
-                    y = (m*x + b);
-
-                    // Define ponto grafico
-                    //ponto = new PontoGr((int)x, (int)y, getCorReta(), getEspReta());
-                    ponto.setX((int)x);
-                    ponto.setY((int)y);
-                    ponto.setCorPto(getCorReta());
-                    ponto.setDiametro(getEspReta());
-
-                    // Desenha ponto grafico
-                    ponto.desenharPonto(g);
-                }
-            } else { //deltaY > deltaX, percorre pelo y
-                // Caso 1: y1 < y2
-                if (p1.getY() < p2.getY()){
-                    pIni = p1.getY();
-                    pFim = p2.getY();
-                } else { // Caso 2: y1 > y2
-                    pIni = p2.getY();
-                    pFim = p1.getY();            
-                }
-                // percorre de y1 ate y2. 
-                // x e� calculado pela equacao: x = (y - b) / m
-                for(y = pIni; y <= pFim; ++y){ // percorre de y1 ate y2
-                    // Calculo de x pela equacao da reta
-                    x = ((y - b)/m);
-
-                    // Define ponto grafico
-                    //ponto = new PontoGr((int)x, (int)y, getCorReta(), getEspReta());
-                    ponto.setX((int)x);
-                    ponto.setY((int)y);
-                    ponto.setCorPto(getCorReta());
-                    ponto.setDiametro(getEspReta());
-
-                    // Desenha ponto grafico
-                    ponto.desenharPonto(g);
-                }
-            }
-        }
+        Suavizacao.reta(new DestinoGraphics(g), (int)getP1().getX(), (int)getP1().getY(),
+            (int)getP2().getX(), (int)getP2().getY(), getCorReta().getRGB(), getEspReta());
     }
 
     /**
-     * Desenha reta utilizando o algoritmo de MidPoint (Bresenham)
-     * @param g
+     * Calcula o retangulo da tela ocupado pela reta, incluindo a espessura.
+     * A margem de uma espessura inteira cobre a ponta quadrada do traco
+     * mesmo quando a reta esta na diagonal.
+     *
+     * @return Rectangle. Limites da reta na tela.
      */
-    void desenharRetaMp(Graphics2D g){
-
+    public Rectangle calcularLimites() {
         int x1 = (int)getP1().getX(), x2 = (int)getP2().getX();
         int y1 = (int)getP1().getY(), y2 = (int)getP2().getY();
+        int margem = getEspReta() + 1;
+        return new Rectangle(Math.min(x1, x2) - margem, Math.min(y1, y2) - margem,
+            Math.abs(x2 - x1) + 2*margem + 1, Math.abs(y2 - y1) + 2*margem + 1);
+    }
+
+    /**
+     * Retorna a etiqueta de tipo da reta.
+     *
+     * @return String. "RETA"
+     */
+    @Override
+    public String getTipoForma() {
+        return "RETA";
+    }
 
-        int dx = x2-x1;
-        int dy = y2-y1;
+    /**
+     * Desenha a reta completa com a biblioteca grafica.
+     *
+     * @param g Biblioteca Grafica Graphics2D
+     */
+    @Override
+    public void desenhar(Graphics2D g) {
+        if (modo == TipoPrimitivo.RETA_MP) {
+            desenharRetaMp(g);
+        } else if (modo == TipoPrimitivo.RETA_EQ) {
+            desenharRetaEq(g);
+        } else if (modo == TipoPrimitivo.RETA_AA) {
+            desenharRetaAa(g);
+        } else {
+            desenharRetaLib(g);
+        }
+    }
 
-        int i, e;
-        int incx, incy, inc1, inc2;
-        int x,y;
+    /**
+     * Desenha apenas o traco da reta; se ela tiver nome, desenha completa.
+     *
+     * @param g Biblioteca Grafica Graphics2D
+     * @return boolean. true se o nome foi desenhado (estado do contexto alterado)
+     */
+    @Override
+    public boolean tracar(Graphics2D g) {
+        if (!getNomeReta().isEmpty() || modo != TipoPrimitivo.RETA_LIB) {
+            desenhar(g);
+            return true;
+        }
+        tracarRetaLib(g);
+        return false;
+    }
 
-        if (dx < 0) dx = -dx;
-        if (dy < 0) dy = -dy;
-        incx = 1;
-        if (x2 < x1) incx = -1;
-        incy = 1;
-        if (y2 < y1) incy = -1;
-        x = x1; y = y1;
+    /**
+     * Nos modos RETA_MP, RETA_EQ e RETA_AA, desenha a reta direto nos pixels
+     * do raster. Retas com nome, ou de cor translucida fora do modo RETA_AA
+     * (que ja mistura as cores), usam o Graphics2D.
+     *
+     * @param r RasterInt. Pixels da imagem de destino.
+     * @return boolean. true se a reta foi desenhada no raster.
+     */
+    @Override
+    public boolean rasterizar(RasterInt r) {
+        if (modo == TipoPrimitivo.RETA_LIB || !getNomeReta().isEmpty()) {
+            return false;
+        }
+        if (modo != TipoPrimitivo.RETA_AA && getCorReta().getAlpha() != 255) {
+            return false;
+        }
+        int x1 = (int)getP1().getX(), y1 = (int)getP1().getY();
+        int x2 = (int)getP2().getX(), y2 = (int)getP2().getY();
+        if (modo == TipoPrimitivo.RETA_AA) {
+            Suavizacao.reta(r, x1, y1, x2, y2, getCorReta().getRGB(), getEspReta());
+        } else if (modo == TipoPrimitivo.RETA_MP) {
+            Retas.mp(r, x1, y1, x2, y2, getCorReta().getRGB(), getEspReta());
+        } else {
+            Retas.eq(r, x1, y1, x2, y2, getCorReta().getRGB(), getEspReta());
+        }
+        return true;
+    }
 
-        PontoGr ponto = new PontoGr(); 
-        // desenha nome da reta
-        g.setColor(getCorNomeReta());
-        g.drawString(getNomeReta(), (int)getP1().getX() + getEspReta(), (int)getP1().getY());
+    /**
+     * @return Color. Cor da reta.
+     */
+    @Override
+    public Color getCorTraco() {
+        return getCorReta();
+    }
 
-        if (dx > dy) {
-            ponto.setX(x);
-            ponto.setY(y);
-            ponto.setCorPto(getCorReta());
-            ponto.setDiametro(getEspReta());
-            ponto.desenharPonto(g);
-            e = 2 * dy-dx;
-            inc1 = 2*(dy-dx);
-            inc2 = 2*dy;
-            for (i=0; i<dx; i++) {
-                if (e >= 0) {
-                    y += incy;
-                    e += inc1;
-                }
-                else
-                    e += inc2;
-                x += incx;
-                ponto.setX(x);
-                ponto.setY(y);
-                ponto.setCorPto(getCorReta());
-                ponto.setDiametro(getEspReta());
-                ponto.desenharPonto(g);
-            }
+    /**
+     * @return int. Espessura da reta.
+     */
+    @Override
+    public int getEspessuraTraco() {
+        return getEspReta();
+    }
 
-        } else {
-            ponto.setX(x);
-            ponto.setY(y);
-            ponto.desenharPonto(g);
-            e = 2*dx-dy;
-            inc1 = 2*(dx-dy);
-            inc2 = 2*dx;
-            for (i=0; i<dy; i++) {
-                if (e >= 0) {
-                    x += incx;
-                    e += inc1;
-                }
-                else
-                    e += inc2;
-                y += incy;
-                ponto.setX(x);
-                ponto.setY(y);
-                ponto.setCorPto(getCorReta());
-                ponto.setDiametro(getEspReta());
-                ponto.desenharPonto(g);
-            }
+    /**
+     * Converte a reta para o objeto JSON da lista "figuras".
+     *
+     * @return JSONObject. Tipo, extremos, cor e espessura da reta.
+     */
+    @Override
+    public JSONObject serializar() {
+        JSONObject json = new JSONObject();
+        json.put("tipo", getTipoForma());
+        json.put("x1", p1.getX());
+        json.put("y1", p1.getY());
+        json.put("x2", p2.getX());
+        json.put("y2", p2.getY());
+        json.put("cor", Forma.corParaJson(getCorReta()));
+        json.put("espessura", getEspReta());
+        if (modo != TipoPrimitivo.RETA_LIB) {
+            json.put("modo", modo.name());
         }
+        return json;
     }
 
     /**
@@ -0,0 +1,136 @@
+package reta;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import raster.RasterInt;
+import raster.Retas;
+
+/**
+ * Teste de regressao da reta pela equacao (RETA_EQ) com espessura 1.
+ * Compara, pixel a pixel, os trechos desenhados por {@link Retas#eq} (no
+ * raster e pelo Graphics2D de {@link RetaGr#desenharRetaEq}) com os pixels
+ * escolhidos pelo laco original, que calculava um ponto por vez com
+ * y = mx + b ou x = (y - b)/m.
+ * Uso: java reta.TestaRetaEq [quantidade de retas aleatorias]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaRetaEq {
+    static final int LARG = 400, ALT = 300;
+    static final int COR = 0xff000000 | Color.RED.getRGB();
+
+    public static void main(String args[]) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        Random r = new Random(11);
+        int falhas = 0, total = 0;
+
+        // casos especiais: vertical, horizontal, diagonais, quase verticais, ponto unico
+        int[][] casos = {
+            {50, 20, 50, 250}, {50, 250, 50, 20}, {10, 100, 390, 100}, {390, 100, 10, 100},
+            {0, 0, 299, 299}, {299, 0, 0, 299}, {100, 10, 101, 290}, {101, 10, 100, 290},
+            {200, 150, 200, 150}, {7, 3, 393, 297}, {393, 3, 7, 297}, {30, 280, 370, 20},
+            {-50, -40, 450, 340}, {-100, 150, 500, 160}, {200, -80, 210, 380}
+        };
+        for (int[] c : casos) {
+            falhas += comparar(c[0], c[1], c[2], c[3], null);
+            total++;
+        }
+
+        // retas aleatorias, parte delas com extremos fora da imagem
+        for (int i = 0; i < n; i++) {
+            int x1 = r.nextInt(LARG + 200) - 100, y1 = r.nextInt(ALT + 200) - 100;
+            int x2 = r.nextInt(LARG + 200) - 100, y2 = r.nextInt(ALT + 200) - 100;
+            falhas += comparar(x1, y1, x2, y2, null);
+            total++;
+        }
+
+        // retas recortadas por uma regiao menor que a imagem
+        Rectangle recorte = new Rectangle(60, 40, 150, 120);
+        for (int i = 0; i < n / 4; i++) {
+            int x1 = r.nextInt(LARG), y1 = r.nextInt(ALT);
+            int x2 = r.nextInt(LARG), y2 = r.nextInt(ALT);
+            falhas += comparar(x1, y1, x2, y2, recorte);
+            total++;
+        }
+
+        System.out.println("retas testadas: " + total + ", com diferencas: " + falhas);
+        System.out.println(falhas == 0 ? "OK" : "FALHOU");
+    }
+
+    /**
+     * Desenha uma reta pelos tres caminhos e conta 1 se algum diferir do laco original.
+     */
+    private static int comparar(int x1, int y1, int x2, int y2, Rectangle recorte) {
+        BufferedImage esperado = new BufferedImage(LARG, ALT, BufferedImage.TYPE_INT_RGB);
+        desenharOriginal(esperado, x1, y1, x2, y2, recorte);
+
+        BufferedImage noRaster = new BufferedImage(LARG, ALT, BufferedImage.TYPE_INT_RGB);
+        RasterInt raster = new RasterInt(noRaster);
+        if (recorte != null) {
+            raster.setRecorte(recorte);
+        }
+        Retas.eq(raster, x1, y1, x2, y2, COR, 1);
+
+        BufferedImage noGraphics = new BufferedImage(LARG, ALT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = noGraphics.createGraphics();
+        if (recorte != null) {
+            g.setClip(recorte);
+        }
+        RetaGr reta = new RetaGr(x1, y1, x2, y2, Color.RED, "", 1);
+        reta.desenharRetaEq(g);
+        g.dispose();
+
+        if (igual(esperado, noRaster) && igual(esperado, noGraphics)) {
+            return 0;
+        }
+        System.out.println("diferenca na reta (" + x1 + "," + y1 + ") - (" + x2 + "," + y2 + ")"
+            + (recorte != null ? " com recorte" : ""));
+        return 1;
+    }
+
+    /**
+     * Reproduz a escolha de pixels do laco original de desenharRetaEq,
+     * um pixel por passo, em aritmetica double.
+     */
+    private static void desenharOriginal(BufferedImage img, int x1, int y1, int x2, int y2, Rectangle recorte) {
+        double m = (double) (y2 - y1) / (x2 - x1);
+        double b = y1 - m * x1;
+        if (x1 == x2) {
+            for (double y = Math.min(y1, y2); y <= Math.max(y1, y2); ++y) {
+                pintar(img, x1, (int) y, recorte);
+            }
+        } else if (Math.abs(x1 - x2) > Math.abs(y1 - y2)) {
+            for (double x = Math.min(x1, x2); x <= Math.max(x1, x2); ++x) {
+                pintar(img, (int) x, (int) (m * x + b), recorte);
+            }
+        } else {
+            for (double y = Math.min(y1, y2); y <= Math.max(y1, y2); ++y) {
+                pintar(img, (int) ((y - b) / m), (int) y, recorte);
+            }
+        }
+    }
+
+    private static void pintar(BufferedImage img, int x, int y, Rectangle recorte) {
+        if (x >= 0 && y >= 0 && x < LARG && y < ALT && (recorte == null || recorte.contains(x, y))) {
+            img.setRGB(x, y, COR);
+        }
+    }
+
+    private static boolean igual(BufferedImage a, BufferedImage b) {
+        for (int y = 0; y < ALT; y++) {
+            for (int x = 0; x < LARG; x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+package reta;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import raster.RasterInt;
+import raster.Retas;
+
+/**
+ * Mede quantas retas pelo ponto medio (RETA_MP) por segundo cada caminho
+ * desenha: o laco original, com um fillOval (e um drawString do nome vazio)
+ * por pixel; {@link RetaGr#desenharRetaMp}, que passa trechos ao Graphics2D;
+ * e {@link Retas#mp}, que escreve direto no int[] de um {@link RasterInt}.
+ * As retas sao aleatorias, de ate 100 pixels, numa imagem 800 x 600.
+ * Uso: java reta.TestaRetaMp [quantidade de retas] [espessura]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaRetaMp {
+    static final int LARG = 800, ALT = 600;
+
+    public static void main(String args[]) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int esp = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int[] retas = gerar(n);
+        Color cor = Color.RED;
+
+        BufferedImage img = new BufferedImage(LARG, ALT, BufferedImage.TYPE_INT_ARGB);
+        RasterInt raster = new RasterInt(img);
+        System.out.println("retas: " + n + ", espessura " + esp);
+        for (int rodada = 0; rodada < 3; rodada++) {
+            Graphics2D g = img.createGraphics();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < retas.length; i += 4) {
+                desenharOriginal(g, retas[i], retas[i + 1], retas[i + 2], retas[i + 3], cor, esp);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < retas.length; i += 4) {
+                new RetaGr(retas[i], retas[i + 1], retas[i + 2], retas[i + 3], cor, "", esp).desenharRetaMp(g);
+            }
+            long t2 = System.nanoTime();
+            g.dispose();
+            for (int i = 0; i < retas.length; i += 4) {
+                Retas.mp(raster, retas[i], retas[i + 1], retas[i + 2], retas[i + 3], cor.getRGB(), esp);
+            }
+            long t3 = System.nanoTime();
+
+            System.out.printf("rodada %d: fillOval por pixel %.0f retas/s | Graphics2D por trechos %.0f retas/s"
+                + " | raster int[] %.0f retas/s%n",
+                rodada, n / ((t1 - t0) / 1e9), n / ((t2 - t1) / 1e9), n / ((t3 - t2) / 1e9));
+        }
+    }
+
+    /**
+     * Gera as retas, quatro coordenadas por reta.
+     */
+    private static int[] gerar(int n) {
+        Random r = new Random(9);
+        int[] retas = new int[4 * n];
+        for (int i = 0; i < retas.length; i += 4) {
+            retas[i] = r.nextInt(LARG);
+            retas[i + 1] = r.nextInt(ALT);
+            retas[i + 2] = retas[i] + r.nextInt(201) - 100;
+            retas[i + 3] = retas[i + 1] + r.nextInt(201) - 100;
+        }
+        return retas;
+    }
+
+    /**
+     * Reproduz o laco original de desenharRetaMp: um ponto por passo do
+     * ponto medio, desenhado como um oval do diametro da espessura, seguido
+     * do nome (vazio) do ponto.
+     */
+    private static void desenharOriginal(Graphics2D g, int x1, int y1, int x2, int y2, Color cor, int esp) {
+        int dx = Math.abs(x2 - x1), dy = Math.abs(y2 - y1);
+        int incx = x2 < x1 ? -1 : 1, incy = y2 < y1 ? -1 : 1;
+        int x = x1, y = y1;
+        plotar(g, x, y, cor, esp);
+        if (dx > dy) {
+            int e = 2 * dy - dx, inc1 = 2 * (dy - dx), inc2 = 2 * dy;
+            for (int i = 0; i < dx; i++) {
+                if (e >= 0) {
+                    y += incy;
+                    e += inc1;
+                } else {
+                    e += inc2;
+                }
+                x += incx;
+                plotar(g, x, y, cor, esp);
+            }
+        } else {
+            int e = 2 * dx - dy, inc1 = 2 * (dx - dy), inc2 = 2 * dx;
+            for (int i = 0; i < dy; i++) {
+                if (e >= 0) {
+                    x += incx;
+                    e += inc1;
+                } else {
+                    e += inc2;
+                }
+                y += incy;
+                plotar(g, x, y, cor, esp);
+            }
+        }
+    }
+
+    private static void plotar(Graphics2D g, int x, int y, Color cor, int esp) {
+        g.setColor(cor);
+        g.fillOval(x - esp / 2, y - esp / 2, esp, esp);
+        g.setColor(Color.BLACK);
+        g.drawString("", x + esp, y);
+    }
+}
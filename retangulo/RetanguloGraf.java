@@ -1,8 +1,14 @@
 package retangulo;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import cena.Poligono;
+import cena.Tracos;
+import forma.Forma;
+import org.json.JSONObject;
 import ponto.Ponto;
-import reta.RetaGr;
+import raster.DestinoGraphics;
+import raster.RasterInt;
 
 /**
  * Representa um retângulo gráfico.
@@ -11,8 +17,8 @@ import reta.RetaGr;
  * cor e espessura da linha, além do método para desenhar o retângulo na tela.
  * </p>
  *
- * <p>O retângulo é desenhado utilizando quatro instâncias da classe {@link RetaGr},
- * que representam cada lado do retângulo.</p>
+ * <p>O retângulo é desenhado como um único {@link Poligono}, de modo que os
+ * quatro lados formam um só traço com cantos unidos.</p>
  *
  * <p>Exemplo de uso:</p>
  * <pre>
@@ -28,13 +34,19 @@ import reta.RetaGr;
  * @author Seu Nome
  * @version 1.0
  */
-public class RetanguloGraf extends Retangulo {
+public class RetanguloGraf extends Retangulo implements Forma {
     /** Cor do retângulo (padrão: preto). */
     private Color cor = Color.BLACK;
 
     /** Espessura da linha do retângulo (padrão: 1). */
     private int espessura = 1;
 
+    /** Indica se o retângulo é desenhado preenchido (padrão: só o contorno). */
+    private boolean preenchido = false;
+
+    /** Contorno do retângulo, refeito só quando a geometria muda. */
+    private volatile Poligono contorno;
+
     /**
      * Constrói um retângulo gráfico a partir de dois pontos opostos,
      * definindo também a cor e a espessura da linha.
@@ -57,36 +69,183 @@ public class RetanguloGraf extends Retangulo {
     public int getEspessura() {
         return this.espessura;
     }
+
+    /**
+     * @return {@code true} se o retângulo é desenhado preenchido
+     */
+    public boolean isPreenchido() {
+        return this.preenchido;
+    }
+
+    /**
+     * Define se o retângulo é desenhado preenchido ou só com o contorno.
+     *
+     * @param preenchido {@code true} para preencher o interior
+     */
+    public void setPreenchido(boolean preenchido) {
+        this.preenchido = preenchido;
+    }
     
     /**
      * Desenha o retângulo no contexto gráfico fornecido.
      * <p>
-     * O desenho é feito utilizando quatro objetos {@link RetaGr},
-     * cada um representando um dos lados do retângulo.
+     * Define a cor e o traço compartilhado da espessura e desenha os quatro
+     * lados como um único polígono, sem alocar objetos a cada quadro.
      * </p>
      *
      * @param g o objeto {@code Graphics2D} usado para desenhar
      */
     public void desenharRetangulo(Graphics2D g) {
-        // Os 4 pontos do retângulo já são calculados na classe pai (Retangulo)
-        Ponto p1 = getP1(); // Canto inicial (x1, y1)
-        Ponto p2 = getP2(); // Canto oposto (x2, y2)
-        Ponto p3 = getP3(); // Canto (x1, y2)
-        Ponto p4 = getP4(); // Canto (x2, y1)
-
-        // Criando as 4 retas gráficas com a cor e espessura deste retângulo
-        RetaGr lado1 = new RetaGr((int)p1.getX(), (int)p1.getY(), (int)p3.getX(), (int)p3.getY(), this.cor, "", this.espessura);
-        RetaGr lado2 = new RetaGr((int)p3.getX(), (int)p3.getY(), (int)p2.getX(), (int)p2.getY(), this.cor, "", this.espessura);
-        RetaGr lado3 = new RetaGr((int)p2.getX(), (int)p2.getY(), (int)p4.getX(), (int)p4.getY(), this.cor, "", this.espessura);
-        RetaGr lado4 = new RetaGr((int)p4.getX(), (int)p4.getY(), (int)p1.getX(), (int)p1.getY(), this.cor, "", this.espessura);
-
-        // Desenhando cada lado do retângulo
-        lado1.desenharRetaLib(g);
-        lado2.desenharRetaLib(g);
-        lado3.desenharRetaLib(g);
-        lado4.desenharRetaLib(g);
+        if (this.preenchido) {
+            preencherRetangulo(g);
+            return;
+        }
+        g.setColor(this.cor);
+        g.setStroke(Tracos.obter(this.espessura));
+        tracarRetangulo(g);
+    }
+
+    /**
+     * Desenha apenas os lados do retângulo, usando a cor e a espessura já
+     * definidas no contexto gráfico (desenho em lotes de mesmo estilo).
+     *
+     * @param g o objeto {@code Graphics2D} usado para desenhar
+     */
+    public void tracarRetangulo(Graphics2D g) {
+        contorno().tracar(g);
+    }
+
+    /**
+     * Preenche o retângulo com o rasterizador por linhas de varredura. Pela
+     * regra do canto superior esquerdo, cobre as colunas de x1 a x2 - 1 e as
+     * linhas de y1 a y2 - 1.
+     *
+     * @param g o objeto {@code Graphics2D} usado para desenhar
+     */
+    public void preencherRetangulo(Graphics2D g) {
+        contorno().preencher(new DestinoGraphics(g), this.cor.getRGB());
+    }
+
+    /**
+     * Retorna o contorno do retângulo, com os vértices na ordem p1, p3, p2, p4.
+     * O polígono só é recriado quando algum canto muda; numa cena parada o
+     * desenho reaproveita sempre o mesmo objeto.
+     *
+     * @return contorno atual do retângulo
+     */
+    private Poligono contorno() {
+        int x1 = (int)getP1().getX(), y1 = (int)getP1().getY();
+        int x2 = (int)getP2().getX(), y2 = (int)getP2().getY();
+        Poligono c = contorno;
+        if (c == null || c.x(0) != x1 || c.y(0) != y1 || c.x(2) != x2 || c.y(2) != y2) {
+            c = new Poligono(new int[] {x1, x1, x2, x2}, new int[] {y1, y2, y2, y1});
+            contorno = c;
+        }
+        return c;
     }
     
+    /**
+     * Calcula a área da tela ocupada pelo retângulo, incluindo a espessura da linha.
+     *
+     * @return os limites do retângulo na tela
+     */
+    public Rectangle calcularLimites() {
+        int x1 = (int)getP1().getX(), x2 = (int)getP2().getX();
+        int y1 = (int)getP1().getY(), y2 = (int)getP2().getY();
+        int margem = this.espessura + 1;
+        return new Rectangle(Math.min(x1, x2) - margem, Math.min(y1, y2) - margem,
+            Math.abs(x2 - x1) + 2*margem + 1, Math.abs(y2 - y1) + 2*margem + 1);
+    }
+
+    /**
+     * Retorna a etiqueta de tipo do retângulo.
+     *
+     * @return {@code "RETANGULO"}
+     */
+    @Override
+    public String getTipoForma() {
+        return "RETANGULO";
+    }
+
+    /**
+     * Desenha o retângulo completo.
+     *
+     * @param g o objeto {@code Graphics2D} usado para desenhar
+     */
+    @Override
+    public void desenhar(Graphics2D g) {
+        desenharRetangulo(g);
+    }
+
+    /**
+     * Desenha apenas os lados do retângulo com o estado atual do contexto.
+     *
+     * @param g o objeto {@code Graphics2D} usado para desenhar
+     * @return sempre {@code false}, pois o retângulo não tem nome e o
+     *         preenchimento usa a mesma cor do lote
+     */
+    @Override
+    public boolean tracar(Graphics2D g) {
+        if (this.preenchido) {
+            preencherRetangulo(g);
+        } else {
+            tracarRetangulo(g);
+        }
+        return false;
+    }
+
+    /**
+     * Preenche o retângulo direto nos pixels do raster, se for preenchido e opaco.
+     *
+     * @param r raster do ladrilho
+     * @return {@code true} se o retângulo foi desenhado no raster
+     */
+    @Override
+    public boolean rasterizar(RasterInt r) {
+        if (!this.preenchido || this.cor.getAlpha() != 255) {
+            return false;
+        }
+        contorno().preencher(r, this.cor.getRGB());
+        return true;
+    }
+
+    /**
+     * @return a cor da linha do retângulo
+     */
+    @Override
+    public Color getCorTraco() {
+        return this.cor;
+    }
+
+    /**
+     * @return a espessura da linha do retângulo
+     */
+    @Override
+    public int getEspessuraTraco() {
+        return this.espessura;
+    }
+
+    /**
+     * Converte o retângulo para o objeto JSON da lista {@code "figuras"}.
+     *
+     * @return objeto JSON com tipo, cantos, cor, espessura e, se for o caso, preenchimento
+     */
+    @Override
+    public JSONObject serializar() {
+        JSONObject json = new JSONObject();
+        json.put("tipo", getTipoForma());
+        json.put("x1", getP1().getX());
+        json.put("y1", getP1().getY());
+        json.put("x2", getP2().getX());
+        json.put("y2", getP2().getY());
+        json.put("cor", Forma.corParaJson(this.cor));
+        json.put("espessura", this.espessura);
+        if (this.preenchido) {
+            json.put("preenchido", true);
+        }
+        return json;
+    }
+
     /**
      * Atualiza o ponto p2 (canto oposto) do retângulo gráfico.
      */
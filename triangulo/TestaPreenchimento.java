@@ -0,0 +1,152 @@
+package triangulo;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import raster.DestinoSpans;
+import raster.Preenchimento;
+import raster.RasterInt;
+
+/**
+ * Testa o preenchimento por linhas de varredura de {@link Preenchimento}:
+ * compara os pixels e o tempo com Graphics2D.fillPolygon em triangulos e
+ * retangulos aleatorios, e verifica, numa malha de triangulos vizinhos, que
+ * nenhum pixel e pintado duas vezes nem fica sem pintar.
+ * Uso: java triangulo.TestaPreenchimento [quantidade de poligonos]
+ *
+ * @author Amora Marinho Machado
+ * @author Gabriel Azevedo Cruz
+ * @author Gabriel Mechi Lima
+ * @author Luiz Fernando de Marchi Andrade
+ * @version 18/10/2026
+ */
+public class TestaPreenchimento {
+    static final int LARG = 1024, ALT = 768;
+
+    public static void main(String args[]) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        Random r = new Random(21);
+
+        // poligonos aleatorios: triangulos e retangulos, parte fora da imagem
+        int[][] xs = new int[n][], ys = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int x = r.nextInt(LARG + 100) - 50, y = r.nextInt(ALT + 100) - 50;
+            int tam = 1 + r.nextInt(i % 10 == 0 ? 400 : 60);
+            if (i % 2 == 0) {
+                xs[i] = new int[] {x, x + r.nextInt(2 * tam) - tam, x + r.nextInt(2 * tam) - tam};
+                ys[i] = new int[] {y, y + r.nextInt(2 * tam) - tam, y + r.nextInt(2 * tam) - tam};
+            } else {
+                int x2 = x + r.nextInt(tam), y2 = y + r.nextInt(tam);
+                xs[i] = new int[] {x, x, x2, x2};
+                ys[i] = new int[] {y, y2, y2, y};
+            }
+        }
+
+        BufferedImage imgRaster = new BufferedImage(LARG, ALT, BufferedImage.TYPE_INT_RGB);
+        BufferedImage imgFill = new BufferedImage(LARG, ALT, BufferedImage.TYPE_INT_RGB);
+        RasterInt raster = new RasterInt(imgRaster);
+        Graphics2D g = imgFill.createGraphics();
+        // sem o ajuste de coordenadas padrao (STROKE_NORMALIZE), que desloca
+        // as arestas; as diferencas que sobram sao centros de pixel exatamente
+        // sobre uma aresta, que o Java2D decide com aritmetica aproximada
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        int[] cores = new int[n];
+        Color[] coresG = new Color[n];
+        for (int i = 0; i < n; i++) {
+            cores[i] = 0xff000000 | r.nextInt(0x1000000);
+            coresG[i] = new Color(cores[i]);
+        }
+
+        for (int rodada = 0; rodada < 5; rodada++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                Preenchimento.poligono(raster, xs[i], ys[i], xs[i].length, cores[i]);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                g.setColor(coresG[i]);
+                g.fillPolygon(xs[i], ys[i], xs[i].length);
+            }
+            long t2 = System.nanoTime();
+            System.out.printf("rodada %d: linhas de varredura %.1f ms, fillPolygon %.1f ms%n",
+                rodada, (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+        }
+        g.dispose();
+
+        int diferentes = 0;
+        for (int y = 0; y < ALT; y++) {
+            for (int x = 0; x < LARG; x++) {
+                if (imgRaster.getRGB(x, y) != imgFill.getRGB(x, y)) {
+                    diferentes++;
+                }
+            }
+        }
+        System.out.printf("poligonos: %d, pixels diferentes de fillPolygon: %d (%.3f%% da imagem)%n",
+            n, diferentes, 100.0 * diferentes / (LARG * ALT));
+
+        testarMalha(r);
+    }
+
+    /**
+     * Preenche uma malha de triangulos com vertices deslocados ao acaso e
+     * conta quantas vezes cada pixel foi pintado.
+     */
+    private static void testarMalha(Random r) {
+        int passo = 32, colunas = 24, linhas = 18;
+        int[][] vx = new int[linhas + 1][colunas + 1], vy = new int[linhas + 1][colunas + 1];
+        for (int i = 0; i <= linhas; i++) {
+            for (int j = 0; j <= colunas; j++) {
+                boolean borda = i == 0 || j == 0 || i == linhas || j == colunas;
+                vx[i][j] = j * passo + (borda ? 0 : r.nextInt(passo / 2) - passo / 4);
+                vy[i][j] = i * passo + (borda ? 0 : r.nextInt(passo / 2) - passo / 4);
+            }
+        }
+
+        final int[] contagem = new int[colunas * passo * linhas * passo];
+        final int larg = colunas * passo;
+        DestinoSpans contador = new DestinoSpans() {
+            public boolean cruza(int x0, int y0, int x1, int y1) {
+                return true;
+            }
+            public void ponto(int x, int y, int argb) {
+                contagem[y * larg + x]++;
+            }
+            public void misturar(int x, int y, int argb, int cobertura) {
+                contagem[y * larg + x]++;
+            }
+            public void spanH(int x0, int x1, int y, int argb) {
+                for (int x = x0; x <= x1; x++) {
+                    contagem[y * larg + x]++;
+                }
+            }
+            public void spanV(int x, int y0, int y1, int argb) {
+                for (int y = y0; y <= y1; y++) {
+                    contagem[y * larg + x]++;
+                }
+            }
+        };
+
+        for (int i = 0; i < linhas; i++) {
+            for (int j = 0; j < colunas; j++) {
+                // cada quadrilatero vira dois triangulos pela diagonal
+                Preenchimento.poligono(contador, new int[] {vx[i][j], vx[i][j + 1], vx[i + 1][j + 1]},
+                    new int[] {vy[i][j], vy[i][j + 1], vy[i + 1][j + 1]}, 3, 0);
+                Preenchimento.poligono(contador, new int[] {vx[i][j], vx[i + 1][j + 1], vx[i + 1][j]},
+                    new int[] {vy[i][j], vy[i + 1][j + 1], vy[i + 1][j]}, 3, 0);
+            }
+        }
+
+        int falhas = 0, duplos = 0;
+        for (int c : contagem) {
+            if (c == 0) {
+                falhas++;
+            } else if (c > 1) {
+                duplos++;
+            }
+        }
+        System.out.println("malha de " + (2 * linhas * colunas) + " triangulos: pixels sem pintar "
+            + falhas + ", pintados mais de uma vez " + duplos);
+    }
+}
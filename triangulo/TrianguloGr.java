@@ -2,8 +2,9 @@ package triangulo;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import cena.Poligono;
+import cena.Tracos;
 import ponto.Ponto;
-import reta.RetaGr;
 
 /**
  * Representa um triângulo gráfico.
@@ -13,8 +14,8 @@ import reta.RetaGr;
  * contexto gráfico {@link Graphics2D}.
  * </p>
  *
- * <p>O triângulo é desenhado utilizando três instâncias da classe {@link RetaGr},
- * que representam os lados do triângulo.</p>
+ * <p>O triângulo é desenhado como um único {@link Poligono}, de modo que os
+ * três lados formam um só traço com cantos unidos.</p>
  *
  * <p>Exemplo de uso:</p>
  * <pre>
@@ -38,6 +39,9 @@ public class TrianguloGr extends Triangulo {
     /** Espessura da linha do triângulo (padrão: 1). */
     private int espessura = 1;
 
+    /** Contorno do triângulo, refeito só quando a geometria muda. */
+    private Poligono contorno;
+
     /**
      * Constrói um triângulo gráfico a partir de três pontos
      * e define os atributos de cor e espessura.
@@ -57,26 +61,24 @@ public class TrianguloGr extends Triangulo {
     /**
      * Desenha o triângulo no contexto gráfico fornecido.
      * <p>
-     * O desenho é realizado utilizando três objetos {@link RetaGr},
-     * cada um representando um dos lados do triângulo.
+     * Os três lados são desenhados como um único polígono, com o traço
+     * compartilhado da espessura e sem alocar objetos a cada chamada.
      * </p>
      *
      * @param g o objeto {@code Graphics2D} usado para desenhar
      */
     public void desenharTriangulo(Graphics2D g) {
-        Ponto p1 = getP1();
-        Ponto p2 = getP2();
-        Ponto p3 = getP3();
-
-        // Criando as 3 retas gráficas com a cor e espessura deste triângulo
-        RetaGr lado1 = new RetaGr((int) p1.getX(), (int) p1.getY(), (int) p2.getX(), (int) p2.getY(), this.cor, "", this.espessura);
-        RetaGr lado2 = new RetaGr((int) p2.getX(), (int) p2.getY(), (int) p3.getX(), (int) p3.getY(), this.cor, "", this.espessura);
-        RetaGr lado3 = new RetaGr((int) p3.getX(), (int) p3.getY(), (int) p1.getX(), (int) p1.getY(), this.cor, "", this.espessura);
+        int x1 = (int) getP1().getX(), y1 = (int) getP1().getY();
+        int x2 = (int) getP2().getX(), y2 = (int) getP2().getY();
+        int x3 = (int) getP3().getX(), y3 = (int) getP3().getY();
+        if (contorno == null || contorno.x(0) != x1 || contorno.y(0) != y1 || contorno.x(1) != x2
+            || contorno.y(1) != y2 || contorno.x(2) != x3 || contorno.y(2) != y3) {
+            contorno = new Poligono(new int[] {x1, x2, x3}, new int[] {y1, y2, y3});
+        }
 
-        // Desenhando cada lado do triângulo
-        lado1.desenharRetaLib(g);
-        lado2.desenharRetaLib(g);
-        lado3.desenharRetaLib(g); 
+        g.setColor(this.cor);
+        g.setStroke(Tracos.obter(this.espessura));
+        contorno.tracar(g);
     }
 
     /**
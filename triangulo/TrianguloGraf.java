@@ -1,8 +1,14 @@
 package triangulo;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import cena.Poligono;
+import cena.Tracos;
+import forma.Forma;
+import org.json.JSONObject;
 import ponto.Ponto;
-import reta.RetaGr;
+import raster.DestinoGraphics;
+import raster.RasterInt;
 
 /**
  * Classe para representar um triângulo gráfico.
@@ -10,10 +16,16 @@ import reta.RetaGr;
  * @author (Seu nome)
  * @version (Data)
  */
-public class TrianguloGraf extends Triangulo {
+public class TrianguloGraf extends Triangulo implements Forma {
     private Color cor = Color.BLACK;
     private int espessura = 1;
 
+    /** Indica se o triângulo é desenhado preenchido (padrão: só o contorno). */
+    private boolean preenchido = false;
+
+    /** Contorno do triângulo, refeito só quando a geometria muda. */
+    private volatile Poligono contorno;
+
     /**
      * Construtor que recebe três pontos e atributos gráficos.
      */
@@ -30,24 +42,173 @@ public class TrianguloGraf extends Triangulo {
     public int getEspessura() {
         return this.espessura;
     }
+
+    /**
+     * @return true se o triângulo é desenhado preenchido.
+     */
+    public boolean isPreenchido() {
+        return this.preenchido;
+    }
+
+    /**
+     * Define se o triângulo é desenhado preenchido ou só com o contorno.
+     * @param preenchido true para preencher o interior.
+     */
+    public void setPreenchido(boolean preenchido) {
+        this.preenchido = preenchido;
+    }
     
     /**
-     * Desenha o triângulo no contexto gráfico fornecido, utilizando 3 objetos RetaGr.
+     * Desenha o triângulo no contexto gráfico fornecido, como um único
+     * polígono com o traço compartilhado da espessura (sem alocação por quadro).
      * @param g Objeto Graphics2D para desenhar.
      */
     public void desenharTriangulo(Graphics2D g) {
-        Ponto p1 = getP1();
-        Ponto p2 = getP2();
-        Ponto p3 = getP3();
-
-        // Criando as 3 retas gráficas com a cor e espessura deste triângulo
-        RetaGr lado1 = new RetaGr((int)p1.getX(), (int)p1.getY(), (int)p2.getX(), (int)p2.getY(), this.cor, "", this.espessura);
-        RetaGr lado2 = new RetaGr((int)p2.getX(), (int)p2.getY(), (int)p3.getX(), (int)p3.getY(), this.cor, "", this.espessura);
-        RetaGr lado3 = new RetaGr((int)p3.getX(), (int)p3.getY(), (int)p1.getX(), (int)p1.getY(), this.cor, "", this.espessura);
-
-        // Desenhando cada lado do triângulo
-        lado1.desenharRetaLib(g);
-        lado2.desenharRetaLib(g);
-        lado3.desenharRetaLib(g);
+        if (this.preenchido) {
+            preencherTriangulo(g);
+            return;
+        }
+        g.setColor(this.cor);
+        g.setStroke(Tracos.obter(this.espessura));
+        tracarTriangulo(g);
+    }
+
+    /**
+     * Desenha apenas os lados do triângulo, usando a cor e a espessura já
+     * definidas no contexto gráfico (desenho em lotes de mesmo estilo).
+     * @param g Objeto Graphics2D para desenhar.
+     */
+    public void tracarTriangulo(Graphics2D g) {
+        contorno().tracar(g);
+    }
+
+    /**
+     * Preenche o triângulo com o rasterizador por linhas de varredura. Pela
+     * regra do canto superior esquerdo, triângulos vizinhos não pintam duas
+     * vezes a aresta comum.
+     * @param g Objeto Graphics2D para desenhar.
+     */
+    public void preencherTriangulo(Graphics2D g) {
+        contorno().preencher(new DestinoGraphics(g), this.cor.getRGB());
+    }
+
+    /**
+     * Retorna o contorno do triângulo. O polígono só é recriado quando algum
+     * vértice muda; numa cena parada o desenho reaproveita sempre o mesmo objeto.
+     * @return Contorno atual do triângulo.
+     */
+    private Poligono contorno() {
+        int x1 = (int)getP1().getX(), y1 = (int)getP1().getY();
+        int x2 = (int)getP2().getX(), y2 = (int)getP2().getY();
+        int x3 = (int)getP3().getX(), y3 = (int)getP3().getY();
+        Poligono c = contorno;
+        if (c == null || c.x(0) != x1 || c.y(0) != y1 || c.x(1) != x2
+            || c.y(1) != y2 || c.x(2) != x3 || c.y(2) != y3) {
+            c = new Poligono(new int[] {x1, x2, x3}, new int[] {y1, y2, y3});
+            contorno = c;
+        }
+        return c;
+    }
+
+    /**
+     * Retorna a etiqueta de tipo do triângulo.
+     * @return "TRIANGULO"
+     */
+    @Override
+    public String getTipoForma() {
+        return "TRIANGULO";
+    }
+
+    /**
+     * Desenha o triângulo completo.
+     * @param g Objeto Graphics2D para desenhar.
+     */
+    @Override
+    public void desenhar(Graphics2D g) {
+        desenharTriangulo(g);
+    }
+
+    /**
+     * Desenha apenas os lados do triângulo com o estado atual do contexto.
+     * @param g Objeto Graphics2D para desenhar.
+     * @return false, pois o triângulo não tem nome e o preenchimento usa a
+     *         mesma cor do lote.
+     */
+    @Override
+    public boolean tracar(Graphics2D g) {
+        if (this.preenchido) {
+            preencherTriangulo(g);
+        } else {
+            tracarTriangulo(g);
+        }
+        return false;
+    }
+
+    /**
+     * Preenche o triângulo direto nos pixels do raster, se for preenchido e opaco.
+     * @param r Raster do ladrilho.
+     * @return true se o triângulo foi desenhado no raster.
+     */
+    @Override
+    public boolean rasterizar(RasterInt r) {
+        if (!this.preenchido || this.cor.getAlpha() != 255) {
+            return false;
+        }
+        contorno().preencher(r, this.cor.getRGB());
+        return true;
+    }
+
+    /**
+     * @return Cor da linha do triângulo.
+     */
+    @Override
+    public Color getCorTraco() {
+        return this.cor;
+    }
+
+    /**
+     * @return Espessura da linha do triângulo.
+     */
+    @Override
+    public int getEspessuraTraco() {
+        return this.espessura;
+    }
+
+    /**
+     * Converte o triângulo para o objeto JSON da lista "figuras".
+     * @return Objeto JSON com tipo, vértices, cor, espessura e, se for o caso, preenchimento.
+     */
+    @Override
+    public JSONObject serializar() {
+        JSONObject json = new JSONObject();
+        json.put("tipo", getTipoForma());
+        json.put("x1", getP1().getX());
+        json.put("y1", getP1().getY());
+        json.put("x2", getP2().getX());
+        json.put("y2", getP2().getY());
+        json.put("x3", getP3().getX());
+        json.put("y3", getP3().getY());
+        json.put("cor", Forma.corParaJson(this.cor));
+        json.put("espessura", this.espessura);
+        if (this.preenchido) {
+            json.put("preenchido", true);
+        }
+        return json;
+    }
+
+    /**
+     * Calcula a área da tela ocupada pelo triângulo, incluindo a espessura da linha.
+     * Em ângulos agudos a junção em quina do traço avança até metade do
+     * limite de quina (10) vezes a espessura além do vértice.
+     * @return Limites do triângulo na tela.
+     */
+    public Rectangle calcularLimites() {
+        int xMin = (int)Math.min(getP1().getX(), Math.min(getP2().getX(), getP3().getX()));
+        int yMin = (int)Math.min(getP1().getY(), Math.min(getP2().getY(), getP3().getY()));
+        int xMax = (int)Math.max(getP1().getX(), Math.max(getP2().getX(), getP3().getX()));
+        int yMax = (int)Math.max(getP1().getY(), Math.max(getP2().getY(), getP3().getY()));
+        int margem = 5*this.espessura + 1;
+        return new Rectangle(xMin - margem, yMin - margem,
+            xMax - xMin + 2*margem + 1, yMax - yMin + 2*margem + 1);
     }
 }
\ No newline at end of file